@@ -0,0 +1,112 @@
+package benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+// Lanzador de los benchmarks de los controladores. Sin dependencias externas: cada escenario
+// se calienta y se mide por lotes en varias iteraciones, para cada combinación de escala.
+//
+// Uso: java benchmark.BenchmarkRunner [--rooms=15,1000,100000] [--reservations=1000,100000]
+//      [--warmup=3] [--iterations=5] [--filter=texto] [--seed=42]
+public class BenchmarkRunner {
+    private static volatile long sink;
+
+    public static void main(String[] args) throws Exception {
+        int[] roomScales = {15, 1_000, 100_000};
+        int[] reservationScales = {1_000, 100_000, 1_000_000};
+        int warmup = 3;
+        int iterations = 5;
+        String filter = "";
+        long seed = 42;
+
+        for (String arg : args) {
+            String[] parts = arg.split("=", 2);
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Argumento no válido: " + arg);
+            }
+            switch (parts[0]) {
+                case "--rooms" -> roomScales = parseList(parts[1]);
+                case "--reservations" -> reservationScales = parseList(parts[1]);
+                case "--warmup" -> warmup = Integer.parseInt(parts[1]);
+                case "--iterations" -> iterations = Integer.parseInt(parts[1]);
+                case "--filter" -> filter = parts[1];
+                case "--seed" -> seed = Long.parseLong(parts[1]);
+                default -> throw new IllegalArgumentException("Argumento no válido: " + arg);
+            }
+        }
+
+        List<Scenario> scenarios = new ArrayList<>();
+        for (Scenario scenario : ControllerBenchmarks.all()) {
+            if (scenario.getName().contains(filter)) {
+                scenarios.add(scenario);
+            }
+        }
+
+        System.out.printf(Locale.ROOT, "%-42s %9s %12s %14s %12s %14s%n",
+                "Benchmark", "rooms", "reservations", "ns/op", "error", "ops/s");
+        for (int rooms : roomScales) {
+            for (int reservations : reservationScales) {
+                long start = System.nanoTime();
+                HotelFixture fixture = new HotelFixture(rooms, reservations, seed);
+                System.out.printf(Locale.ROOT, "# carga de %d habitaciones y %d reservas: %.1f ms%n",
+                        rooms, reservations, (System.nanoTime() - start) / 1e6);
+
+                // Los escenarios comparten el hotel, así que los que reservan lo hacen crecer un poco
+                for (Scenario scenario : scenarios) {
+                    double[] results = measure(scenario, fixture, warmup, iterations);
+                    System.out.printf(Locale.ROOT, "%-42s %9d %12d %14.1f %12.1f %14.0f%n",
+                            scenario.getName(), rooms, reservations, results[0], results[1], 1e9 / results[0]);
+                }
+            }
+        }
+    }
+
+    // Devuelve la media de ns/op y su desviación típica entre iteraciones
+    private static double[] measure(Scenario scenario, HotelFixture fixture, int warmup, int iterations)
+            throws Exception {
+        int batch = scenario.getBatchSize();
+        for (int i = 0; i < warmup; i++) {
+            runBatch(scenario, fixture, batch);
+        }
+
+        double[] samples = new double[iterations];
+        for (int i = 0; i < iterations; i++) {
+            samples[i] = runBatch(scenario, fixture, batch) / (double) batch;
+        }
+
+        double mean = 0;
+        for (double sample : samples) {
+            mean += sample;
+        }
+        mean /= iterations;
+
+        double variance = 0;
+        for (double sample : samples) {
+            variance += (sample - mean) * (sample - mean);
+        }
+        double error = iterations > 1 ? Math.sqrt(variance / (iterations - 1)) : 0;
+        return new double[]{mean, error};
+    }
+
+    private static long runBatch(Scenario scenario, HotelFixture fixture, int batch) throws Exception {
+        scenario.prepare(fixture, batch);
+        long accumulated = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < batch; i++) {
+            accumulated += scenario.run(fixture, i);
+        }
+        long elapsed = System.nanoTime() - start;
+        sink += accumulated;
+        return elapsed;
+    }
+
+    private static int[] parseList(String value) {
+        String[] parts = value.split(",");
+        int[] result = new int[parts.length];
+        for (int i = 0; i < parts.length; i++) {
+            result[i] = Integer.parseInt(parts[i].trim().replace("_", ""));
+        }
+        return result;
+    }
+}
@@ -0,0 +1,364 @@
+package benchmark;
+
+import events.EventBus;
+import events.ReservationEvent;
+import model.Client;
+import model.EntityId;
+import model.RateTable;
+import model.Reservation;
+import model.Room;
+
+import java.text.Normalizer;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+// Escenarios sobre los caminos críticos de los controladores
+public final class ControllerBenchmarks {
+
+    private ControllerBenchmarks() {
+    }
+
+    public static List<Scenario> all() {
+        List<Scenario> scenarios = new ArrayList<>();
+        scenarios.add(new CreateReservation());
+        scenarios.add(new HasOverlap());
+        scenarios.add(new QuoteStay());
+        scenarios.add(new PublishEvent());
+        scenarios.add(new GetReservationById());
+        scenarios.add(new CancelReservation());
+        scenarios.add(new GetActiveReservations());
+        scenarios.add(new FindClientsByName());
+        scenarios.add(new FindClientsByPrefix());
+        scenarios.add(new SearchClients());
+        scenarios.add(new GenerateClientSummary());
+        scenarios.add(new GenerateRoomSummary());
+        scenarios.add(new GenerateRevenueReport());
+        return scenarios;
+    }
+
+    private abstract static class BaseScenario implements Scenario {
+        private final String name;
+        private final int batchSize;
+
+        BaseScenario(String name, int batchSize) {
+            this.name = name;
+            this.batchSize = batchSize;
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        @Override
+        public void prepare(HotelFixture fixture, int batchSize) throws Exception {
+        }
+    }
+
+    // ReserveController.createReservation con un cliente nuevo por reserva (alta fuera de la medida)
+    private static class CreateReservation extends BaseScenario {
+        private Client[] clients;
+
+        CreateReservation() {
+            super("ReserveController.createReservation", 10_000);
+        }
+
+        @Override
+        public void prepare(HotelFixture fixture, int batchSize) {
+            clients = new Client[batchSize];
+            for (int i = 0; i < batchSize; i++) {
+                clients[i] = fixture.newClient();
+            }
+        }
+
+        @Override
+        public long run(HotelFixture fixture, int index) throws Exception {
+            return fixture.book(clients[index]).getCheckInDate().toEpochDay();
+        }
+    }
+
+    // ReserveController.hasOverlap delega en el índice de la habitación; se mide ese camino
+    private static class HasOverlap extends BaseScenario {
+        private Room[] rooms;
+        private LocalDate[] dates;
+
+        HasOverlap() {
+            super("ReserveController.hasOverlap", 100_000);
+        }
+
+        @Override
+        public void prepare(HotelFixture fixture, int batchSize) {
+            rooms = new Room[batchSize];
+            dates = new LocalDate[batchSize];
+            for (int i = 0; i < batchSize; i++) {
+                rooms[i] = fixture.randomRoom();
+                dates[i] = fixture.randomDate();
+            }
+        }
+
+        @Override
+        public long run(HotelFixture fixture, int index) {
+            LocalDate checkIn = dates[index];
+            return rooms[index].hasOverlap(checkIn, checkIn.plusDays(3)) ? 1 : 0;
+        }
+    }
+
+    // Cotización con una temporada alta por tipo y tarifas propias en algunas habitaciones
+    private static class QuoteStay extends BaseScenario {
+        private int[] roomNumbers;
+        private LocalDate[] dates;
+
+        QuoteStay() {
+            super("ReserveController.quoteStay", 1_000_000);
+        }
+
+        @Override
+        public void prepare(HotelFixture fixture, int batchSize) {
+            RateTable rates = fixture.getReserveController().getRateTable();
+            LocalDate season = fixture.getBusinessClock().today().plusDays(30);
+            List<RateTable.Change> changes = new ArrayList<>();
+            for (Room.RoomType type : Room.RoomType.values()) {
+                changes.add(RateTable.Change.forType(type, season, season.plusDays(90), type.getPricePerNight() * 150L));
+            }
+            for (int i = 0; i < 10; i++) {
+                changes.add(RateTable.Change.forRoom(fixture.randomRoom(), season, season.plusDays(7), 9900));
+            }
+            rates.update(changes);
+
+            roomNumbers = new int[batchSize];
+            dates = new LocalDate[batchSize];
+            for (int i = 0; i < batchSize; i++) {
+                roomNumbers[i] = fixture.randomRoom().getRoomNumber();
+                dates[i] = fixture.randomDate();
+            }
+        }
+
+        @Override
+        public long run(HotelFixture fixture, int index) {
+            LocalDate checkIn = dates[index];
+            return fixture.getReserveController().quoteStay(roomNumbers[index], checkIn, checkIn.plusDays(1 + index % 14));
+        }
+    }
+
+    // Coste que añade el bus al camino de la reserva: publicar con dos consumidores activos. El
+    // lote es mayor que el búfer, así que también se mide la espera por contrapresión.
+    private static class PublishEvent extends BaseScenario {
+        private EventBus bus;
+        private Reservation[] reservations;
+        private Room[] rooms;
+
+        PublishEvent() {
+            super("EventBus.publish", 200_000);
+        }
+
+        @Override
+        public void prepare(HotelFixture fixture, int batchSize) {
+            if (bus == null) {
+                bus = new EventBus(EventBus.DEFAULT_CAPACITY, fixture.getReserveController().getMetrics());
+                long[] totals = new long[2];
+                bus.subscribe("benchmark-count", (event, sequence, endOfBatch) -> totals[0]++);
+                bus.subscribe("benchmark-revenue", (event, sequence, endOfBatch) -> totals[1] += event.getTotalPriceCents());
+            }
+            reservations = new Reservation[batchSize];
+            rooms = new Room[batchSize];
+            for (int i = 0; i < batchSize; i++) {
+                reservations[i] = fixture.hasReservations() ? fixture.randomReservation() : null;
+                rooms[i] = fixture.randomRoom();
+            }
+        }
+
+        @Override
+        public long run(HotelFixture fixture, int index) {
+            if (reservations[index] != null && index % 4 != 0) {
+                bus.publishReservation(ReservationEvent.Type.RESERVATION_CREATED, reservations[index]);
+            } else {
+                bus.publishStatusChange(rooms[index], Room.RoomStatus.DISPONIBLE, Room.RoomStatus.RESERVADA, index);
+            }
+            return index;
+        }
+    }
+
+    private static class GetReservationById extends BaseScenario {
+        private EntityId[] ids;
+
+        GetReservationById() {
+            super("ReserveController.getReservationById", 100_000);
+        }
+
+        @Override
+        public void prepare(HotelFixture fixture, int batchSize) {
+            ids = new EntityId[batchSize];
+            for (int i = 0; i < batchSize; i++) {
+                ids[i] = fixture.hasReservations() ? fixture.randomReservation().getId() : new EntityId(0, 0);
+            }
+        }
+
+        @Override
+        public long run(HotelFixture fixture, int index) {
+            Reservation reservation = fixture.getReserveController().getReservationById(ids[index]);
+            return reservation == null ? 0 : 1;
+        }
+    }
+
+    // Se crean en la preparación reservas nuevas para cancelarlas durante la medida
+    private static class CancelReservation extends BaseScenario {
+        private EntityId[] ids;
+
+        CancelReservation() {
+            super("ReserveController.cancelReservation", 10_000);
+        }
+
+        @Override
+        public void prepare(HotelFixture fixture, int batchSize) throws Exception {
+            ids = new EntityId[batchSize];
+            for (int i = 0; i < batchSize; i++) {
+                ids[i] = fixture.book(fixture.newClient()).getId();
+            }
+        }
+
+        @Override
+        public long run(HotelFixture fixture, int index) {
+            fixture.getReserveController().cancelReservation(ids[index]);
+            return index;
+        }
+    }
+
+    private static class GetActiveReservations extends BaseScenario {
+        private EntityId[] ids;
+
+        GetActiveReservations() {
+            super("ClientController.getActiveReservations", 100_000);
+        }
+
+        @Override
+        public void prepare(HotelFixture fixture, int batchSize) {
+            ids = new EntityId[batchSize];
+            for (int i = 0; i < batchSize; i++) {
+                ids[i] = fixture.hasClients() ? fixture.randomClient().getId() : new EntityId(0, 0);
+            }
+        }
+
+        @Override
+        public long run(HotelFixture fixture, int index) {
+            return fixture.getClientController().getClientActiveReservations(ids[index]).size();
+        }
+    }
+
+    // Nombre exacto de un cliente existente, en minúsculas y sin tildes como lo teclearía recepción
+    private static class FindClientsByName extends BaseScenario {
+        private String[] names;
+
+        FindClientsByName() {
+            super("ClientController.findClientsByName", 100_000);
+        }
+
+        @Override
+        public void prepare(HotelFixture fixture, int batchSize) {
+            names = new String[batchSize];
+            for (int i = 0; i < batchSize; i++) {
+                String name = fixture.hasClients() ? fixture.randomClient().getFullName() : "Nadie";
+                names[i] = Normalizer.normalize(name, Normalizer.Form.NFD).replaceAll("\\p{M}", "").toLowerCase();
+            }
+        }
+
+        @Override
+        public long run(HotelFixture fixture, int index) {
+            return fixture.getClientController().findClientsByName(names[index]).size();
+        }
+    }
+
+    // Primeras letras del primer apellido de un cliente, como al autocompletar
+    private static class FindClientsByPrefix extends BaseScenario {
+        private String[] prefixes;
+
+        FindClientsByPrefix() {
+            super("ClientController.findClientsByPrefix", 100_000);
+        }
+
+        @Override
+        public void prepare(HotelFixture fixture, int batchSize) {
+            prefixes = new String[batchSize];
+            for (int i = 0; i < batchSize; i++) {
+                String[] words = fixture.hasClients() ? fixture.randomClient().getFullName().split(" ") : new String[] {"Nadie"};
+                String surname = words[words.length > 1 ? words.length - 2 : 0];
+                prefixes[i] = surname.substring(0, Math.min(3, surname.length()));
+            }
+        }
+
+        @Override
+        public long run(HotelFixture fixture, int index) {
+            return fixture.getClientController().findClientsByPrefix(prefixes[index], 10).size();
+        }
+    }
+
+    // Apellido de un cliente con dos letras contiguas intercambiadas
+    private static class SearchClients extends BaseScenario {
+        private String[] queries;
+
+        SearchClients() {
+            super("ClientController.searchClients", 10_000);
+        }
+
+        @Override
+        public void prepare(HotelFixture fixture, int batchSize) {
+            queries = new String[batchSize];
+            for (int i = 0; i < batchSize; i++) {
+                String[] words = fixture.hasClients() ? fixture.randomClient().getFullName().split(" ") : new String[] {"Nadie"};
+                char[] surname = words[words.length - 1].toCharArray();
+                int at = surname.length > 2 ? 1 + i % (surname.length - 2) : 0;
+                if (surname.length > 1) {
+                    char swapped = surname[at];
+                    surname[at] = surname[at + 1];
+                    surname[at + 1] = swapped;
+                }
+                queries[i] = new String(surname);
+            }
+        }
+
+        @Override
+        public long run(HotelFixture fixture, int index) {
+            return fixture.getClientController().searchClients(queries[index], 10).size();
+        }
+    }
+
+    private static class GenerateClientSummary extends BaseScenario {
+        GenerateClientSummary() {
+            super("ClientController.generateClientSummary", 5);
+        }
+
+        @Override
+        public long run(HotelFixture fixture, int index) {
+            return fixture.getClientController().generateClientSummary().length();
+        }
+    }
+
+    // Un año de noches desde el primer día del hotel
+    private static class GenerateRevenueReport extends BaseScenario {
+        GenerateRevenueReport() {
+            super("AnalyticsController.generateRevenueReport", 5);
+        }
+
+        @Override
+        public long run(HotelFixture fixture, int index) {
+            LocalDate from = fixture.getBusinessClock().today();
+            return fixture.getAnalyticsController().generateRevenueReport(from, from.plusYears(1)).getRoomNightsSold();
+        }
+    }
+
+    private static class GenerateRoomSummary extends BaseScenario {
+        GenerateRoomSummary() {
+            super("RoomController.generateRoomSummary", 20);
+        }
+
+        @Override
+        public long run(HotelFixture fixture, int index) {
+            return fixture.getRoomController().generateRoomSummary().length();
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package benchmark;
+
+import controller.AnalyticsController;
+import controller.ClientController;
+import controller.ReserveController;
+import controller.RoomController;
+import metrics.Metrics;
+import model.BusinessClock;
+import model.Client;
+import model.ReservaNoDisponibleException;
+import model.Reservation;
+import model.Room;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+// Hotel precargado con un número dado de habitaciones y reservas futuras para los benchmarks.
+// Cada reserva dura 2 noches y deja un día libre antes de la siguiente de la misma habitación.
+// El hotel vive en tiempo simulado (empieza siempre el mismo día) y solo avanza con advanceDays.
+public class HotelFixture {
+    private static final Instant START = Instant.parse("2030-01-01T12:00:00Z");
+    private static final int NIGHTS = 2;
+    private static final int SLOT_DAYS = NIGHTS + 2;
+    private static final Room.RoomType[] TYPES = Room.RoomType.values();
+    // Nombres y apellidos frecuentes, para que la búsqueda por nombre se mida con muchas repeticiones
+    private static final String[] FIRST_NAMES = {
+            "Ana", "José", "María", "Juan", "Lucía", "Pedro", "Carmen", "Álvaro", "Sofía", "Jorge",
+            "Elena", "Raúl", "Marta", "Iván", "Nuria", "Óscar", "Paula", "Sergio", "Irene", "Tomás"};
+    private static final String[] SURNAMES = {
+            "García", "Fernández", "González", "Rodríguez", "López", "Martínez", "Sánchez", "Pérez",
+            "Gómez", "Martín", "Jiménez", "Ruiz", "Hernández", "Díaz", "Moreno", "Muñoz", "Álvarez",
+            "Romero", "Alonso", "Gutiérrez", "Navarro", "Torres", "Domínguez", "Vázquez", "Ramos"};
+
+    private final RoomController roomController;
+    private final ClientController clientController;
+    private final ReserveController reserveController;
+    private final AnalyticsController analyticsController;
+    private final SimulatedClock clock;
+    private final BusinessClock businessClock;
+    private final List<Room> rooms;
+    private final List<Client> clients;
+    private final List<Reservation> reservations;
+    private final LocalDate firstDay;
+    private final SplittableRandom random;
+    private long nextSlot;
+
+    public HotelFixture(int roomCount, int reservationCount, long seed) throws ReservaNoDisponibleException {
+        Metrics metrics = new Metrics();
+        this.clock = new SimulatedClock(START, ZoneOffset.UTC);
+        this.businessClock = new BusinessClock(clock);
+        this.roomController = new RoomController(metrics);
+        this.clientController = new ClientController(metrics, businessClock);
+        this.reserveController = new ReserveController(roomController, clientController, metrics);
+        this.analyticsController = new AnalyticsController(roomController, reserveController, metrics);
+        this.firstDay = businessClock.today().plusDays(1);
+        this.random = new SplittableRandom(seed);
+
+        // Las 15 habitaciones por defecto más las necesarias, numeradas a partir de la planta 10
+        for (int i = roomController.getAllRooms().size(); i < roomCount; i++) {
+            int number = 1000 + i;
+            roomController.addRoom(new Room(number, TYPES[i % TYPES.length], "Habitación de prueba"));
+        }
+        this.rooms = roomController.getAllRooms();
+
+        // Cada cliente puede tener como máximo 3 reservas activas
+        this.clients = new ArrayList<>(reservationCount / 3 + 1);
+        this.reservations = new ArrayList<>(reservationCount);
+        for (int i = 0; i < reservationCount; i++) {
+            if (i % 3 == 0) {
+                clients.add(clientController.createClient(clientName(clients.size())));
+            }
+            reservations.add(book(clients.get(clients.size() - 1)));
+        }
+    }
+
+    // Reserva en la siguiente franja libre (rotando por habitaciones)
+    public Reservation book(Client client) throws ReservaNoDisponibleException {
+        long slot = nextSlot++;
+        Room room = rooms.get((int) (slot % rooms.size()));
+        LocalDate checkIn = firstDay.plusDays((slot / rooms.size()) * SLOT_DAYS);
+        return reserveController.createReservation(client.getId(), room.getRoomNumber(), checkIn, checkIn.plusDays(NIGHTS));
+    }
+
+    public Client newClient() {
+        return clientController.createClient(clientName(clients.size()));
+    }
+
+    // Nombre y dos apellidos que dependen solo de n; uno de cada 20 lleva además un segundo nombre
+    // poco común, para que también haya nombres casi únicos
+    static String clientName(int n) {
+        long mixed = (n + 1) * 0x9E3779B97F4A7C15L;
+        int bits = (int) (mixed >>> 32) & Integer.MAX_VALUE;
+        String name = FIRST_NAMES[bits % FIRST_NAMES.length] + " "
+                + SURNAMES[(bits / FIRST_NAMES.length) % SURNAMES.length] + " "
+                + SURNAMES[(bits / (FIRST_NAMES.length * SURNAMES.length)) % SURNAMES.length];
+        return n % 20 == 0 ? "Eulogio " + Integer.toString(n, 36) + " " + name : name;
+    }
+
+    public Room randomRoom() {
+        return rooms.get(random.nextInt(rooms.size()));
+    }
+
+    public Client randomClient() {
+        return clients.get(random.nextInt(clients.size()));
+    }
+
+    public Reservation randomReservation() {
+        return reservations.get(random.nextInt(reservations.size()));
+    }
+
+    // Fecha aleatoria dentro del horizonte ocupado por las reservas precargadas
+    public LocalDate randomDate() {
+        long horizon = Math.max(1, (long) reservations.size() / rooms.size() + 1) * SLOT_DAYS;
+        return firstDay.plusDays(random.nextLong(horizon));
+    }
+
+    public boolean hasClients() {
+        return !clients.isEmpty();
+    }
+
+    public boolean hasReservations() {
+        return !reservations.isEmpty();
+    }
+
+    // Avanza el tiempo simulado y aplica el cambio de día como lo haría el planificador
+    public void advanceDays(int days) {
+        clock.advance(Duration.ofDays(days));
+        businessClock.rollover();
+    }
+
+    public BusinessClock getBusinessClock() {
+        return businessClock;
+    }
+
+    public RoomController getRoomController() {
+        return roomController;
+    }
+
+    public ClientController getClientController() {
+        return clientController;
+    }
+
+    public ReserveController getReserveController() {
+        return reserveController;
+    }
+
+    public AnalyticsController getAnalyticsController() {
+        return analyticsController;
+    }
+}
@@ -0,0 +1,155 @@
+package benchmark;
+
+import controller.ClientController;
+import controller.ReserveController;
+import controller.RoomController;
+import model.Client;
+import model.Reservation;
+import view.HotelHttpServer;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Prueba de carga de la API HTTP: arranca el servidor en un puerto libre sobre un hotel generado
+// y lanza una mezcla de consultas y operaciones con un número fijo de peticiones en vuelo.
+//
+// Uso: java benchmark.HttpLoadTest [--rooms=1000] [--reservations=100000] [--concurrency=1,16,256]
+//      [--requests=20000] [--seed=42]
+public class HttpLoadTest {
+    private static final String[] OPERATIONS = {"room", "available", "reservation", "client", "book", "statistics"};
+
+    public static void main(String[] args) throws Exception {
+        int rooms = 1000;
+        int reservations = 100_000;
+        int[] concurrencyLevels = {1, 16, 256};
+        int requests = 20_000;
+        long seed = 42;
+
+        for (String arg : args) {
+            String[] parts = arg.split("=", 2);
+            switch (parts[0]) {
+                case "--rooms" -> rooms = Integer.parseInt(parts[1]);
+                case "--reservations" -> reservations = Integer.parseInt(parts[1]);
+                case "--concurrency" -> concurrencyLevels = Arrays.stream(parts[1].split(","))
+                        .mapToInt(Integer::parseInt).toArray();
+                case "--requests" -> requests = Integer.parseInt(parts[1]);
+                case "--seed" -> seed = Long.parseLong(parts[1]);
+                default -> throw new IllegalArgumentException("Argumento no válido: " + arg);
+            }
+        }
+
+        // Igual que Main: sin TCP_NODELAY se mediría el ACK retardado (~40 ms) y no la API
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+        HotelFixture fixture = new HotelFixture(rooms, reservations, seed);
+        HotelHttpServer server = new HotelHttpServer(fixture.getRoomController(), fixture.getClientController(),
+                fixture.getReserveController());
+        server.start(0);
+        HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        String base = "http://localhost:" + server.getPort();
+
+        try {
+            System.out.printf(Locale.ROOT, "%12s %10s %8s %12s %10s %10s %10s %10s%n", "concurrencia", "peticiones",
+                    "errores", "peticiones/s", "p50 ms", "p99 ms", "p999 ms", "máx ms");
+            for (int concurrency : concurrencyLevels) {
+                run(client, base, fixture, concurrency, requests, new Random(seed + concurrency));
+            }
+            System.out.println();
+            fixture.getReserveController().getMetrics().writeReport(System.out);
+        } finally {
+            server.stop();
+        }
+    }
+
+    private static void run(HttpClient client, String base, HotelFixture fixture, int concurrency, int requests,
+                            Random random) throws Exception {
+        Semaphore inFlight = new Semaphore(concurrency);
+        long[] latencies = new long[requests];
+        AtomicLong errors = new AtomicLong();
+        List<CompletableFuture<?>> pending = new ArrayList<>(concurrency);
+
+        long start = System.nanoTime();
+        for (int i = 0; i < requests; i++) {
+            HttpRequest request = nextRequest(base, fixture, random);
+            inFlight.acquire();
+            final int index = i;
+            final long sent = System.nanoTime();
+            pending.add(client.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+                    .whenComplete((response, failure) -> {
+                        latencies[index] = System.nanoTime() - sent;
+                        // Los 409 (habitación ocupada, límite de reservas) son respuestas válidas del negocio
+                        if (failure != null || response.statusCode() >= 500 || response.statusCode() == 400) {
+                            errors.incrementAndGet();
+                        }
+                        inFlight.release();
+                    }));
+            if (pending.size() >= 4096) {
+                pending.removeIf(CompletableFuture::isDone);
+            }
+        }
+        CompletableFuture.allOf(pending.toArray(new CompletableFuture<?>[0])).exceptionally(e -> null).join();
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        Arrays.sort(latencies);
+        System.out.printf(Locale.ROOT, "%12d %10d %8d %12.0f %10.2f %10.2f %10.2f %10.2f%n", concurrency, requests,
+                errors.get(), requests / seconds, percentile(latencies, 0.50) / 1e6,
+                percentile(latencies, 0.99) / 1e6, percentile(latencies, 0.999) / 1e6,
+                latencies[latencies.length - 1] / 1e6);
+    }
+
+    private static HttpRequest nextRequest(String base, HotelFixture fixture, Random random) {
+        String operation = OPERATIONS[random.nextInt(OPERATIONS.length)];
+        switch (operation) {
+            case "room" -> {
+                return get(base + "/rooms/" + fixture.randomRoom().getRoomNumber());
+            }
+            case "available" -> {
+                LocalDate checkIn = fixture.randomDate();
+                return get(base + "/rooms/available?checkIn=" + checkIn + "&checkOut=" + checkIn.plusDays(2));
+            }
+            case "reservation" -> {
+                Reservation reservation = fixture.randomReservation();
+                return get(base + "/reservations/" + reservation.getId());
+            }
+            case "client" -> {
+                Client client = fixture.randomClient();
+                return get(base + "/clients/" + client.getId() + "/reservations");
+            }
+            case "book" -> {
+                Client client = fixture.randomClient();
+                LocalDate checkIn = fixture.randomDate();
+                String body = "{\"clientId\":\"" + client.getId() + "\",\"roomNumber\":"
+                        + fixture.randomRoom().getRoomNumber() + ",\"checkIn\":\"" + checkIn
+                        + "\",\"checkOut\":\"" + checkIn.plusDays(2) + "\"}";
+                return HttpRequest.newBuilder(URI.create(base + "/reservations"))
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(body))
+                        .build();
+            }
+            default -> {
+                return get(base + "/statistics");
+            }
+        }
+    }
+
+    private static HttpRequest get(String uri) {
+        return HttpRequest.newBuilder(URI.create(uri)).GET().build();
+    }
+
+    private static long percentile(long[] sorted, double percentile) {
+        int index = (int) Math.ceil(percentile * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(sorted.length - 1, index))];
+    }
+}
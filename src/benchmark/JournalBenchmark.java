@@ -0,0 +1,128 @@
+package benchmark;
+
+import controller.ClientController;
+import controller.ReserveController;
+import controller.RoomController;
+import model.EntityId;
+import model.Room;
+import persistence.Journal;
+import persistence.JournalReplayer;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CountDownLatch;
+
+// Mide el diario: throughput de escritura con fsync (commit en grupo) según el número de hilos
+// y tiempo de reproducción de un diario grande, tanto solo decodificando como sobre los controladores.
+//
+// Uso: java benchmark.JournalBenchmark [--threads=1,4,16,64] [--events=20000] [--replay=10000000]
+//      [--dir=directorio]
+public class JournalBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int[] threadCounts = {1, 4, 16, 64};
+        int events = 20_000;
+        int replayEvents = 10_000_000;
+        Path dir = Files.createTempDirectory("journal-bench");
+
+        for (String arg : args) {
+            String[] parts = arg.split("=", 2);
+            switch (parts[0]) {
+                case "--threads" -> threadCounts = java.util.Arrays.stream(parts[1].split(","))
+                        .mapToInt(Integer::parseInt).toArray();
+                case "--events" -> events = Integer.parseInt(parts[1]);
+                case "--replay" -> replayEvents = Integer.parseInt(parts[1]);
+                case "--dir" -> dir = Path.of(parts[1]);
+                default -> throw new IllegalArgumentException("Argumento no válido: " + arg);
+            }
+        }
+
+        System.out.printf(Locale.ROOT, "%8s %10s %14s %10s %14s%n", "threads", "events", "events/s", "fsyncs",
+                "events/fsync");
+        for (int threads : threadCounts) {
+            measureAppend(dir.resolve("append-" + threads + ".journal"), threads, events);
+        }
+
+        measureReplay(dir.resolve("replay.journal"), replayEvents);
+    }
+
+    private static void measureAppend(Path path, int threads, int events) throws Exception {
+        Files.deleteIfExists(path);
+        try (Journal journal = Journal.open(path, null)) {
+            EntityId clientId = EntityId.next();
+            LocalDate day = LocalDate.now();
+            int perThread = events / threads;
+            CountDownLatch done = new CountDownLatch(threads);
+
+            long start = System.nanoTime();
+            for (int t = 0; t < threads; t++) {
+                final int roomNumber = 101 + t;
+                Thread thread = new Thread(() -> {
+                    for (int i = 0; i < perThread; i++) {
+                        long sequence = journal.appendReservationCreated(EntityId.next(), clientId,
+                                roomNumber, day.plusDays(i), day.plusDays(i + 1), 8000);
+                        journal.awaitDurable(sequence);
+                    }
+                    done.countDown();
+                });
+                thread.start();
+            }
+            done.await();
+            double seconds = (System.nanoTime() - start) / 1e9;
+
+            long written = (long) perThread * threads;
+            System.out.printf(Locale.ROOT, "%8d %10d %14.0f %10d %14.1f%n", threads, written, written / seconds,
+                    journal.getSyncCount(), journal.getSyncedRecords() / (double) Math.max(1, journal.getSyncCount()));
+        }
+        Files.deleteIfExists(path);
+    }
+
+    private static void measureReplay(Path path, int events) throws Exception {
+        Files.deleteIfExists(path);
+
+        // Un cliente cada 3 reservas, rotando por las habitaciones por defecto en franjas futuras
+        List<Room> rooms = new RoomController().getAllRooms();
+        LocalDate firstDay = LocalDate.now().plusDays(1);
+        long start = System.nanoTime();
+        try (Journal journal = Journal.open(path, null)) {
+            EntityId clientId = null;
+            int reservations = 0;
+            for (int i = 0; i < events; i++) {
+                if (reservations % 3 == 0 && clientId == null) {
+                    clientId = EntityId.next();
+                    journal.appendClientCreated(clientId, "Cliente " + i);
+                    continue;
+                }
+                Room room = rooms.get(reservations % rooms.size());
+                LocalDate checkIn = firstDay.plusDays((long) (reservations / rooms.size()) * 4);
+                journal.appendReservationCreated(EntityId.next(), clientId, room.getRoomNumber(),
+                        checkIn, checkIn.plusDays(2), room.getBasePricePerNight() * 200L);
+                reservations++;
+                if (reservations % 3 == 0) {
+                    clientId = null;
+                }
+            }
+        }
+        System.out.printf(Locale.ROOT, "%nescritura de %d eventos: %.1f ms (%d bytes)%n", events,
+                (System.nanoTime() - start) / 1e6, Files.size(path));
+
+        start = System.nanoTime();
+        long last = Journal.replay(path, null);
+        System.out.printf(Locale.ROOT, "reproducción (solo lectura y CRC) de %d eventos: %.1f ms%n", last,
+                (System.nanoTime() - start) / 1e6);
+
+        RoomController roomController = new RoomController();
+        ClientController clientController = new ClientController();
+        ReserveController reserveController = new ReserveController(roomController, clientController);
+        JournalReplayer replayer = new JournalReplayer(clientController, reserveController);
+        start = System.nanoTime();
+        Journal.replay(path, replayer);
+        System.out.printf(Locale.ROOT, "reproducción sobre los controladores de %d eventos: %.1f ms%n",
+                replayer.getEventCount(), (System.nanoTime() - start) / 1e6);
+
+        Files.deleteIfExists(path);
+    }
+}
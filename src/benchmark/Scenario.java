@@ -0,0 +1,15 @@
+package benchmark;
+
+// Operación medida por el BenchmarkRunner. prepare() se ejecuta fuera de la medición antes
+// de cada iteración y run() se cronometra en bloque para todo el lote.
+public interface Scenario {
+    String getName();
+
+    // Número de operaciones por iteración de medida
+    int getBatchSize();
+
+    void prepare(HotelFixture fixture, int batchSize) throws Exception;
+
+    // Devuelve un valor cualquiera derivado del resultado para que el JIT no elimine la llamada
+    long run(HotelFixture fixture, int index) throws Exception;
+}
@@ -0,0 +1,48 @@
+package benchmark;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Reloj que solo avanza cuando se le pide, para que los benchmarks y simulaciones den el mismo
+// resultado en cualquier fecha real
+public class SimulatedClock extends Clock {
+    private final ZoneId zone;
+    private final AtomicLong millis;
+
+    public SimulatedClock(Instant start, ZoneId zone) {
+        this(zone, new AtomicLong(start.toEpochMilli()));
+    }
+
+    private SimulatedClock(ZoneId zone, AtomicLong millis) {
+        this.zone = zone;
+        this.millis = millis;
+    }
+
+    public void advance(Duration duration) {
+        millis.addAndGet(duration.toMillis());
+    }
+
+    @Override
+    public ZoneId getZone() {
+        return zone;
+    }
+
+    // Comparte el mismo tiempo simulado con otra zona horaria
+    @Override
+    public Clock withZone(ZoneId zone) {
+        return new SimulatedClock(zone, millis);
+    }
+
+    @Override
+    public long millis() {
+        return millis.get();
+    }
+
+    @Override
+    public Instant instant() {
+        return Instant.ofEpochMilli(millis.get());
+    }
+}
@@ -0,0 +1,550 @@
+package benchmark;
+
+import controller.AnalyticsController;
+import controller.ClientController;
+import controller.ReserveController;
+import controller.RoomController;
+import metrics.LatencyHistogram;
+import metrics.Metrics;
+import metrics.OperationMetrics;
+import model.BusinessClock;
+import model.Client;
+import model.ReservaNoDisponibleException;
+import model.Reservation;
+import model.RevenueReport;
+import model.Room;
+
+import java.lang.management.ManagementFactory;
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.LongAdder;
+
+// Simulación de un hotel completo en tiempo simulado: genera las habitaciones de una o varias
+// propiedades, una población de clientes y, día a día, reservas, cancelaciones, check-in,
+// check-out y consultas, con temporada alta, fines de semana, picos por eventos y unas pocas
+// habitaciones mucho más solicitadas que el resto.
+//
+// Todo el plan sale de la semilla y no depende del resultado de las llamadas: con un hilo dos
+// ejecuciones hacen exactamente las mismas llamadas, y con varios el plan es el mismo aunque el
+// orden entre hilos no. Cada día se ejecuta en tres fases repartidas entre los hilos (salidas,
+// llegadas y el resto del tráfico mezclado) y después se aplica el cambio de día. Al final se
+// informa del rendimiento, las latencias, la memoria reservada por operación y el porcentaje de
+// rechazos de cada operación.
+//
+// Uso: java benchmark.Simulation [--properties=1] [--floors=10] [--rooms-per-floor=20]
+//      [--guests=5000] [--days=120] [--warmup-days=10] [--bookings=100] [--lookups=2]
+//      [--hot-rooms=0.05] [--hot-share=0.3] [--threads=1,4] [--seed=42] [--report]
+public class Simulation {
+    private static final Instant START = Instant.parse("2030-01-01T12:00:00Z");
+    private static final String[] DESCRIPTIONS = {
+            "Vista a la calle", "Vista al jardín", "Vista al mar", "Cama extra grande", "Dos camas individuales",
+            "Con balcón", "Adaptada", "Con terraza"};
+    // Antelación y duración medias de las estancias, en días
+    private static final double MEAN_LEAD_DAYS = 21;
+    private static final double MEAN_EXTRA_NIGHTS = 1.5;
+    private static final int MAX_LEAD_DAYS = 180;
+    private static final int MAX_NIGHTS = 14;
+    private static final double CANCEL_RATE = 0.12;
+    private static final double NO_SHOW_RATE = 0.04;
+    // Parte de las reservas que buscan disponibilidad en vez de pedir una habitación concreta
+    private static final double SEARCH_RATE = 0.5;
+    private static final double EVENT_DEMAND = 2.5;
+    private static final double MAX_DEMAND = 1.4 * 1.3 * EVENT_DEMAND;
+    // Rechazo de una reserva por búsqueda que no encuentra nada; se crea una vez, no en cada intento
+    private static final ReservaNoDisponibleException SOLD_OUT =
+            new ReservaNoDisponibleException("No hay habitaciones libres del tipo buscado");
+
+    private enum Kind {
+        BOOK("reservar"),
+        CANCEL("cancelar"),
+        CHECK_IN("check-in"),
+        CHECK_OUT("check-out"),
+        SEARCH("buscar disponibilidad"),
+        GET_RESERVATION("consultar reserva"),
+        CLIENT_HISTORY("historial del cliente");
+
+        private final String label;
+
+        Kind(String label) {
+            this.label = label;
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        Config config = new Config();
+        int[] threadCounts = {1, 4};
+        boolean report = false;
+
+        for (String arg : args) {
+            if (arg.equals("--report")) {
+                report = true;
+                continue;
+            }
+            String[] parts = arg.split("=", 2);
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Argumento no válido: " + arg);
+            }
+            switch (parts[0]) {
+                case "--properties" -> config.properties = Integer.parseInt(parts[1]);
+                case "--floors" -> config.floors = Integer.parseInt(parts[1]);
+                case "--rooms-per-floor" -> config.roomsPerFloor = Integer.parseInt(parts[1]);
+                case "--guests" -> config.guests = Integer.parseInt(parts[1]);
+                case "--days" -> config.days = Integer.parseInt(parts[1]);
+                case "--warmup-days" -> config.warmupDays = Integer.parseInt(parts[1]);
+                case "--bookings" -> config.bookingsPerDay = Integer.parseInt(parts[1]);
+                case "--lookups" -> config.lookupsPerBooking = Double.parseDouble(parts[1]);
+                case "--hot-rooms" -> config.hotRooms = Double.parseDouble(parts[1]);
+                case "--hot-share" -> config.hotShare = Double.parseDouble(parts[1]);
+                case "--threads" -> threadCounts = Arrays.stream(parts[1].split(","))
+                        .mapToInt(value -> Integer.parseInt(value.trim())).toArray();
+                case "--seed" -> config.seed = Long.parseLong(parts[1]);
+                default -> throw new IllegalArgumentException("Argumento no válido: " + arg);
+            }
+        }
+        config.validate();
+
+        System.out.printf(Locale.ROOT, "# %d propiedades, %d habitaciones, %d clientes; %d días (%d de calentamiento), "
+                        + "%d reservas/día de media, semilla %d%n", config.properties, config.roomCount(), config.guests,
+                config.days, config.warmupDays, config.bookingsPerDay, config.seed);
+        for (int threads : threadCounts) {
+            new Simulation(config, threads).run(report);
+        }
+    }
+
+    // Parámetros de la simulación
+    static final class Config {
+        int properties = 1;
+        int floors = 10;
+        int roomsPerFloor = 20;
+        int guests = 5000;
+        int days = 120;
+        int warmupDays = 10;
+        int bookingsPerDay = 100;
+        double lookupsPerBooking = 2;
+        double hotRooms = 0.05;
+        double hotShare = 0.3;
+        long seed = 42;
+
+        int roomCount() {
+            return properties * floors * roomsPerFloor;
+        }
+
+        void validate() {
+            if (properties < 1 || floors < 1 || floors > 99 || roomsPerFloor < 1 || roomsPerFloor > 99) {
+                throw new IllegalArgumentException("Entre 1 y 99 plantas y habitaciones por planta, y al menos una propiedad");
+            }
+            if (guests < 1 || days < 1 || warmupDays < 0 || warmupDays >= days || bookingsPerDay < 0) {
+                throw new IllegalArgumentException("Configuración de la simulación no válida");
+            }
+            if (hotRooms < 0 || hotRooms > 1 || hotShare < 0 || hotShare > 1 || lookupsPerBooking < 0) {
+                throw new IllegalArgumentException("Las proporciones deben estar entre 0 y 1");
+            }
+        }
+    }
+
+    // Reserva planificada; la reserva real (si se llegó a crear) la rellena quien la ejecuta
+    private static final class Booking {
+        final int client;
+        final int property;
+        final Room.RoomType type;
+        // 0 si la reserva busca disponibilidad; pick elige entre las habitaciones encontradas
+        final int roomNumber;
+        final int pick;
+        final LocalDate checkIn;
+        final LocalDate checkOut;
+        volatile Reservation reservation;
+        volatile boolean checkedIn;
+
+        Booking(int client, int property, Room.RoomType type, int roomNumber, int pick, LocalDate checkIn,
+                LocalDate checkOut) {
+            this.client = client;
+            this.property = property;
+            this.type = type;
+            this.roomNumber = roomNumber;
+            this.pick = pick;
+            this.checkIn = checkIn;
+            this.checkOut = checkOut;
+        }
+    }
+
+    private static final class Operation {
+        final Kind kind;
+        final Booking booking;
+        final int client;
+
+        Operation(Kind kind, Booking booking, int client) {
+            this.kind = kind;
+            this.booking = booking;
+            this.client = client;
+        }
+    }
+
+    // Operaciones planificadas para un día, por fases
+    private static final class DayPlan {
+        final List<Operation> checkOuts = new ArrayList<>();
+        final List<Operation> checkIns = new ArrayList<>();
+        final List<Operation> traffic = new ArrayList<>();
+    }
+
+    private final Config config;
+    private final int threads;
+    private final SplittableRandom random;
+    private final SimulatedClock clock;
+    private final BusinessClock businessClock;
+    private final RoomController roomController;
+    private final ClientController clientController;
+    private final ReserveController reserveController;
+    private final AnalyticsController analyticsController;
+    private final List<Room> rooms;
+    private final List<Room> hotRooms;
+    private final List<Client> clients;
+    private final List<Booking> bookings;
+    private final Map<LocalDate, DayPlan> plans;
+    private final Set<Long> eventDays;
+    private final Metrics simulationMetrics;
+    private final Map<Kind, OperationMetrics> operations;
+    private final LongAdder skipped;
+    private final LongAdder allocatedBytes;
+    // Null si la JVM no sabe medir la memoria reservada por hilo
+    private final com.sun.management.ThreadMXBean threadBean;
+    private volatile boolean measuring;
+
+    Simulation(Config config, int threads) {
+        this.config = config;
+        this.threads = threads;
+        this.random = new SplittableRandom(config.seed);
+        this.clock = new SimulatedClock(START, ZoneOffset.UTC);
+        this.businessClock = new BusinessClock(clock);
+        Metrics metrics = new Metrics();
+        this.roomController = new RoomController(metrics);
+        this.clientController = new ClientController(metrics, businessClock);
+        this.reserveController = new ReserveController(roomController, clientController, metrics);
+        this.analyticsController = new AnalyticsController(roomController, reserveController, metrics);
+        this.rooms = new ArrayList<>(config.roomCount());
+        this.hotRooms = new ArrayList<>();
+        this.clients = new ArrayList<>(config.guests);
+        this.bookings = new ArrayList<>();
+        this.plans = new HashMap<>();
+        this.eventDays = new HashSet<>();
+        this.simulationMetrics = new Metrics();
+        this.operations = new EnumMap<>(Kind.class);
+        for (Kind kind : Kind.values()) {
+            operations.put(kind, simulationMetrics.operation("Simulation." + kind.label));
+        }
+        this.skipped = simulationMetrics.counter("Simulation.skipped");
+        this.allocatedBytes = new LongAdder();
+        this.threadBean = ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean bean
+                && bean.isThreadAllocatedMemorySupported() ? bean : null;
+        generateHotel();
+    }
+
+    // Las propiedades se numeran desde 1 para no mezclarse con las 15 habitaciones por defecto
+    // (propiedad 0), que quedan fuera de la simulación. Las plantas altas son suites.
+    private void generateHotel() {
+        for (int property = 1; property <= config.properties; property++) {
+            for (int floor = 1; floor <= config.floors; floor++) {
+                for (int i = 1; i <= config.roomsPerFloor; i++) {
+                    Room.RoomType type;
+                    if (floor > config.floors * 0.8) {
+                        type = Room.RoomType.SUITE;
+                    } else {
+                        type = random.nextDouble() < 0.6 ? Room.RoomType.DOBLE : Room.RoomType.INDIVIDUAL;
+                    }
+                    Room room = new Room(property * Room.ROOMS_PER_PROPERTY + floor * 100 + i, type,
+                            DESCRIPTIONS[random.nextInt(DESCRIPTIONS.length)]);
+                    roomController.addRoom(room);
+                    rooms.add(room);
+                }
+            }
+        }
+        int hotCount = (int) Math.ceil(rooms.size() * config.hotRooms);
+        for (int i = 0; i < hotCount; i++) {
+            hotRooms.add(rooms.get(random.nextInt(rooms.size())));
+        }
+
+        for (int i = 0; i < config.guests; i++) {
+            clients.add(clientController.createClient(HotelFixture.clientName(i)));
+        }
+
+        // Eventos (congresos, fiestas) de 3 a 6 días cada 30 a 60 días, hasta donde se puede reservar
+        long day = businessClock.today().toEpochDay() + random.nextInt(30);
+        long last = businessClock.today().toEpochDay() + config.days + MAX_LEAD_DAYS + MAX_NIGHTS;
+        while (day < last) {
+            int length = 3 + random.nextInt(4);
+            for (int i = 0; i < length; i++) {
+                eventDays.add(day + i);
+            }
+            day += 30 + random.nextInt(31);
+        }
+    }
+
+    private void run(boolean report) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            LocalDate firstMeasured = null;
+            long elapsed = 0;
+            for (int day = 0; day < config.days; day++) {
+                if (day == config.warmupDays) {
+                    simulationMetrics.reset();
+                    allocatedBytes.reset();
+                    measuring = true;
+                    firstMeasured = businessClock.today();
+                }
+                DayPlan plan = planDay(businessClock.today());
+
+                long start = System.nanoTime();
+                execute(pool, plan.checkOuts);
+                execute(pool, plan.checkIns);
+                execute(pool, plan.traffic);
+                clock.advance(Duration.ofDays(1));
+                businessClock.rollover();
+                if (measuring) {
+                    elapsed += System.nanoTime() - start;
+                }
+            }
+            printResults(firstMeasured, elapsed);
+            if (report) {
+                System.out.println();
+                simulationMetrics.writeReport(System.out);
+                System.out.println();
+                reserveController.getMetrics().writeReport(System.out);
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    // Reservas nuevas y consultas del día, mezcladas con las cancelaciones planificadas para hoy.
+    // Al planificar cada reserva se decide también si se cancelará o si el cliente no se presenta.
+    private DayPlan planDay(LocalDate today) {
+        DayPlan plan = plans.remove(today);
+        if (plan == null) {
+            plan = new DayPlan();
+        }
+
+        int count = (int) Math.round(config.bookingsPerDay * (0.75 + random.nextDouble() * 0.5));
+        for (int i = 0; i < count; i++) {
+            Booking booking = newBooking(today);
+            bookings.add(booking);
+            plan.traffic.add(new Operation(Kind.BOOK, booking, booking.client));
+
+            long daysAhead = booking.checkIn.toEpochDay() - today.toEpochDay();
+            if (random.nextDouble() < CANCEL_RATE && daysAhead > 1) {
+                LocalDate cancelDay = today.plusDays(1 + random.nextLong(daysAhead - 1));
+                planFor(cancelDay).traffic.add(new Operation(Kind.CANCEL, booking, booking.client));
+            } else if (random.nextDouble() >= NO_SHOW_RATE) {
+                planFor(booking.checkIn).checkIns.add(new Operation(Kind.CHECK_IN, booking, booking.client));
+                planFor(booking.checkOut).checkOuts.add(new Operation(Kind.CHECK_OUT, booking, booking.client));
+            }
+        }
+
+        int lookups = (int) Math.round(count * config.lookupsPerBooking);
+        for (int i = 0; i < lookups; i++) {
+            double kind = random.nextDouble();
+            if (kind < 0.5 || bookings.isEmpty()) {
+                plan.traffic.add(new Operation(Kind.SEARCH, newBooking(today), -1));
+            } else if (kind < 0.8) {
+                Booking booking = bookings.get(random.nextInt(bookings.size()));
+                plan.traffic.add(new Operation(Kind.GET_RESERVATION, booking, booking.client));
+            } else {
+                plan.traffic.add(new Operation(Kind.CLIENT_HISTORY, null, random.nextInt(clients.size())));
+            }
+        }
+
+        // Fisher-Yates con el mismo generador, para que la mezcla también sea reproducible
+        List<Operation> traffic = plan.traffic;
+        for (int i = traffic.size() - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            Operation swap = traffic.get(i);
+            traffic.set(i, traffic.get(j));
+            traffic.set(j, swap);
+        }
+        return plan;
+    }
+
+    private DayPlan planFor(LocalDate day) {
+        return plans.computeIfAbsent(day, key -> new DayPlan());
+    }
+
+    // La fecha de entrada sigue a la demanda: se acepta una antelación con probabilidad
+    // proporcional a la demanda de ese día (temporada, fin de semana y eventos)
+    private Booking newBooking(LocalDate today) {
+        LocalDate checkIn;
+        do {
+            int lead = 1 + Math.min(MAX_LEAD_DAYS - 1, geometric(MEAN_LEAD_DAYS));
+            checkIn = today.plusDays(lead);
+        } while (random.nextDouble() * MAX_DEMAND > demand(checkIn));
+        int nights = 1 + Math.min(MAX_NIGHTS - 1, geometric(MEAN_EXTRA_NIGHTS));
+
+        int client = random.nextInt(clients.size());
+        int property = 1 + random.nextInt(config.properties);
+        double typeChoice = random.nextDouble();
+        Room.RoomType type = typeChoice < 0.3 ? Room.RoomType.INDIVIDUAL
+                : typeChoice < 0.85 ? Room.RoomType.DOBLE : Room.RoomType.SUITE;
+        int roomNumber = 0;
+        if (random.nextDouble() >= SEARCH_RATE) {
+            Room room = !hotRooms.isEmpty() && random.nextDouble() < config.hotShare
+                    ? hotRooms.get(random.nextInt(hotRooms.size()))
+                    : rooms.get(random.nextInt(rooms.size()));
+            roomNumber = room.getRoomNumber();
+        }
+        return new Booking(client, property, type, roomNumber, random.nextInt(Integer.MAX_VALUE), checkIn,
+                checkIn.plusDays(nights));
+    }
+
+    // Demanda relativa de una noche: máximo a mediados de julio, viernes y sábados y días de evento
+    private double demand(LocalDate day) {
+        double season = 1 + 0.4 * Math.cos(2 * Math.PI * (day.getDayOfYear() - 200) / 365.25);
+        DayOfWeek dayOfWeek = day.getDayOfWeek();
+        double weekend = dayOfWeek == DayOfWeek.FRIDAY || dayOfWeek == DayOfWeek.SATURDAY ? 1.3 : 1;
+        double event = eventDays.contains(day.toEpochDay()) ? EVENT_DEMAND : 1;
+        return season * weekend * event;
+    }
+
+    private int geometric(double mean) {
+        return (int) (-Math.log(1 - random.nextDouble()) * mean);
+    }
+
+    // Reparte las operaciones en bloques consecutivos, uno por hilo, y espera a que terminen todos
+    private void execute(ExecutorService pool, List<Operation> batch) throws Exception {
+        if (batch.isEmpty()) {
+            return;
+        }
+        int chunk = (batch.size() + threads - 1) / threads;
+        List<Callable<Void>> tasks = new ArrayList<>(threads);
+        for (int from = 0; from < batch.size(); from += chunk) {
+            List<Operation> part = batch.subList(from, Math.min(batch.size(), from + chunk));
+            tasks.add(() -> {
+                long allocatedBefore = allocatedBytes();
+                for (Operation operation : part) {
+                    execute(operation);
+                }
+                if (measuring) {
+                    allocatedBytes.add(allocatedBytes() - allocatedBefore);
+                }
+                return null;
+            });
+        }
+        for (Future<Void> result : pool.invokeAll(tasks)) {
+            result.get();
+        }
+    }
+
+    // Los rechazos del negocio se cuentan con su motivo; cualquier otro error detiene la simulación
+    private void execute(Operation operation) {
+        OperationMetrics metrics = operations.get(operation.kind);
+        Booking booking = operation.booking;
+        Reservation reservation = booking != null ? booking.reservation : null;
+        boolean needsReservation = operation.kind == Kind.CANCEL || operation.kind == Kind.CHECK_IN
+                || operation.kind == Kind.GET_RESERVATION;
+        if ((needsReservation && reservation == null)
+                || (operation.kind == Kind.CHECK_OUT && (reservation == null || !booking.checkedIn))) {
+            // La reserva no llegó a crearse (o el check-in falló): no hay nada que hacer
+            skipped.increment();
+            return;
+        }
+
+        long start = System.nanoTime();
+        try {
+            switch (operation.kind) {
+                case BOOK -> booking.reservation = book(booking);
+                case CANCEL -> reserveController.cancelReservation(reservation.getId());
+                case CHECK_IN -> {
+                    reserveController.checkIn(reservation.getId());
+                    booking.checkedIn = true;
+                }
+                case CHECK_OUT -> reserveController.checkOut(reservation.getId());
+                case SEARCH -> reserveController.findAvailableRooms(booking.property, booking.type,
+                        booking.checkIn, booking.checkOut);
+                case GET_RESERVATION -> reserveController.getReservationById(reservation.getId());
+                case CLIENT_HISTORY -> clientController.getClientReservationHistory(
+                        clients.get(operation.client).getId());
+            }
+            metrics.record(start);
+        } catch (ReservaNoDisponibleException | IllegalArgumentException | IllegalStateException e) {
+            metrics.recordFailure(start, e);
+        }
+    }
+
+    private Reservation book(Booking booking) throws ReservaNoDisponibleException {
+        int roomNumber = booking.roomNumber;
+        if (roomNumber == 0) {
+            List<Room> available = reserveController.findAvailableRooms(booking.property, booking.type,
+                    booking.checkIn, booking.checkOut);
+            if (available.isEmpty()) {
+                throw SOLD_OUT;
+            }
+            roomNumber = available.get(booking.pick % available.size()).getRoomNumber();
+        }
+        return reserveController.createReservation(clients.get(booking.client).getId(), roomNumber,
+                booking.checkIn, booking.checkOut);
+    }
+
+    private long allocatedBytes() {
+        return threadBean != null ? threadBean.getThreadAllocatedBytes(Thread.currentThread().getId()) : 0;
+    }
+
+    private void printResults(LocalDate firstMeasured, long elapsedNanos) {
+        long total = 0;
+        long rejected = 0;
+        for (OperationMetrics metrics : operations.values()) {
+            total += metrics.getCount();
+            rejected += metrics.getErrorCount();
+        }
+        double seconds = elapsedNanos / 1e9;
+        double occupancy = occupancyOfSimulatedRooms(firstMeasured, businessClock.today());
+
+        System.out.println();
+        System.out.printf(Locale.ROOT, "## %d hilo%s: %d operaciones en %.2f s, %.0f ops/s, %.1f %% rechazadas, "
+                        + "%d omitidas%n", threads, threads == 1 ? "" : "s", total, seconds, total / seconds,
+                percent(rejected, total), skipped.sum());
+        if (threadBean != null) {
+            System.out.printf(Locale.ROOT, "   memoria reservada: %.1f MB/s, %.0f bytes/op%n",
+                    allocatedBytes.sum() / seconds / 1e6, total == 0 ? 0 : (double) allocatedBytes.sum() / total);
+        }
+        System.out.printf(Locale.ROOT, "   ocupación del periodo medido: %.1f %%%n", occupancy * 100);
+        System.out.printf(Locale.ROOT, "%-24s %10s %10s %10s %10s %10s %10s%n", "operación", "llamadas",
+                "rechazos", "p50 µs", "p99 µs", "p999 µs", "máx µs");
+        for (Kind kind : Kind.values()) {
+            OperationMetrics metrics = operations.get(kind);
+            LatencyHistogram latency = metrics.getLatency();
+            System.out.printf(Locale.ROOT, "%-24s %10d %9.1f%% %10.1f %10.1f %10.1f %10.1f%n", kind.label,
+                    metrics.getCount(), percent(metrics.getErrorCount(), metrics.getCount()),
+                    latency.getPercentile(0.50) / 1e3, latency.getPercentile(0.99) / 1e3,
+                    latency.getPercentile(0.999) / 1e3, latency.getMax() / 1e3);
+        }
+    }
+
+    // El informe de ingresos cuenta todo el inventario; aquí se descuentan las habitaciones por
+    // defecto, que no reciben reservas. Con simulaciones muy largas se miran los últimos días que
+    // admite el informe.
+    private double occupancyOfSimulatedRooms(LocalDate from, LocalDate to) {
+        if (from.plusDays(AnalyticsController.MAX_REPORT_DAYS).isBefore(to)) {
+            from = to.minusDays(AnalyticsController.MAX_REPORT_DAYS);
+        }
+        RevenueReport report = analyticsController.generateRevenueReport(from, to);
+        long simulatedNights = (long) rooms.size() * report.getDays();
+        return simulatedNights == 0 ? 0 : (double) report.getRoomNightsSold() / simulatedNights;
+    }
+
+    private static double percent(long part, long total) {
+        return total == 0 ? 0 : part * 100.0 / total;
+    }
+}
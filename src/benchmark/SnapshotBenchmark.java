@@ -0,0 +1,52 @@
+package benchmark;
+
+import persistence.Snapshot;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+
+// Mide la escritura y la carga (arranque en frío) de instantáneas con muchas reservas históricas.
+//
+// Uso: java benchmark.SnapshotBenchmark [--rooms=1000] [--reservations=1000000,10000000] [--dir=directorio]
+public class SnapshotBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int rooms = 1_000;
+        int[] reservationScales = {100_000, 1_000_000};
+        Path dir = Files.createTempDirectory("snapshot-bench");
+
+        for (String arg : args) {
+            String[] parts = arg.split("=", 2);
+            switch (parts[0]) {
+                case "--rooms" -> rooms = Integer.parseInt(parts[1]);
+                case "--reservations" -> reservationScales = java.util.Arrays.stream(parts[1].split(","))
+                        .mapToInt(Integer::parseInt).toArray();
+                case "--dir" -> dir = Path.of(parts[1]);
+                default -> throw new IllegalArgumentException("Argumento no válido: " + arg);
+            }
+        }
+
+        System.out.printf(Locale.ROOT, "%12s %14s %12s %12s%n", "reservations", "bytes", "write ms", "load ms");
+        for (int reservations : reservationScales) {
+            Path path = dir.resolve("hotel-" + reservations + ".snapshot");
+            HotelFixture source = new HotelFixture(rooms, reservations, 42);
+
+            long start = System.nanoTime();
+            long bytes = Snapshot.write(path, 0, source.getRoomController(), source.getClientController(),
+                    source.getReserveController());
+            double writeMillis = (System.nanoTime() - start) / 1e6;
+            source = null;
+
+            // Hotel vacío con el mismo inventario, como en un arranque en frío
+            HotelFixture target = new HotelFixture(rooms, 0, 42);
+            start = System.nanoTime();
+            Snapshot.load(path, target.getRoomController(), target.getClientController(),
+                    target.getReserveController());
+            double loadMillis = (System.nanoTime() - start) / 1e6;
+
+            System.out.printf(Locale.ROOT, "%12d %14d %12.1f %12.1f%n", reservations, bytes, writeMillis, loadMillis);
+            Files.deleteIfExists(path);
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package controller;
+
+import metrics.Metrics;
+import metrics.OperationMetrics;
+import model.RevenueReport;
+import model.Room;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.Locale;
+
+// Informes de ocupación e ingresos sobre todas las reservas. Se recorren en paralelo: cada hilo
+// del pool común acumula sus propias sumas (RevenueReport.Accumulator) sin compartir nada con
+// los demás, y las sumas parciales se combinan al final, así que el informe escala con los
+// núcleos disponibles.
+public class AnalyticsController {
+    // Cada suma parcial reserva arrays del tamaño del periodo, así que este se limita (unos 3 años)
+    public static final int MAX_REPORT_DAYS = 1100;
+
+    private final RoomController roomController;
+    private final ReserveController reserveController;
+    private final OperationMetrics generateRevenueReportMetrics;
+
+    public AnalyticsController(RoomController roomController, ReserveController reserveController) {
+        this(roomController, reserveController, new Metrics());
+    }
+
+    public AnalyticsController(RoomController roomController, ReserveController reserveController, Metrics metrics) {
+        this.roomController = roomController;
+        this.reserveController = reserveController;
+        this.generateRevenueReportMetrics = metrics.operation("AnalyticsController.generateRevenueReport");
+    }
+
+    // Ocupación, ADR y RevPAR de las noches entre from (incluida) y to (excluida)
+    public RevenueReport generateRevenueReport(LocalDate from, LocalDate to) {
+        long start = System.nanoTime();
+        try {
+            if (from == null || to == null) {
+                throw new IllegalArgumentException("Las fechas no pueden ser nulas");
+            }
+            if (!to.isAfter(from)) {
+                throw new IllegalArgumentException("La fecha final del informe debe ser posterior a la inicial");
+            }
+            if (ChronoUnit.DAYS.between(from, to) > MAX_REPORT_DAYS) {
+                throw new IllegalArgumentException("El informe no puede abarcar más de " + MAX_REPORT_DAYS + " días");
+            }
+            RevenueReport.Accumulator empty = new RevenueReport.Accumulator(from, to, roomController.getAllRooms(),
+                    reserveController.getRateTable());
+            RevenueReport.Accumulator accumulator = reserveController.reservationValues().parallelStream()
+                    .collect(empty::emptyCopy, RevenueReport.Accumulator::add, RevenueReport.Accumulator::merge);
+            // Las archivadas solo se leen si el periodo llega a sus fechas
+            reserveController.forEachArchivedReservation(from, to, accumulator::add);
+            RevenueReport report = accumulator.toReport();
+            generateRevenueReportMetrics.record(start);
+            return report;
+        } catch (RuntimeException e) {
+            generateRevenueReportMetrics.recordFailure(start, e);
+            throw e;
+        }
+    }
+
+    public void writeRevenueReport(Appendable out, RevenueReport report) throws IOException {
+        out.append("INFORME DE OCUPACIÓN E INGRESOS\n");
+        out.append("===============================\n");
+        out.append("Del ").append(report.getFrom().toString()).append(" al ").append(report.getTo().toString())
+                .append(" (").append(String.valueOf(report.getDays())).append(" noches)\n\n");
+
+        out.append(String.format(Locale.ROOT, "%-12s %12s %12s %9s %14s %10s %10s%n",
+                "", "Disponibles", "Vendidas", "Ocup.", "Ingresos", "ADR", "RevPAR"));
+        writeRow(out, "Total", report.getRoomNightsAvailable(), report.getRoomNightsSold(),
+                report.getOccupancyRate(), report.getRevenue(), report.getAdr(), report.getRevPar());
+
+        out.append("\nPor tipo:\n");
+        for (Room.RoomType type : Room.RoomType.values()) {
+            writeRow(out, type.name(), report.getRoomNightsAvailable(type), report.getRoomNightsSold(type),
+                    report.getOccupancyRate(type), report.getRevenue(type), report.getAdr(type), report.getRevPar(type));
+        }
+
+        out.append("\nPor planta:\n");
+        for (RevenueReport.Floor floor : report.getFloors()) {
+            writeRow(out, floor.toString(), report.getRoomNightsAvailable(floor), report.getRoomNightsSold(floor),
+                    report.getOccupancyRate(floor), report.getRevenue(floor), report.getAdr(floor),
+                    report.getRevPar(floor));
+        }
+
+        out.append("\nPor día:\n");
+        for (LocalDate day = report.getFrom(); day.isBefore(report.getTo()); day = day.plusDays(1)) {
+            out.append(String.format(Locale.ROOT, "%-12s %12s %12d %8.1f%% %14.2f %10s %10.2f%n",
+                    day, "", report.getRoomNightsSold(day), report.getOccupancyRate(day) * 100,
+                    report.getRevenue(day), "", report.getRevPar(day)));
+        }
+    }
+
+    private static void writeRow(Appendable out, String label, long available, long sold, double occupancy,
+                                 double revenue, double adr, double revPar) throws IOException {
+        out.append(String.format(Locale.ROOT, "%-12s %12d %12d %8.1f%% %14.2f %10.2f %10.2f%n",
+                label, available, sold, occupancy * 100, revenue, adr, revPar));
+    }
+}
@@ -1,96 +1,332 @@
 package controller;
 
+import metrics.Metrics;
+import metrics.OperationMetrics;
+import model.BusinessClock;
 import model.Client;
+import model.EntityId;
 import model.Reservation;
+import persistence.Journal;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.Predicate;
 
 public class ClientController {
-    private final List<Client> clients;
+    // Clientes indexados por ID y, aparte, en orden de registro para los listados
+    private final Map<EntityId, Client> clients;
+    private final OrderedIndex<Client> clientOrder;
+    private volatile Journal journal;
+    // Reservas de un cliente ya pasadas al archivo en disco (lo instala ReserveController.setArchive)
+    private volatile Function<EntityId, List<Reservation>> archivedHistory;
+    private final BusinessClock clock;
+    private final Metrics metrics;
+    private final OperationMetrics createClientMetrics;
+    private final OperationMetrics restoreClientMetrics;
+    private final OperationMetrics getAllClientsMetrics;
+    private final OperationMetrics getClientsMetrics;
+    private final OperationMetrics getClientByIdMetrics;
+    private final ClientNameIndex nameIndex;
+    private final OperationMetrics getClientByNameMetrics;
+    private final OperationMetrics findClientsByNameMetrics;
+    private final OperationMetrics findClientsByPrefixMetrics;
+    private final OperationMetrics searchClientsMetrics;
+    private final OperationMetrics getClientActiveReservationsMetrics;
+    private final OperationMetrics getClientReservationHistoryMetrics;
+    private final OperationMetrics canClientMakeReservationMetrics;
+    private final OperationMetrics generateClientSummaryMetrics;
+    private final OperationMetrics writeClientSummaryMetrics;
+    private final OperationMetrics expireReservationsMetrics;
 
     public ClientController() {
-        this.clients = new ArrayList<>();
+        this(new Metrics(), BusinessClock.system());
+    }
+
+    public ClientController(Metrics metrics) {
+        this(metrics, BusinessClock.system());
+    }
+
+    public ClientController(Metrics metrics, BusinessClock clock) {
+        this.clients = new ConcurrentHashMap<>();
+        this.clientOrder = new OrderedIndex<>();
+        this.nameIndex = new ClientNameIndex();
+        this.clock = clock;
+        this.metrics = metrics;
+        this.createClientMetrics = metrics.operation("ClientController.createClient");
+        this.restoreClientMetrics = metrics.operation("ClientController.restoreClient");
+        this.getAllClientsMetrics = metrics.operation("ClientController.getAllClients");
+        this.getClientsMetrics = metrics.operation("ClientController.getClients");
+        this.getClientByIdMetrics = metrics.operation("ClientController.getClientById");
+        this.getClientByNameMetrics = metrics.operation("ClientController.getClientByName");
+        this.findClientsByNameMetrics = metrics.operation("ClientController.findClientsByName");
+        this.findClientsByPrefixMetrics = metrics.operation("ClientController.findClientsByPrefix");
+        this.searchClientsMetrics = metrics.operation("ClientController.searchClients");
+        this.getClientActiveReservationsMetrics = metrics.operation("ClientController.getClientActiveReservations");
+        this.getClientReservationHistoryMetrics = metrics.operation("ClientController.getClientReservationHistory");
+        this.canClientMakeReservationMetrics = metrics.operation("ClientController.canClientMakeReservation");
+        this.generateClientSummaryMetrics = metrics.operation("ClientController.generateClientSummary");
+        this.writeClientSummaryMetrics = metrics.operation("ClientController.writeClientSummary");
+        this.expireReservationsMetrics = metrics.operation("ClientController.expireReservations");
+        clock.addRolloverListener(this::expireReservations);
     }
 
     public Client createClient(String fullName) {
+        long start = System.nanoTime();
+        try {
+            Client client = register(fullName);
+            createClientMetrics.record(start);
+            return client;
+        } catch (RuntimeException e) {
+            createClientMetrics.recordFailure(start, e);
+            throw e;
+        }
+    }
+
+    private Client register(String fullName) {
         if (fullName == null || fullName.trim().isEmpty()) {
             throw new IllegalArgumentException("El nombre completo no puede estar vacío");
         }
+        if (fullName.length() > Client.MAX_NAME_LENGTH) {
+            throw new IllegalArgumentException("El nombre completo no puede tener más de "
+                    + Client.MAX_NAME_LENGTH + " caracteres");
+        }
 
-        Client client = new Client(fullName);
-        clients.add(client);
+        // Primero el diario: si ya no admite eventos, el cliente no llega a darse de alta
+        Client client = new Client(fullName, clock);
+        Journal journal = this.journal;
+        long journalSequence = journal != null ? journal.appendClientCreated(client.getId(), client.getFullName()) : 0;
+        clients.put(client.getId(), client);
+        clientOrder.add(client);
+        nameIndex.add(client);
+
+        if (journal != null) {
+            journal.awaitDurable(journalSequence);
+        }
         return client;
     }
 
+    // Da de alta un cliente ya existente (reproducción del diario); no hace nada si ya está
+    public Client restoreClient(EntityId id, String fullName) {
+        long start = System.nanoTime();
+        Client client = new Client(id, fullName, clock);
+        Client existing = clients.putIfAbsent(id, client);
+        if (existing == null) {
+            clientOrder.add(client);
+            nameIndex.add(client);
+        }
+        restoreClientMetrics.record(start);
+        return existing != null ? existing : client;
+    }
+
+    // A partir de aquí cada alta se registra en el diario antes de devolverse
+    public void setJournal(Journal journal) {
+        this.journal = journal;
+    }
+
+    // Latencias, errores y contadores de las operaciones de este controlador
+    public Metrics getMetrics() {
+        return metrics;
+    }
+
+    // Fecha de negocio con la que se evalúan las reservas de los clientes
+    public BusinessClock getClock() {
+        return clock;
+    }
+
+    // Cambio de día: pasa al historial de cada cliente las reservas terminadas antes de today,
+    // de modo que las consultas posteriores no tengan que hacerlo
+    public void expireReservations(LocalDate today) {
+        long start = System.nanoTime();
+        for (Client client : clientOrder.values()) {
+            client.expireReservations(today);
+        }
+        expireReservationsMetrics.record(start);
+    }
+
+    // Copia completa, para las instantáneas; los listados deben usar getClients
     public List<Client> getAllClients() {
-        return new ArrayList<>(clients);
+        long start = System.nanoTime();
+        List<Client> result = new ArrayList<>(clientOrder.values());
+        getAllClientsMetrics.record(start);
+        return result;
+    }
+
+    // Página de clientes en orden de alta; cursor es el de la página anterior o null para empezar
+    public Page<Client> getClients(Predicate<Client> filter, String cursor, int limit) {
+        long start = System.nanoTime();
+        try {
+            Page<Client> page = clientOrder.page(filter, cursor, limit);
+            getClientsMetrics.record(start);
+            return page;
+        } catch (RuntimeException e) {
+            getClientsMetrics.recordFailure(start, e);
+            throw e;
+        }
     }
 
-    public Client getClientById(String id) {
-        return clients.stream()
-                .filter(client -> client.getId().equals(id))
-                .findFirst()
-                .orElse(null);
+    public Client getClientById(EntityId id) {
+        long start = System.nanoTime();
+        Client client = clients.get(id);
+        getClientByIdMetrics.record(start);
+        return client;
     }
 
+    // Primer cliente dado de alta con ese nombre (sin distinguir mayúsculas ni tildes), o null
     public Client getClientByName(String name) {
-        return clients.stream()
-                .filter(client -> client.getFullName().equalsIgnoreCase(name))
-                .findFirst()
-                .orElse(null);
+        long start = System.nanoTime();
+        List<Client> matches = nameIndex.findExact(name);
+        getClientByNameMetrics.record(start);
+        return matches.isEmpty() ? null : matches.get(0);
     }
 
-    public List<Reservation> getClientActiveReservations(String clientId) {
-        Client client = getClientById(clientId);
-        if (client == null) {
-            return new ArrayList<>();
+    // Todos los clientes con ese nombre, en orden de alta
+    public List<Client> findClientsByName(String name) {
+        long start = System.nanoTime();
+        List<Client> result = nameIndex.findExact(name);
+        findClientsByNameMetrics.record(start);
+        return result;
+    }
+
+    // Clientes con alguna palabra del nombre que empiece por prefix (p. ej. "gar" encuentra a
+    // "Ana García"), en orden alfabético
+    public List<Client> findClientsByPrefix(String prefix, int limit) {
+        long start = System.nanoTime();
+        List<Client> result = nameIndex.findByPrefix(prefix, limit);
+        findClientsByPrefixMetrics.record(start);
+        return result;
+    }
+
+    // Búsqueda tolerante a errores de escritura, de más a menos parecido
+    public List<Client> searchClients(String query, int limit) {
+        long start = System.nanoTime();
+        List<Client> result = nameIndex.search(query, limit);
+        searchClientsMetrics.record(start);
+        return result;
+    }
+
+    public List<Reservation> getClientActiveReservations(EntityId clientId) {
+        long start = System.nanoTime();
+        Client client = clients.get(clientId);
+        List<Reservation> result = client == null ? new ArrayList<>() : client.getActiveReservations();
+        getClientActiveReservationsMetrics.record(start);
+        return result;
+    }
+
+    public List<Reservation> getClientReservationHistory(EntityId clientId) {
+        long start = System.nanoTime();
+        Client client = clients.get(clientId);
+        List<Reservation> result = client == null ? new ArrayList<>() : client.getReservationHistory();
+        Function<EntityId, List<Reservation>> archivedHistory = this.archivedHistory;
+        if (client != null && archivedHistory != null) {
+            // Lo archivado es más antiguo y va primero; mientras se archiva, una reserva puede estar
+            // un instante en los dos sitios
+            List<Reservation> archived = archivedHistory.apply(clientId);
+            if (!archived.isEmpty()) {
+                Set<EntityId> archivedIds = new HashSet<>();
+                for (Reservation reservation : archived) {
+                    archivedIds.add(reservation.getId());
+                }
+                for (Reservation reservation : result) {
+                    if (!archivedIds.contains(reservation.getId())) {
+                        archived.add(reservation);
+                    }
+                }
+                result = archived;
+            }
         }
-        return client.getActiveReservations();
+        getClientReservationHistoryMetrics.record(start);
+        return result;
+    }
+
+    void setArchivedHistory(Function<EntityId, List<Reservation>> archivedHistory) {
+        this.archivedHistory = archivedHistory;
     }
 
-    public List<Reservation> getClientReservationHistory(String clientId) {
-        Client client = getClientById(clientId);
-        if (client == null) {
-            return new ArrayList<>();
+    public boolean canClientMakeReservation(EntityId clientId) {
+        long start = System.nanoTime();
+        Client client = clients.get(clientId);
+        boolean result = client != null && client.canMakeReservation();
+        canClientMakeReservationMetrics.record(start);
+        return result;
+    }
+
+    public String generateClientSummary() {
+        long start = System.nanoTime();
+        StringBuilder summary = new StringBuilder();
+        try {
+            writeClientSummary(summary);
+        } catch (IOException e) {
+            // StringBuilder nunca lanza IOException
+            throw new UncheckedIOException(e);
         }
-        return client.getReservationHistory();
+        generateClientSummaryMetrics.record(start);
+        return summary.toString();
     }
 
-    public boolean canClientMakeReservation(String clientId) {
-        Client client = getClientById(clientId);
-        if (client == null) {
-            return false;
+    public void writeClientSummary(Appendable out) throws IOException {
+        writeClientSummary(out, null, 0, Integer.MAX_VALUE);
+    }
+
+    // Escribe el resumen cliente a cliente sobre out, sin construirlo entero en memoria.
+    // filter (opcional) selecciona los clientes; offset y limit paginan sobre los seleccionados.
+    public void writeClientSummary(Appendable out, Predicate<Client> filter, int offset, int limit)
+            throws IOException {
+        long start = System.nanoTime();
+        try {
+            writeSummary(out, filter, offset, limit);
+            writeClientSummaryMetrics.record(start);
+        } catch (IOException | RuntimeException e) {
+            writeClientSummaryMetrics.recordFailure(start, e);
+            throw e;
         }
-        return client.canMakeReservation();
     }
 
-    public String generateClientSummary() {
-        StringBuilder summary = new StringBuilder("RESUMEN DE CLIENTES\n");
-        summary.append("==================\n\n");
+    private void writeSummary(Appendable out, Predicate<Client> filter, int offset, int limit) throws IOException {
+        out.append("RESUMEN DE CLIENTES\n");
+        out.append("==================\n\n");
 
         if (clients.isEmpty()) {
-            summary.append("No hay clientes registrados.");
-            return summary.toString();
+            out.append("No hay clientes registrados.");
+            return;
         }
 
-        for (Client client : clients) {
-            summary.append(client.toString()).append("\n");
+        int matched = 0;
+        int written = 0;
+        for (Client client : clientOrder.values()) {
+            if (written >= limit) {
+                break;
+            }
+            if (filter != null && !filter.test(client)) {
+                continue;
+            }
+            if (matched++ < offset) {
+                continue;
+            }
+            written++;
+
+            out.append(client.toString()).append("\n");
 
             List<Reservation> activeReservations = client.getActiveReservations();
             if (!activeReservations.isEmpty()) {
-                summary.append("  Reservas activas:\n");
+                out.append("  Reservas activas:\n");
                 for (Reservation reservation : activeReservations) {
-                    summary.append("  - Habitación: ").append(reservation.getRoom().getRoomNumber())
-                            .append(", Check-in: ").append(reservation.getCheckInDate())
-                            .append(", Check-out: ").append(reservation.getCheckOutDate())
+                    out.append("  - Habitación: ").append(String.valueOf(reservation.getRoom().getRoomNumber()))
+                            .append(", Check-in: ").append(reservation.getCheckInDate().toString())
+                            .append(", Check-out: ").append(reservation.getCheckOutDate().toString())
                             .append("\n");
                 }
             } else {
-                summary.append("  Sin reservas activas.\n");
+                out.append("  Sin reservas activas.\n");
             }
-            summary.append("\n");
+            out.append("\n");
         }
-
-        return summary.toString();
     }
 }
\ No newline at end of file
@@ -0,0 +1,347 @@
+package controller;
+
+import model.Client;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+// Índice de nombres de clientes para la búsqueda desde recepción. Los nombres se normalizan
+// (minúsculas, sin tildes ni espacios repetidos) y se guardan en:
+//   - un diccionario de nombres completos y otro de palabras distintas, cada término con las
+//     posiciones (orden de alta) de sus clientes
+//   - un mapa ordenado de cada nombre a partir de cada palabra ("juan perez", "perez"), para
+//     buscar por prefijo mientras se escribe
+//   - trigramas -> términos y longitud -> términos de cada diccionario, para la búsqueda con
+//     errores: los candidatos se filtran por longitud y trigramas en común (ver Terms.candidates)
+//     y se confirman con la distancia de edición. Como los apellidos se repiten mucho, la
+//     distancia se calcula una vez por término y no por cliente.
+// Las altas son poco frecuentes frente a las búsquedas, así que todo se protege con un único
+// bloqueo de lectura/escritura.
+public class ClientNameIndex {
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern SPACES = Pattern.compile("\\s+");
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final List<Client> clients = new ArrayList<>();
+    private final Terms names = new Terms();
+    private final Terms words = new Terms();
+    private final NavigableMap<String, List<Client>> byWordSuffix = new TreeMap<>();
+
+    public void add(Client client) {
+        String name = normalize(client.getFullName());
+        String[] nameWords = split(name);
+        lock.writeLock().lock();
+        try {
+            int position = clients.size();
+            clients.add(client);
+            names.add(name, nameWords, position);
+
+            int offset = 0;
+            for (String word : nameWords) {
+                words.add(word, new String[] {word}, position);
+                byWordSuffix.computeIfAbsent(name.substring(offset), key -> new ArrayList<>(1)).add(client);
+                offset += word.length() + 1;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Clientes con ese nombre, sin distinguir mayúsculas ni tildes, en orden de alta
+    public List<Client> findExact(String name) {
+        String key = normalize(name);
+        lock.readLock().lock();
+        try {
+            Integer term = names.ids.get(key);
+            List<Client> result = new ArrayList<>();
+            if (term != null) {
+                Postings postings = names.clients.get(term);
+                for (int i = 0; i < postings.size; i++) {
+                    result.add(clients.get(postings.positions[i]));
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Clientes con alguna palabra del nombre (y lo que le sigue) empezando por prefix,
+    // en orden alfabético
+    public List<Client> findByPrefix(String prefix, int limit) {
+        String key = normalize(prefix);
+        if (key.isEmpty() || limit <= 0) {
+            return new ArrayList<>();
+        }
+        Set<Client> result = new LinkedHashSet<>();
+        lock.readLock().lock();
+        try {
+            for (List<Client> matches : byWordSuffix.subMap(key, true, key + Character.MAX_VALUE, false).values()) {
+                for (Client client : matches) {
+                    result.add(client);
+                    if (result.size() >= limit) {
+                        return new ArrayList<>(result);
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return new ArrayList<>(result);
+    }
+
+    // Búsqueda tolerante a errores de escritura. Una consulta de una palabra se compara con cada
+    // palabra de los nombres ("garcia" encuentra a "Ana García López"); una de varias, con el
+    // nombre completo. Se admiten 1 error a partir de 4 letras y 2 a partir de 7. El resultado va
+    // de menos a más ediciones y, a igualdad, en orden de alta.
+    public List<Client> search(String query, int limit) {
+        String key = normalize(query);
+        String[] queryWords = split(key);
+        int letters = key.length() - (queryWords.length - 1);
+        if (letters <= 0 || limit <= 0) {
+            return new ArrayList<>();
+        }
+        int maxEdits = letters >= 7 ? 2 : letters >= 4 ? 1 : 0;
+        Terms dictionary = queryWords.length == 1 ? words : names;
+
+        List<Client> result = new ArrayList<>(limit);
+        lock.readLock().lock();
+        try {
+            // Términos aceptados, agrupados por número de ediciones
+            List<List<Postings>> byDistance = new ArrayList<>();
+            for (int i = 0; i <= maxEdits; i++) {
+                byDistance.add(new ArrayList<>());
+            }
+            for (int term : dictionary.candidates(key.length(), trigrams(queryWords), maxEdits)) {
+                int distance = editDistance(key, dictionary.terms.get(term), maxEdits);
+                if (distance <= maxEdits) {
+                    byDistance.get(distance).add(dictionary.clients.get(term));
+                }
+            }
+
+            Set<Integer> added = new HashSet<>();
+            for (List<Postings> level : byDistance) {
+                for (int position : firstPositions(level, limit)) {
+                    if (result.size() >= limit) {
+                        return result;
+                    }
+                    if (added.add(position)) {
+                        result.add(clients.get(position));
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return result;
+    }
+
+    // Las limit primeras posiciones (sin repetidos) de la unión de varias listas ordenadas
+    private static int[] firstPositions(List<Postings> lists, int limit) {
+        int total = 0;
+        for (Postings postings : lists) {
+            total += Math.min(postings.size, limit);
+        }
+        int[] positions = new int[total];
+        int count = 0;
+        for (Postings postings : lists) {
+            int size = Math.min(postings.size, limit);
+            System.arraycopy(postings.positions, 0, positions, count, size);
+            count += size;
+        }
+        return sortedDistinct(positions, count);
+    }
+
+    private static int[] sortedDistinct(int[] positions, int count) {
+        Arrays.sort(positions, 0, count);
+        int distinct = 0;
+        for (int i = 0; i < count; i++) {
+            if (distinct == 0 || positions[distinct - 1] != positions[i]) {
+                positions[distinct++] = positions[i];
+            }
+        }
+        return Arrays.copyOf(positions, distinct);
+    }
+
+    // Distancia de Damerau-Levenshtein restringida (inserciones, borrados, sustituciones y
+    // trasposiciones de letras contiguas). Devuelve maxEdits + 1 en cuanto se sabe que la supera.
+    static int editDistance(String a, String b, int maxEdits) {
+        if (Math.abs(a.length() - b.length()) > maxEdits) {
+            return maxEdits + 1;
+        }
+        int[] previous2 = new int[b.length() + 1];
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            int rowMin = current[0];
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                int value = Math.min(Math.min(previous[j] + 1, current[j - 1] + 1), previous[j - 1] + cost);
+                if (i > 1 && j > 1 && a.charAt(i - 1) == b.charAt(j - 2) && a.charAt(i - 2) == b.charAt(j - 1)) {
+                    value = Math.min(value, previous2[j - 2] + 1);
+                }
+                current[j] = value;
+                rowMin = Math.min(rowMin, value);
+            }
+            if (rowMin > maxEdits) {
+                return maxEdits + 1;
+            }
+            int[] recycled = previous2;
+            previous2 = previous;
+            previous = current;
+            current = recycled;
+        }
+        return Math.min(previous[b.length()], maxEdits + 1);
+    }
+
+    private static String[] split(String normalized) {
+        return normalized.isEmpty() ? new String[0] : normalized.split(" ");
+    }
+
+    // Trigramas de cada palabra rodeada de espacios: "ana" -> " an", "ana", "na "
+    private static List<String> trigrams(String[] nameWords) {
+        List<String> result = new ArrayList<>();
+        for (String word : nameWords) {
+            String padded = " " + word + " ";
+            for (int i = 0; i + 3 <= padded.length(); i++) {
+                result.add(padded.substring(i, i + 3));
+            }
+        }
+        return result;
+    }
+
+    static String normalize(String name) {
+        if (name == null) {
+            return "";
+        }
+        String withoutMarks = MARKS.matcher(Normalizer.normalize(name, Normalizer.Form.NFD)).replaceAll("");
+        return SPACES.matcher(withoutMarks.toLowerCase(Locale.ROOT)).replaceAll(" ").trim();
+    }
+
+    // Diccionario de términos (nombres completos o palabras) con sus trigramas
+    private static class Terms {
+        final Map<String, Integer> ids = new HashMap<>();
+        final List<String> terms = new ArrayList<>();
+        final List<Postings> clients = new ArrayList<>();
+        final Map<String, Postings> byTrigram = new HashMap<>();
+        final List<Postings> byLength = new ArrayList<>();
+
+        void add(String term, String[] termWords, int position) {
+            Integer id = ids.get(term);
+            if (id == null) {
+                id = terms.size();
+                ids.put(term, id);
+                terms.add(term);
+                clients.add(new Postings());
+                for (String trigram : trigrams(termWords)) {
+                    byTrigram.computeIfAbsent(trigram, key -> new Postings()).add(id);
+                }
+                while (byLength.size() <= term.length()) {
+                    byLength.add(new Postings());
+                }
+                byLength.get(term.length()).add(id);
+            }
+            clients.get(id).add(position);
+        }
+
+        // Un término a k ediciones de la consulta tiene entre length - k y length + k letras y, como
+        // cada edición rompe como mucho 4 trigramas de la consulta (una trasposición "garica" ->
+        // "garcia" rompe 4; inserciones, borrados y sustituciones, 3), comparte al menos
+        // minShared = trigramas distintos - 4k. Con minShared >= 1 todo candidato aparece en alguna
+        // de las 4k + 1 listas con menos términos: se toman de ahí y se cuentan sus trigramas en las
+        // demás. En palabras cortas (minShared <= 0) puede no compartir ninguno y se toman los
+        // términos de longitud compatible.
+        int[] candidates(int length, List<String> queryTrigrams, int maxEdits) {
+            List<Postings> lists = new ArrayList<>();
+            for (String trigram : new LinkedHashSet<>(queryTrigrams)) {
+                Postings postings = byTrigram.get(trigram);
+                lists.add(postings != null ? postings : Postings.EMPTY);
+            }
+            int minShared = lists.size() - 4 * maxEdits;
+            if (minShared <= 0) {
+                return withLength(length - maxEdits, length + maxEdits);
+            }
+            lists.sort(Comparator.comparingInt(postings -> postings.size));
+            int[] ids = union(lists.subList(0, lists.size() - minShared + 1));
+
+            int count = 0;
+            for (int id : ids) {
+                if (Math.abs(terms.get(id).length() - length) <= maxEdits && shared(lists, id, minShared)) {
+                    ids[count++] = id;
+                }
+            }
+            return Arrays.copyOf(ids, count);
+        }
+
+        // Si el término aparece en al menos minShared de las listas
+        private static boolean shared(List<Postings> lists, int id, int minShared) {
+            int found = 0;
+            for (int i = 0; i < lists.size() && found + lists.size() - i >= minShared; i++) {
+                Postings postings = lists.get(i);
+                if (Arrays.binarySearch(postings.positions, 0, postings.size, id) >= 0 && ++found >= minShared) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private int[] withLength(int min, int max) {
+            List<Postings> lists = new ArrayList<>();
+            for (int length = Math.max(min, 0); length <= max && length < byLength.size(); length++) {
+                lists.add(byLength.get(length));
+            }
+            return union(lists);
+        }
+
+        private static int[] union(List<Postings> lists) {
+            int total = 0;
+            for (Postings postings : lists) {
+                total += postings.size;
+            }
+            int[] ids = new int[total];
+            int count = 0;
+            for (Postings postings : lists) {
+                System.arraycopy(postings.positions, 0, ids, count, postings.size);
+                count += postings.size;
+            }
+            return sortedDistinct(ids, count);
+        }
+    }
+
+    // Posiciones (de clientes o de términos) en orden creciente
+    private static class Postings {
+        static final Postings EMPTY = new Postings();
+
+        int[] positions = new int[4];
+        int size;
+
+        void add(int position) {
+            // Un nombre puede repetir un trigrama o una palabra; solo se guarda una vez
+            if (size > 0 && positions[size - 1] == position) {
+                return;
+            }
+            if (size == positions.length) {
+                positions = Arrays.copyOf(positions, size * 2);
+            }
+            positions[size++] = position;
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package controller;
+
+import model.BusinessClock;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// Lanza el cambio de día de la fecha de negocio (BusinessClock.rollover) justo después de cada
+// medianoche, en un hilo de fondo. Si el reloj se adelanta o se atrasa, la siguiente ejecución
+// se recalcula con el tiempo que realmente falta.
+public class DayRolloverScheduler implements AutoCloseable {
+    // Margen tras la medianoche para no despertar unos milisegundos antes por redondeo
+    private static final long MARGIN_MILLIS = 50;
+    // Comprobación máxima espaciada para detectar cambios de hora del sistema
+    private static final long MAX_WAIT_MILLIS = TimeUnit.HOURS.toMillis(1);
+
+    private final BusinessClock clock;
+    private final ScheduledExecutorService executor;
+
+    public DayRolloverScheduler(BusinessClock clock) {
+        this.clock = clock;
+        this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "day-rollover");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public void start() {
+        scheduleNext();
+    }
+
+    private void scheduleNext() {
+        long delay = Math.min(clock.millisUntilNextDay() + MARGIN_MILLIS, MAX_WAIT_MILLIS);
+        try {
+            executor.schedule(this::fire, delay, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            // Se está cerrando
+        }
+    }
+
+    private void fire() {
+        try {
+            clock.rollover();
+        } catch (RuntimeException e) {
+            // Un fallo en un oyente no debe impedir los siguientes cambios de día
+            System.err.println("Error en el cambio de día: " + e.getMessage());
+        } finally {
+            scheduleNext();
+        }
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,78 @@
+package controller;
+
+import model.Room;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+// Habitaciones de una planta de una propiedad. Cada habitación guarda su propio índice de
+// reservas bajo su monitor, así que las operaciones de shards distintos no comparten ningún
+// bloqueo y las consultas que abarcan varios se reparten entre hilos.
+final class InventoryShard {
+    private final int property;
+    private final int floor;
+    private final Queue<Room> rooms;
+    private final Map<Room.RoomType, Queue<Room>> roomsByType;
+
+    InventoryShard(int property, int floor) {
+        this.property = property;
+        this.floor = floor;
+        this.rooms = new ConcurrentLinkedQueue<>();
+        this.roomsByType = new EnumMap<>(Room.RoomType.class);
+        for (Room.RoomType type : Room.RoomType.values()) {
+            roomsByType.put(type, new ConcurrentLinkedQueue<>());
+        }
+    }
+
+    // Clave del shard de una habitación: propiedad y planta, en ese orden
+    static int keyOf(Room room) {
+        return room.getRoomNumber() / 100;
+    }
+
+    static int firstKeyOf(int property) {
+        return property * (Room.ROOMS_PER_PROPERTY / 100);
+    }
+
+    int getProperty() {
+        return property;
+    }
+
+    int getFloor() {
+        return floor;
+    }
+
+    Queue<Room> getRooms() {
+        return rooms;
+    }
+
+    void add(Room room) {
+        rooms.add(room);
+        roomsByType.get(room.getType()).add(room);
+    }
+
+    // Habitaciones libres durante todo el rango de fechas (type == null para cualquier tipo)
+    List<Room> findAvailable(Room.RoomType type, LocalDate checkInDate, LocalDate checkOutDate) {
+        List<Room> available = new ArrayList<>();
+        for (Room room : type == null ? rooms : roomsByType.get(type)) {
+            if (room.isAvailable(checkInDate, checkOutDate)) {
+                available.add(room);
+            }
+        }
+        return available;
+    }
+
+    int countRooms(Room.RoomType type, Room.RoomStatus status) {
+        int count = 0;
+        for (Room room : roomsByType.get(type)) {
+            if (room.getStatus() == status) {
+                count++;
+            }
+        }
+        return count;
+    }
+}
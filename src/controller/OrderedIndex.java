@@ -0,0 +1,72 @@
+package controller;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+
+// Elementos en orden de alta, numerados con una secuencia. El cursor de una página es el número
+// del último elemento devuelto, así que la siguiente empieza justo después sin recorrer ni copiar
+// lo anterior, y las altas que lleguen entre dos páginas aparecen al final.
+class OrderedIndex<T> {
+    static final int MAX_PAGE_SIZE = 1000;
+    // Elementos descartados por el filtro que puede recorrer una página
+    static final int MAX_PAGE_SCAN = 10_000;
+
+    private final AtomicLong sequence = new AtomicLong();
+    private final ConcurrentNavigableMap<Long, T> items = new ConcurrentSkipListMap<>();
+
+    void add(T item) {
+        items.put(sequence.incrementAndGet(), item);
+    }
+
+    Collection<T> values() {
+        return items.values();
+    }
+
+    // Las páginas ya entregadas siguen siendo válidas: los cursores no dependen de lo que se quite
+    void removeIf(Predicate<? super T> filter) {
+        items.values().removeIf(filter);
+    }
+
+    // Hasta limit elementos que cumplen filter (opcional) a partir de cursor (null para empezar).
+    // Si el filtro descarta MAX_PAGE_SCAN elementos la página se corta ahí, aunque tenga menos de
+    // limit o ninguno, y el cursor sigue desde el último examinado: una consulta muy selectiva
+    // sobre muchas reservas no bloquea un hilo recorriéndolas todas de una vez.
+    Page<T> page(Predicate<? super T> filter, String cursor, int limit) {
+        if (limit <= 0 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("El tamaño de página debe estar entre 1 y " + MAX_PAGE_SIZE);
+        }
+        Map<Long, T> remaining = cursor == null ? items : items.tailMap(parseCursor(cursor), false);
+        List<T> page = new ArrayList<>(Math.min(limit, 64));
+        long last = 0;
+        int skipped = 0;
+        for (Map.Entry<Long, T> entry : remaining.entrySet()) {
+            if (filter != null && !filter.test(entry.getValue())) {
+                if (++skipped == MAX_PAGE_SCAN) {
+                    return new Page<>(page, Long.toString(entry.getKey(), 36));
+                }
+                continue;
+            }
+            if (page.size() == limit) {
+                // Hay al menos uno más: la siguiente página empieza después del último devuelto
+                return new Page<>(page, Long.toString(last, 36));
+            }
+            page.add(entry.getValue());
+            last = entry.getKey();
+        }
+        return new Page<>(page, null);
+    }
+
+    private static long parseCursor(String cursor) {
+        try {
+            return Long.parseLong(cursor, 36);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Cursor no válido: " + cursor);
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package controller;
+
+import java.util.List;
+
+// Página de un listado. nextCursor es opaco: se pasa tal cual para pedir la página siguiente y
+// es null cuando ya no quedan elementos. Con un filtro, una página puede venir incompleta (o
+// vacía) y con nextCursor si se alcanzó el límite de elementos recorridos.
+public class Page<T> {
+    private final List<T> items;
+    private final String nextCursor;
+
+    public Page(List<T> items, String nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<T> getItems() {
+        return items;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public boolean hasMore() {
+        return nextCursor != null;
+    }
+}
@@ -0,0 +1,37 @@
+package controller;
+
+import model.EntityId;
+import model.Reservation;
+
+import java.time.LocalDate;
+import java.util.function.Predicate;
+
+// Filtros para ReserveController.getReservations; se combinan con and()
+public final class ReservationFilters {
+
+    private ReservationFilters() {
+    }
+
+    // Reservas con alguna noche entre from (incluida) y to (excluida); null deja ese extremo abierto
+    public static Predicate<Reservation> stayingBetween(LocalDate from, LocalDate to) {
+        return reservation -> (to == null || reservation.getCheckInDate().isBefore(to))
+                && (from == null || reservation.getCheckOutDate().isAfter(from));
+    }
+
+    public static Predicate<Reservation> forRoom(int roomNumber) {
+        return reservation -> reservation.getRoom().getRoomNumber() == roomNumber;
+    }
+
+    public static Predicate<Reservation> forClient(EntityId clientId) {
+        return reservation -> reservation.getClient().getId().equals(clientId);
+    }
+
+    // Estado de la propia reserva (no el de su habitación, que puede deberse a otra estancia)
+    public static Predicate<Reservation> withStatus(Reservation.Status status) {
+        return reservation -> reservation.getStatus() == status;
+    }
+
+    public static Predicate<Reservation> cancelled(boolean cancelled) {
+        return reservation -> reservation.isCancelled() == cancelled;
+    }
+}
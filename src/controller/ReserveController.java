@@ -1,141 +1,684 @@
 package controller;
 
+import events.EventBus;
+import events.ReservationEvent;
+import metrics.Metrics;
+import model.BusinessClock;
 import model.Client;
+import model.EntityId;
+import model.RateTable;
 import model.Reservation;
 import model.Room;
 import model.ReservaNoDisponibleException;
+import persistence.Journal;
+import persistence.ReservationArchive;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.time.LocalDate;
 import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
 
 public class ReserveController {
     private static final int MAX_RESERVATION_DAYS = 90;
-    private final List<Reservation> reservations;
+    // Reservas indexadas por ID y, aparte, en orden de creación para los listados
+    private final Map<EntityId, Reservation> reservations;
+    private final OrderedIndex<Reservation> reservationOrder;
     private final RoomController roomController;
     private final ClientController clientController;
+    private volatile Journal journal;
+    private volatile EventBus eventBus;
+    // Reservas antiguas fuera de memoria (opcional) y días que se conservan en memoria tras la salida
+    private volatile ReservationArchive archive;
+    private volatile int archiveHorizonDays;
+    private final BusinessClock clock;
+    private final RateTable rates;
+    private final Metrics metrics;
+    private final ReserveMetrics operations;
 
     public ReserveController(RoomController roomController, ClientController clientController) {
-        this.reservations = new ArrayList<>();
+        this(roomController, clientController, new Metrics());
+    }
+
+    public ReserveController(RoomController roomController, ClientController clientController, Metrics metrics) {
+        this(roomController, clientController, metrics, new RateTable());
+    }
+
+    public ReserveController(RoomController roomController, ClientController clientController, Metrics metrics,
+                             RateTable rates) {
+        this.reservations = new ConcurrentHashMap<>();
+        this.reservationOrder = new OrderedIndex<>();
         this.roomController = roomController;
         this.clientController = clientController;
+        this.clock = clientController.getClock();
+        this.rates = rates;
+        this.metrics = metrics;
+        this.operations = new ReserveMetrics(metrics);
+        clock.addRolloverListener(this::removeEndedBookings);
+        clock.addRolloverListener(this::archiveReservations);
+    }
+
+    // Las comprobaciones y la creación se hacen bloqueando solo el cliente y la habitación
+    // implicados (siempre en ese orden), así que reservas de habitaciones y clientes
+    // distintos avanzan en paralelo
+    public Reservation createReservation(EntityId clientId, int roomNumber, LocalDate checkInDate, LocalDate checkOutDate)
+            throws ReservaNoDisponibleException {
+        long start = System.nanoTime();
+        try {
+            Reservation reservation = reserve(clientId, roomNumber, checkInDate, checkOutDate);
+            operations.createReservation.record(start);
+            return reservation;
+        } catch (ReservaNoDisponibleException | RuntimeException e) {
+            operations.createReservation.recordFailure(start, e);
+            throw e;
+        }
     }
 
-    public Reservation createReservation(String clientId, int roomNumber, LocalDate checkInDate, LocalDate checkOutDate)
+    private Reservation reserve(EntityId clientId, int roomNumber, LocalDate checkInDate, LocalDate checkOutDate)
             throws ReservaNoDisponibleException {
 
-        // Validar cliente
+        // Validar cliente y habitación
+        ReserveMetrics.Phases phases = operations.startReservation();
         Client client = clientController.getClientById(clientId);
+        Room room = roomController.getRoomByNumber(roomNumber);
+        phases.lookupDone();
         if (client == null) {
             throw new IllegalArgumentException("Cliente no encontrado");
         }
-
-        // Validar si el cliente puede hacer más reservas
-        if (!client.canMakeReservation()) {
-            throw new ReservaNoDisponibleException("El cliente ya tiene el máximo de 3 reservas activas");
-        }
-
-        // Validar habitación
-        Room room = roomController.getRoomByNumber(roomNumber);
         if (room == null) {
             throw new IllegalArgumentException("Habitación no encontrada");
         }
 
-        // Validar estado de la habitación
-        if (room.getStatus() != Room.RoomStatus.DISPONIBLE) {
-            throw new ReservaNoDisponibleException("La habitación no está disponible");
+        Reservation reservation;
+        long journalSequence = 0;
+        phases.restart();
+        EventBus eventBus = deferEvents();
+        try {
+            synchronized (client) {
+                phases.lockAcquired();
+
+                // Validar si el cliente puede hacer más reservas
+                if (!client.canMakeReservation()) {
+                    operations.quotaRejected();
+                    throw new ReservaNoDisponibleException("El cliente ya tiene el máximo de "
+                            + Client.MAX_ACTIVE_RESERVATIONS + " reservas activas");
+                }
+
+                // Validar fechas
+                validateDates(checkInDate, checkOutDate);
+                phases.validated();
+
+                synchronized (room) {
+                    phases.lockAcquired();
+
+                    // Validar que no haya solapamiento con otras reservas
+                    boolean overlap = hasOverlap(room, checkInDate, checkOutDate);
+                    phases.overlapChecked();
+                    if (overlap) {
+                        operations.overlapRejected();
+                        throw new ReservaNoDisponibleException("Ya existe una reserva para esa habitación en las fechas seleccionadas");
+                    }
+
+                    // Crear la reserva
+                    Journal journal = writableJournal();
+                    reservation = new Reservation(room, client, checkInDate, checkOutDate,
+                            rates.quote(room, checkInDate, checkOutDate));
+
+                    // Primero el índice de la habitación, que es lo único que puede fallar; después
+                    // los estados (una habitación ocupada sigue ocupada hasta el check-out)
+                    room.addBooking(reservation);
+                    room.compareAndSetStatus(Room.RoomStatus.DISPONIBLE, Room.RoomStatus.RESERVADA);
+                    client.addReservation(reservation);
+                    reservations.put(reservation.getId(), reservation);
+                    reservationOrder.add(reservation);
+
+                    // El evento se encola bajo el bloqueo para conservar el orden; el fsync se espera fuera
+                    if (journal != null) {
+                        journalSequence = journal.appendReservationCreated(reservation.getId(), clientId, roomNumber,
+                                checkInDate, checkOutDate, reservation.getTotalPriceCents());
+                    }
+                    publish(ReservationEvent.Type.RESERVATION_CREATED, reservation);
+                }
+            }
+        } finally {
+            flushEvents(eventBus);
         }
 
-        // Validar fechas
-        validateDates(checkInDate, checkOutDate);
+        phases.restart();
+        awaitJournal(journalSequence);
+        phases.journalDurable();
+        return reservation;
+    }
 
-        // Validar que no haya solapamiento con otras reservas
-        if (hasOverlap(room, checkInDate, checkOutDate)) {
-            throw new ReservaNoDisponibleException("Ya existe una reserva para esa habitación en las fechas seleccionadas");
+    public void cancelReservation(EntityId reservationId) {
+        long start = System.nanoTime();
+        try {
+            cancel(reservationId);
+            operations.cancelReservation.record(start);
+        } catch (RuntimeException e) {
+            operations.cancelReservation.recordFailure(start, e);
+            throw e;
         }
+    }
 
-        // Crear la reserva
-        Reservation reservation = new Reservation(room, client, checkInDate, checkOutDate);
+    private void cancel(EntityId reservationId) {
+        Reservation reservation = reservations.get(reservationId);
+        if (reservation == null) {
+            throw new IllegalArgumentException("Reserva no encontrada");
+        }
 
-        // Actualizar estados
-        room.setStatus(Room.RoomStatus.RESERVADA);
-        client.addReservation(reservation);
-        reservations.add(reservation);
+        // La cancelación también actualiza al cliente, así que se bloquea cliente -> habitación
+        long journalSequence;
+        EventBus eventBus = deferEvents();
+        try {
+            synchronized (reservation.getClient()) {
+                synchronized (reservation.getRoom()) {
+                    if (reservation.isCancelled()) {
+                        throw new IllegalStateException("La reserva ya está cancelada");
+                    }
+
+                    LocalDate today = clock.today();
+                    if (today.isAfter(reservation.getCheckInDate())) {
+                        throw new IllegalStateException("No se puede cancelar una reserva que ya ha comenzado");
+                    }
+
+                    Journal journal = writableJournal();
+                    reservation.cancel(today);
+                    journalSequence = journal != null ? journal.appendReservationCancelled(reservationId) : 0;
+                    publish(ReservationEvent.Type.RESERVATION_CANCELLED, reservation);
+                }
+            }
+        } finally {
+            flushEvents(eventBus);
+        }
+        awaitJournal(journalSequence);
+    }
 
-        return reservation;
+    public void checkIn(EntityId reservationId) {
+        long start = System.nanoTime();
+        try {
+            registerCheckIn(reservationId);
+            operations.checkIn.record(start);
+        } catch (RuntimeException e) {
+            operations.checkIn.recordFailure(start, e);
+            throw e;
+        }
     }
 
-    public void cancelReservation(String reservationId) {
-        Reservation reservation = getReservationById(reservationId);
+    private void registerCheckIn(EntityId reservationId) {
+        Reservation reservation = reservations.get(reservationId);
         if (reservation == null) {
             throw new IllegalArgumentException("Reserva no encontrada");
         }
 
-        if (reservation.isCancelled()) {
-            throw new IllegalStateException("La reserva ya está cancelada");
+        long journalSequence;
+        EventBus eventBus = deferEvents();
+        try {
+            synchronized (reservation.getRoom()) {
+                if (reservation.isCancelled()) {
+                    throw new IllegalStateException("No se puede hacer check-in en una reserva cancelada");
+                }
+                if (reservation.getStatus() != Reservation.Status.CONFIRMADA) {
+                    throw new IllegalStateException("La reserva ya tiene hecho el check-in");
+                }
+
+                LocalDate today = clock.today();
+                if (today.isBefore(reservation.getCheckInDate())) {
+                    throw new IllegalStateException("No se puede hacer check-in antes de la fecha reservada");
+                }
+
+                if (today.isAfter(reservation.getCheckOutDate())) {
+                    throw new IllegalStateException("No se puede hacer check-in después de la fecha de salida");
+                }
+
+                Journal journal = writableJournal();
+                // Solo desde RESERVADA: si sigue OCUPADA falta el check-out del huésped anterior
+                Room room = reservation.getRoom();
+                if (!room.compareAndSetStatus(Room.RoomStatus.RESERVADA, Room.RoomStatus.OCUPADA)) {
+                    throw new IllegalStateException("No se puede hacer check-in: la habitación " + room.getRoomNumber()
+                            + " está " + room.getStatus());
+                }
+                reservation.markCheckedIn();
+                journalSequence = journal != null ? journal.appendCheckIn(reservationId) : 0;
+                publish(ReservationEvent.Type.CHECKED_IN, reservation);
+            }
+        } finally {
+            flushEvents(eventBus);
         }
+        awaitJournal(journalSequence);
+    }
 
-        if (LocalDate.now().isAfter(reservation.getCheckInDate())) {
-            throw new IllegalStateException("No se puede cancelar una reserva que ya ha comenzado");
+    public void checkOut(EntityId reservationId) {
+        long start = System.nanoTime();
+        try {
+            registerCheckOut(reservationId);
+            operations.checkOut.record(start);
+        } catch (RuntimeException e) {
+            operations.checkOut.recordFailure(start, e);
+            throw e;
         }
-
-        reservation.cancel();
     }
 
-    public void checkIn(String reservationId) {
-        Reservation reservation = getReservationById(reservationId);
+    private void registerCheckOut(EntityId reservationId) {
+        Reservation reservation = reservations.get(reservationId);
         if (reservation == null) {
             throw new IllegalArgumentException("Reserva no encontrada");
         }
 
-        if (reservation.isCancelled()) {
-            throw new IllegalStateException("No se puede hacer check-in en una reserva cancelada");
+        Room room = reservation.getRoom();
+        long journalSequence;
+        EventBus eventBus = deferEvents();
+        try {
+            synchronized (room) {
+                if (reservation.isCancelled()) {
+                    throw new IllegalStateException("No se puede hacer check-out en una reserva cancelada");
+                }
+
+                if (reservation.getStatus() == Reservation.Status.FINALIZADA) {
+                    throw new IllegalStateException("La reserva ya tiene hecho el check-out");
+                }
+
+                Journal journal = writableJournal();
+                if (reservation.getStatus() != Reservation.Status.EN_CURSO
+                        || !room.compareAndSetStatus(Room.RoomStatus.OCUPADA, statusAfterCheckOut(reservation))) {
+                    throw new IllegalStateException("No se puede hacer check-out si no se ha hecho check-in");
+                }
+                reservation.markCheckedOut();
+                journalSequence = journal != null ? journal.appendCheckOut(reservationId) : 0;
+                publish(ReservationEvent.Type.CHECKED_OUT, reservation);
+            }
+        } finally {
+            flushEvents(eventBus);
+        }
+        awaitJournal(journalSequence);
+    }
+
+    // Reconstrucción desde el diario: se aplican los cambios sin las validaciones de negocio,
+    // que ya se comprobaron cuando ocurrió el evento original, y sin volver a registrarlos
+    public Reservation restoreReservation(EntityId reservationId, EntityId clientId, int roomNumber,
+                                          LocalDate checkInDate, LocalDate checkOutDate, long totalPriceCents) {
+        long start = System.nanoTime();
+        try {
+            Reservation reservation = restore(reservationId, clientId, roomNumber, checkInDate, checkOutDate,
+                    totalPriceCents, Reservation.Status.CONFIRMADA, true);
+            operations.restoreReservation.record(start);
+            return reservation;
+        } catch (RuntimeException e) {
+            operations.restoreReservation.recordFailure(start, e);
+            throw e;
         }
+    }
 
-        LocalDate today = LocalDate.now();
-        if (today.isBefore(reservation.getCheckInDate())) {
-            throw new IllegalStateException("No se puede hacer check-in antes de la fecha reservada");
+    // Carga desde una instantánea: el estado de la habitación no se toca porque se restaura aparte
+    public Reservation loadReservation(EntityId reservationId, EntityId clientId, int roomNumber,
+                                       LocalDate checkInDate, LocalDate checkOutDate, long totalPriceCents,
+                                       Reservation.Status status) {
+        long start = System.nanoTime();
+        try {
+            Reservation reservation = restore(reservationId, clientId, roomNumber, checkInDate, checkOutDate,
+                    totalPriceCents, status, false);
+            operations.loadReservation.record(start);
+            return reservation;
+        } catch (RuntimeException e) {
+            operations.loadReservation.recordFailure(start, e);
+            throw e;
+        }
+    }
+
+    // Un precio negativo (registros anteriores a las tarifas por fecha) se recalcula con las actuales
+    private Reservation restore(EntityId reservationId, EntityId clientId, int roomNumber, LocalDate checkInDate,
+                                LocalDate checkOutDate, long totalPriceCents, Reservation.Status status,
+                                boolean updateRoomStatus) {
+        Client client = clientController.getClientById(clientId);
+        if (client == null) {
+            throw new IllegalArgumentException("Cliente no encontrado: " + clientId);
+        }
+        Room room = roomController.getRoomByNumber(roomNumber);
+        if (room == null) {
+            throw new IllegalArgumentException("Habitación no encontrada: " + roomNumber);
         }
 
-        if (today.isAfter(reservation.getCheckOutDate())) {
-            throw new IllegalStateException("No se puede hacer check-in después de la fecha de salida");
+        // Al reproducir el diario o cargar una instantánea antigua no se resucitan las ya archivadas
+        ReservationArchive archive = this.archive;
+        if (archive != null && archive.contains(reservationId)) {
+            return toReservation(archive.find(reservationId));
         }
 
-        reservation.getRoom().setStatus(Room.RoomStatus.OCUPADA);
+        synchronized (client) {
+            synchronized (room) {
+                Reservation existing = reservations.get(reservationId);
+                if (existing != null) {
+                    return existing;
+                }
+
+                long price = totalPriceCents >= 0 ? totalPriceCents : rates.quote(room, checkInDate, checkOutDate);
+                Reservation reservation = new Reservation(reservationId, room, client, checkInDate, checkOutDate,
+                        price);
+                if (status == Reservation.Status.CANCELADA) {
+                    reservation.restoreCancelled();
+                } else {
+                    room.addBooking(reservation);
+                    if (status == Reservation.Status.EN_CURSO) {
+                        reservation.markCheckedIn();
+                    } else if (status == Reservation.Status.FINALIZADA) {
+                        reservation.markCheckedOut();
+                    }
+                    if (updateRoomStatus) {
+                        room.compareAndSetStatus(Room.RoomStatus.DISPONIBLE, Room.RoomStatus.RESERVADA);
+                    }
+                }
+                client.addReservation(reservation);
+                reservations.put(reservationId, reservation);
+                reservationOrder.add(reservation);
+                return reservation;
+            }
+        }
     }
 
-    public void checkOut(String reservationId) {
-        Reservation reservation = getReservationById(reservationId);
-        if (reservation == null) {
-            throw new IllegalArgumentException("Reserva no encontrada");
+    public void restoreCancellation(EntityId reservationId) {
+        long start = System.nanoTime();
+        Reservation reservation = reservations.get(reservationId);
+        if (reservation != null) {
+            reservation.markCancelled();
         }
+        operations.restoreCancellation.record(start);
+    }
 
-        if (reservation.isCancelled()) {
-            throw new IllegalStateException("No se puede hacer check-out en una reserva cancelada");
+    // Al reproducir el diario el estado se fija sin validar la transición: el evento ya ocurrió
+    public void restoreCheckIn(EntityId reservationId) {
+        long start = System.nanoTime();
+        Reservation reservation = reservations.get(reservationId);
+        if (reservation != null) {
+            reservation.getRoom().setStatus(Room.RoomStatus.OCUPADA);
+            reservation.markCheckedIn();
         }
+        operations.restoreCheckIn.record(start);
+    }
 
-        if (reservation.getRoom().getStatus() != Room.RoomStatus.OCUPADA) {
-            throw new IllegalStateException("No se puede hacer check-out si no se ha hecho check-in");
+    public void restoreCheckOut(EntityId reservationId) {
+        long start = System.nanoTime();
+        Reservation reservation = reservations.get(reservationId);
+        if (reservation != null) {
+            synchronized (reservation.getRoom()) {
+                reservation.markCheckedOut();
+                reservation.getRoom().setStatus(statusAfterCheckOut(reservation));
+            }
         }
+        operations.restoreCheckOut.record(start);
+    }
 
-        reservation.getRoom().setStatus(Room.RoomStatus.DISPONIBLE);
+    // A partir de aquí cada cambio se registra en el diario antes de devolverse
+    public void setJournal(Journal journal) {
+        this.journal = journal;
     }
 
-    public Reservation getReservationById(String reservationId) {
-        return reservations.stream()
-                .filter(reservation -> reservation.getId().equals(reservationId))
-                .findFirst()
-                .orElse(null);
+    // A partir de aquí cada alta, cancelación, check-in y check-out se publica en el bus
+    public void setEventBus(EventBus eventBus) {
+        this.eventBus = eventBus;
     }
 
+    // A partir de aquí, en cada cambio de día las reservas terminadas o canceladas que salieron hace
+    // más de horizonDays se pasan al archivo y dejan de ocupar memoria. Se siguen encontrando por ID,
+    // en el historial del cliente y en los informes de ingresos. Debe instalarse antes de cargar la
+    // instantánea y el diario, para que no se vuelvan a cargar las ya archivadas.
+    public void setArchive(ReservationArchive archive, int horizonDays) {
+        if (horizonDays < 1) {
+            throw new IllegalArgumentException("Las reservas deben conservarse en memoria al menos 1 día");
+        }
+        this.archiveHorizonDays = horizonDays;
+        this.archive = archive;
+        clientController.setArchivedHistory(this::getArchivedReservations);
+    }
+
+    // Pasa al archivo las reservas canceladas o con check-out cuya salida es anterior a
+    // today - horizonDays; devuelve cuántas. Las que siguen confirmadas o en curso (nadie hizo el
+    // check-out) se quedan en memoria con su habitación. Primero se escriben en disco, todas o
+    // ninguna, y luego se quitan de memoria bajo los bloqueos cliente -> habitación: si el proceso
+    // cae entre medias, al arrancar se descartan las que ya estén archivadas.
+    public int archiveReservations(LocalDate today) {
+        long start = System.nanoTime();
+        try {
+            int archived = archiveExpired(today);
+            operations.archiveReservations.record(start);
+            return archived;
+        } catch (RuntimeException e) {
+            operations.archiveReservations.recordFailure(start, e);
+            throw e;
+        }
+    }
+
+    private int archiveExpired(LocalDate today) {
+        ReservationArchive archive = this.archive;
+        if (archive == null) {
+            return 0;
+        }
+        try {
+            LocalDate cutoff = today.minusDays(archiveHorizonDays);
+            // CANCELADA y FINALIZADA son finales: no cambian entre la selección y el borrado
+            List<Reservation> expired = new ArrayList<>();
+            for (Reservation reservation : reservationOrder.values()) {
+                Reservation.Status status = reservation.getStatus();
+                if (reservation.getCheckOutDate().isBefore(cutoff)
+                        && (status == Reservation.Status.CANCELADA || status == Reservation.Status.FINALIZADA)) {
+                    expired.add(reservation);
+                }
+            }
+            if (expired.isEmpty()) {
+                return 0;
+            }
+            archive.append(expired);
+
+            Set<Reservation> archived = Collections.newSetFromMap(new IdentityHashMap<>());
+            archived.addAll(expired);
+            Map<Client, List<Reservation>> byClient = new IdentityHashMap<>();
+            for (Reservation reservation : expired) {
+                byClient.computeIfAbsent(reservation.getClient(), c -> new ArrayList<>()).add(reservation);
+            }
+            for (Map.Entry<Client, List<Reservation>> entry : byClient.entrySet()) {
+                Client client = entry.getKey();
+                synchronized (client) {
+                    for (Reservation reservation : entry.getValue()) {
+                        Room room = reservation.getRoom();
+                        synchronized (room) {
+                            reservations.remove(reservation.getId(), reservation);
+                            room.removeBooking(reservation);
+                        }
+                    }
+                    client.removeArchived(archived);
+                }
+            }
+            reservationOrder.removeIf(archived::contains);
+            operations.archived(expired.size());
+            return expired.size();
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudieron archivar las reservas", e);
+        }
+    }
+
+    // Reservas archivadas de un cliente, en el orden en que se archivaron
+    List<Reservation> getArchivedReservations(EntityId clientId) {
+        List<Reservation> result = new ArrayList<>();
+        ReservationArchive archive = this.archive;
+        if (archive != null) {
+            for (ReservationArchive.Entry entry : archive.findByClient(clientId)) {
+                Reservation reservation = toReservation(entry);
+                if (reservation != null) {
+                    result.add(reservation);
+                }
+            }
+        }
+        return result;
+    }
+
+    // Reservas archivadas con alguna noche en [from, to), para los informes. Las que aún siguen en
+    // memoria (se están archivando ahora) se omiten porque ya se recorren con reservationValues.
+    void forEachArchivedReservation(LocalDate from, LocalDate to, Consumer<Reservation> action) {
+        ReservationArchive archive = this.archive;
+        if (archive == null) {
+            return;
+        }
+        archive.forEachOverlapping(from, to, entry -> {
+            if (!reservations.containsKey(entry.getId())) {
+                Reservation reservation = toReservation(entry);
+                if (reservation != null) {
+                    action.accept(reservation);
+                }
+            }
+        });
+    }
+
+    // Copia de solo lectura de una reserva archivada; no se añade a la habitación ni al cliente
+    private Reservation toReservation(ReservationArchive.Entry entry) {
+        if (entry == null) {
+            return null;
+        }
+        Room room = roomController.getRoomByNumber(entry.getRoomNumber());
+        Client client = clientController.getClientById(entry.getClientId());
+        if (room == null || client == null) {
+            return null;
+        }
+        Reservation reservation = new Reservation(entry.getId(), room, client, entry.getCheckInDate(),
+                entry.getCheckOutDate(), entry.getTotalPriceCents());
+        if (entry.getStatus() == Reservation.Status.CANCELADA) {
+            reservation.restoreCancelled();
+        } else if (entry.getStatus() == Reservation.Status.FINALIZADA) {
+            reservation.markCheckedOut();
+        }
+        return reservation;
+    }
+
+    // Se llama bajo los mismos bloqueos que el registro en el diario, en el mismo orden
+    private void publish(ReservationEvent.Type type, Reservation reservation) {
+        EventBus eventBus = this.eventBus;
+        if (eventBus != null) {
+            eventBus.publishReservation(type, reservation);
+        }
+    }
+
+    // Los eventos de una operación (el de la reserva y los cambios de estado de la habitación) toman
+    // su secuencia bajo los bloqueos, pero se escriben en el bus al soltarlos: si un consumidor lento
+    // llena el búfer, la espera no frena las demás operaciones sobre esa habitación y ese cliente
+    private EventBus deferEvents() {
+        EventBus eventBus = this.eventBus;
+        if (eventBus != null) {
+            eventBus.defer();
+        }
+        return eventBus;
+    }
+
+    private static void flushEvents(EventBus eventBus) {
+        if (eventBus != null) {
+            eventBus.flush();
+        }
+    }
+
+    // Latencias, errores y contadores de las operaciones de este controlador
+    public Metrics getMetrics() {
+        return metrics;
+    }
+
+    // Cambio de día: retira de los índices de las habitaciones las reservas terminadas antes de
+    // today (siguen accesibles por ID y en el historial del cliente). Los shards del inventario se
+    // limpian en paralelo.
+    public void removeEndedBookings(LocalDate today) {
+        long start = System.nanoTime();
+        roomController.forEachRoom(room -> room.removeBookingsEndedBefore(today));
+        operations.removeEndedBookings.record(start);
+    }
+
+    public Reservation getReservationById(EntityId reservationId) {
+        long start = System.nanoTime();
+        Reservation reservation = reservations.get(reservationId);
+        ReservationArchive archive = this.archive;
+        if (reservation == null && archive != null) {
+            reservation = toReservation(archive.find(reservationId));
+        }
+        operations.getReservationById.record(start);
+        return reservation;
+    }
+
+    public List<Room> findAvailableRooms(Room.RoomType type, LocalDate checkInDate, LocalDate checkOutDate) {
+        return findAvailableRooms(null, type, checkInDate, checkOutDate);
+    }
+
+    // Habitaciones libres de una propiedad (property == null para todas)
+    public List<Room> findAvailableRooms(Integer property, Room.RoomType type, LocalDate checkInDate,
+                                         LocalDate checkOutDate) {
+        long start = System.nanoTime();
+        try {
+            validateDates(checkInDate, checkOutDate);
+            List<Room> available = roomController.findAvailableRooms(property, type, checkInDate, checkOutDate);
+            operations.findAvailableRooms.record(start);
+            return available;
+        } catch (RuntimeException e) {
+            operations.findAvailableRooms.recordFailure(start, e);
+            throw e;
+        }
+    }
+
+    // Precio en céntimos de una estancia con las tarifas actuales, con las mismas validaciones de
+    // fechas que una reserva pero sin bloquear nada
+    public long quoteStay(int roomNumber, LocalDate checkInDate, LocalDate checkOutDate) {
+        long start = System.nanoTime();
+        try {
+            Room room = roomController.getRoomByNumber(roomNumber);
+            if (room == null) {
+                throw new IllegalArgumentException("Habitación no encontrada");
+            }
+            validateDates(checkInDate, checkOutDate);
+            long price = rates.quote(room, checkInDate, checkOutDate);
+            operations.quoteStay.record(start);
+            return price;
+        } catch (RuntimeException e) {
+            operations.quoteStay.recordFailure(start, e);
+            throw e;
+        }
+    }
+
+    // Tarifas con las que se cotiza y se fija el precio de las reservas nuevas
+    public RateTable getRateTable() {
+        return rates;
+    }
+
+    // Copia completa, para las instantáneas; los listados deben usar getReservations
     public List<Reservation> getAllReservations() {
-        return new ArrayList<>(reservations);
+        long start = System.nanoTime();
+        List<Reservation> result = new ArrayList<>(reservationOrder.values());
+        operations.getAllReservations.record(start);
+        return result;
+    }
+
+    // Vista (sin copiar) de todas las reservas en orden de creación, para los informes
+    Collection<Reservation> reservationValues() {
+        return reservationOrder.values();
+    }
+
+    // Página de reservas en orden de creación. filter (opcional, ver ReservationFilters) selecciona
+    // las reservas; cursor es el de la página anterior o null para empezar.
+    public Page<Reservation> getReservations(Predicate<Reservation> filter, String cursor, int limit) {
+        long start = System.nanoTime();
+        try {
+            Page<Reservation> page = reservationOrder.page(filter, cursor, limit);
+            operations.getReservations.record(start);
+            return page;
+        } catch (RuntimeException e) {
+            operations.getReservations.recordFailure(start, e);
+            throw e;
+        }
     }
 
 
     private void validateDates(LocalDate checkInDate, LocalDate checkOutDate) {
-        LocalDate today = LocalDate.now();
+        LocalDate today = clock.today();
 
         if (checkInDate == null || checkOutDate == null) {
             throw new IllegalArgumentException("Las fechas no pueden ser nulas");
@@ -149,15 +692,45 @@ public class ReserveController {
             throw new IllegalArgumentException("La fecha de salida debe ser posterior a la de entrada");
         }
 
+        // Más allá del tramo de las tarifas no hay precios y los mapas de días crecerían sin límite
+        if (checkOutDate.isAfter(today.plusDays(RateTable.MAX_DAYS))) {
+            throw new IllegalArgumentException("No se pueden hacer reservas a más de " + RateTable.MAX_DAYS
+                    + " días vista");
+        }
+
         long days = ChronoUnit.DAYS.between(checkInDate, checkOutDate);
         if (days > MAX_RESERVATION_DAYS) {
             throw new IllegalArgumentException("La reserva no puede exceder los " + MAX_RESERVATION_DAYS + " días");
         }
     }
 
+    // Si la habitación tiene otras reservas sin check-in vuelve a quedar reservada. La que sale ya
+    // tiene check-in, así que no cuenta.
+    private Room.RoomStatus statusAfterCheckOut(Reservation reservation) {
+        return reservation.getRoom().hasPendingBookings()
+                ? Room.RoomStatus.RESERVADA
+                : Room.RoomStatus.DISPONIBLE;
+    }
+
+    // Diario en el que se registrarán los cambios (null si no hay). Se llama bajo los bloqueos y
+    // antes de tocar nada en memoria: si el diario ya ha fallado, la operación se rechaza en lugar
+    // de aplicar un cambio que no sobreviviría a un reinicio.
+    private Journal writableJournal() {
+        Journal journal = this.journal;
+        if (journal != null) {
+            journal.checkWritable();
+        }
+        return journal;
+    }
+
+    private void awaitJournal(long journalSequence) {
+        Journal journal = this.journal;
+        if (journal != null && journalSequence > 0) {
+            journal.awaitDurable(journalSequence);
+        }
+    }
+
     private boolean hasOverlap(Room room, LocalDate checkInDate, LocalDate checkOutDate) {
-        return reservations.stream()
-                .filter(r -> !r.isCancelled() && r.getRoom().getRoomNumber() == room.getRoomNumber())
-                .anyMatch(r -> r.overlaps(checkInDate, checkOutDate));
+        return room.hasOverlap(checkInDate, checkOutDate);
     }
 }
\ No newline at end of file
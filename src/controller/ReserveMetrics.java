@@ -0,0 +1,120 @@
+package controller;
+
+import metrics.Metrics;
+import metrics.OperationMetrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+// Métricas de ReserveController, creadas una vez sobre el registro compartido: una por operación,
+// las fases de createReservation y los contadores de rechazos y archivado
+final class ReserveMetrics {
+    private static final String PREFIX = "ReserveController.";
+
+    final OperationMetrics createReservation;
+    final OperationMetrics cancelReservation;
+    final OperationMetrics checkIn;
+    final OperationMetrics checkOut;
+    final OperationMetrics restoreReservation;
+    final OperationMetrics loadReservation;
+    final OperationMetrics restoreCancellation;
+    final OperationMetrics restoreCheckIn;
+    final OperationMetrics restoreCheckOut;
+    final OperationMetrics getReservationById;
+    final OperationMetrics findAvailableRooms;
+    final OperationMetrics quoteStay;
+    final OperationMetrics getAllReservations;
+    final OperationMetrics getReservations;
+    final OperationMetrics removeEndedBookings;
+    final OperationMetrics archiveReservations;
+
+    private final OperationMetrics lookupPhase;
+    private final OperationMetrics lockWaitPhase;
+    private final OperationMetrics validationPhase;
+    private final OperationMetrics overlapPhase;
+    private final OperationMetrics journalPhase;
+    private final LongAdder quotaRejections;
+    private final LongAdder overlapRejections;
+    private final LongAdder archivedReservations;
+
+    ReserveMetrics(Metrics metrics) {
+        this.createReservation = metrics.operation(PREFIX + "createReservation");
+        this.cancelReservation = metrics.operation(PREFIX + "cancelReservation");
+        this.checkIn = metrics.operation(PREFIX + "checkIn");
+        this.checkOut = metrics.operation(PREFIX + "checkOut");
+        this.restoreReservation = metrics.operation(PREFIX + "restoreReservation");
+        this.loadReservation = metrics.operation(PREFIX + "loadReservation");
+        this.restoreCancellation = metrics.operation(PREFIX + "restoreCancellation");
+        this.restoreCheckIn = metrics.operation(PREFIX + "restoreCheckIn");
+        this.restoreCheckOut = metrics.operation(PREFIX + "restoreCheckOut");
+        this.getReservationById = metrics.operation(PREFIX + "getReservationById");
+        this.findAvailableRooms = metrics.operation(PREFIX + "findAvailableRooms");
+        this.quoteStay = metrics.operation(PREFIX + "quoteStay");
+        this.getAllReservations = metrics.operation(PREFIX + "getAllReservations");
+        this.getReservations = metrics.operation(PREFIX + "getReservations");
+        this.removeEndedBookings = metrics.operation(PREFIX + "removeEndedBookings");
+        this.archiveReservations = metrics.operation(PREFIX + "archiveReservations");
+        this.lookupPhase = metrics.operation(PREFIX + "createReservation.lookup");
+        this.lockWaitPhase = metrics.operation(PREFIX + "createReservation.lockWait");
+        this.validationPhase = metrics.operation(PREFIX + "createReservation.validation");
+        this.overlapPhase = metrics.operation(PREFIX + "createReservation.overlapCheck");
+        this.journalPhase = metrics.operation(PREFIX + "createReservation.journalWait");
+        this.quotaRejections = metrics.counter(PREFIX + "createReservation.rejected.quota");
+        this.overlapRejections = metrics.counter(PREFIX + "createReservation.rejected.overlap");
+        this.archivedReservations = metrics.counter(PREFIX + "archived");
+    }
+
+    // Cronómetro de las fases de una reserva, que empieza con la búsqueda del cliente y la habitación
+    Phases startReservation() {
+        return new Phases();
+    }
+
+    void quotaRejected() {
+        quotaRejections.increment();
+    }
+
+    void overlapRejected() {
+        overlapRejections.increment();
+    }
+
+    void archived(int count) {
+        archivedReservations.add(count);
+    }
+
+    // Cada método cierra la fase en curso y empieza a contar la siguiente. Lo usa un solo hilo.
+    final class Phases {
+        private long phaseStart = System.nanoTime();
+
+        private Phases() {
+        }
+
+        void lookupDone() {
+            end(lookupPhase);
+        }
+
+        void lockAcquired() {
+            end(lockWaitPhase);
+        }
+
+        void validated() {
+            end(validationPhase);
+        }
+
+        void overlapChecked() {
+            end(overlapPhase);
+        }
+
+        void journalDurable() {
+            end(journalPhase);
+        }
+
+        // Empieza una fase sin cerrar la anterior (el tiempo entre medias no se cuenta)
+        void restart() {
+            phaseStart = System.nanoTime();
+        }
+
+        private void end(OperationMetrics phase) {
+            phase.record(phaseStart);
+            phaseStart = System.nanoTime();
+        }
+    }
+}
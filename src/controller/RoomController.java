@@ -1,95 +1,409 @@
 package controller;
 
+import events.EventBus;
+import metrics.Metrics;
+import metrics.OperationMetrics;
 import model.Room;
+import model.RoomStatistics;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 public class RoomController {
-    private final List<Room> rooms;
+    // Por debajo de este número de habitaciones repartir una consulta entre hilos no compensa
+    private static final int PARALLEL_THRESHOLD = 4096;
+
+    // Habitaciones indexadas por número y, aparte, en orden de alta para los listados
+    private final Map<Integer, Room> rooms;
+    private final Queue<Room> roomOrder;
+    private final Map<Room.RoomType, Queue<Room>> roomsByType;
+    // Inventario repartido por propiedad y planta, en ese orden (ver InventoryShard.keyOf)
+    private final ConcurrentNavigableMap<Integer, InventoryShard> shards;
+    private final RoomStatistics statistics;
+    private volatile EventBus eventBus;
+    private final Metrics metrics;
+    private final OperationMetrics addRoomMetrics;
+    private final OperationMetrics addRoomsMetrics;
+    private final OperationMetrics getAllRoomsMetrics;
+    private final OperationMetrics getRoomByNumberMetrics;
+    private final OperationMetrics getRoomsByTypeMetrics;
+    private final OperationMetrics getRoomsByPropertyMetrics;
+    private final OperationMetrics findAvailableRoomsMetrics;
+    private final OperationMetrics getRoomsByStatusMetrics;
+    private final OperationMetrics generateRoomSummaryMetrics;
+    private final OperationMetrics writeRoomSummaryMetrics;
 
     public RoomController() {
-        this.rooms = new ArrayList<>();
-        initializeRooms();
+        this(new Metrics());
+    }
+
+    public RoomController(Metrics metrics) {
+        this(metrics, true);
+    }
+
+    // Sin las 15 habitaciones de ejemplo, para cargar el inventario desde un fichero (RoomInventory)
+    public RoomController(Metrics metrics, boolean defaultRooms) {
+        this.metrics = metrics;
+        this.addRoomMetrics = metrics.operation("RoomController.addRoom");
+        this.addRoomsMetrics = metrics.operation("RoomController.addRooms");
+        this.getAllRoomsMetrics = metrics.operation("RoomController.getAllRooms");
+        this.getRoomByNumberMetrics = metrics.operation("RoomController.getRoomByNumber");
+        this.getRoomsByTypeMetrics = metrics.operation("RoomController.getRoomsByType");
+        this.getRoomsByPropertyMetrics = metrics.operation("RoomController.getRoomsByProperty");
+        this.findAvailableRoomsMetrics = metrics.operation("RoomController.findAvailableRooms");
+        this.getRoomsByStatusMetrics = metrics.operation("RoomController.getRoomsByStatus");
+        this.generateRoomSummaryMetrics = metrics.operation("RoomController.generateRoomSummary");
+        this.writeRoomSummaryMetrics = metrics.operation("RoomController.writeRoomSummary");
+        this.rooms = new ConcurrentHashMap<>();
+        this.roomOrder = new ConcurrentLinkedQueue<>();
+        // Se crean todas las colas por tipo de antemano para que el mapa sea de solo lectura
+        this.roomsByType = new EnumMap<>(Room.RoomType.class);
+        for (Room.RoomType type : Room.RoomType.values()) {
+            roomsByType.put(type, new ConcurrentLinkedQueue<>());
+        }
+        this.shards = new ConcurrentSkipListMap<>();
+        this.statistics = new RoomStatistics();
+        if (defaultRooms) {
+            initializeRooms();
+        }
     }
 
     private void initializeRooms() {
         // Inicializar las habitaciones del hotel según los requisitos
         // Planta 1: 101-105
-        rooms.add(new Room(101, Room.RoomType.INDIVIDUAL, "Vista al jardín"));
-        rooms.add(new Room(102, Room.RoomType.INDIVIDUAL, "Cama extra grande"));
-        rooms.add(new Room(103, Room.RoomType.DOBLE, "Dos camas individuales"));
-        rooms.add(new Room(104, Room.RoomType.DOBLE, "Cama matrimonial"));
-        rooms.add(new Room(105, Room.RoomType.SUITE, "Con jacuzzi"));
+        addRoom(new Room(101, Room.RoomType.INDIVIDUAL, "Vista al jardín"));
+        addRoom(new Room(102, Room.RoomType.INDIVIDUAL, "Cama extra grande"));
+        addRoom(new Room(103, Room.RoomType.DOBLE, "Dos camas individuales"));
+        addRoom(new Room(104, Room.RoomType.DOBLE, "Cama matrimonial"));
+        addRoom(new Room(105, Room.RoomType.SUITE, "Con jacuzzi"));
 
         // Planta 2: 201-205
-        rooms.add(new Room(201, Room.RoomType.INDIVIDUAL, "Vista a la ciudad"));
-        rooms.add(new Room(202, Room.RoomType.DOBLE, "Balcón privado"));
-        rooms.add(new Room(203, Room.RoomType.DOBLE, "Cama King Size"));
-        rooms.add(new Room(204, Room.RoomType.SUITE, "Sala de estar separada"));
-        rooms.add(new Room(205, Room.RoomType.SUITE, "Vista panorámica"));
+        addRoom(new Room(201, Room.RoomType.INDIVIDUAL, "Vista a la ciudad"));
+        addRoom(new Room(202, Room.RoomType.DOBLE, "Balcón privado"));
+        addRoom(new Room(203, Room.RoomType.DOBLE, "Cama King Size"));
+        addRoom(new Room(204, Room.RoomType.SUITE, "Sala de estar separada"));
+        addRoom(new Room(205, Room.RoomType.SUITE, "Vista panorámica"));
 
         // Planta 3: 301-305
-        rooms.add(new Room(301, Room.RoomType.INDIVIDUAL, "Terraza pequeña"));
-        rooms.add(new Room(302, Room.RoomType.DOBLE, "Vista al mar"));
-        rooms.add(new Room(303, Room.RoomType.DOBLE, "Decoración moderna"));
-        rooms.add(new Room(304, Room.RoomType.SUITE, "Dos habitaciones"));
-        rooms.add(new Room(305, Room.RoomType.SUITE, "Suite presidencial"));
+        addRoom(new Room(301, Room.RoomType.INDIVIDUAL, "Terraza pequeña"));
+        addRoom(new Room(302, Room.RoomType.DOBLE, "Vista al mar"));
+        addRoom(new Room(303, Room.RoomType.DOBLE, "Decoración moderna"));
+        addRoom(new Room(304, Room.RoomType.SUITE, "Dos habitaciones"));
+        addRoom(new Room(305, Room.RoomType.SUITE, "Suite presidencial"));
+    }
+
+    public void addRoom(Room room) {
+        long start = System.nanoTime();
+        try {
+            register(room);
+            addRoomMetrics.record(start);
+        } catch (RuntimeException e) {
+            addRoomMetrics.recordFailure(start, e);
+            throw e;
+        }
+    }
+
+    // Alta en bloque (carga del inventario). Se valida todo antes de registrar nada, así que si
+    // hay un número repetido no se añade ninguna; después se registran en orden con una sola
+    // pasada por todos los índices, reutilizando el shard mientras las habitaciones sigan en la
+    // misma planta.
+    public void addRooms(List<Room> newRooms) {
+        long start = System.nanoTime();
+        try {
+            int[] numbers = new int[newRooms.size()];
+            for (int i = 0; i < numbers.length; i++) {
+                Room room = newRooms.get(i);
+                if (room == null) {
+                    throw new IllegalArgumentException("La habitación no puede ser nula");
+                }
+                numbers[i] = room.getRoomNumber();
+                if (rooms.containsKey(numbers[i])) {
+                    throw new IllegalArgumentException("Ya existe la habitación " + numbers[i]);
+                }
+            }
+            Arrays.sort(numbers);
+            for (int i = 1; i < numbers.length; i++) {
+                if (numbers[i] == numbers[i - 1]) {
+                    throw new IllegalArgumentException("La habitación " + numbers[i] + " está repetida");
+                }
+            }
+
+            InventoryShard shard = null;
+            for (Room room : newRooms) {
+                room.setStatusListener(this::onStatusChange);
+                statistics.register(room);
+                if (rooms.putIfAbsent(room.getRoomNumber(), room) != null) {
+                    statistics.unregister(room);
+                    throw new IllegalArgumentException("Ya existe la habitación " + room.getRoomNumber());
+                }
+                roomOrder.add(room);
+                roomsByType.get(room.getType()).add(room);
+                if (shard == null || shard.getProperty() != room.getProperty() || shard.getFloor() != room.getFloor()) {
+                    shard = shards.computeIfAbsent(InventoryShard.keyOf(room),
+                            key -> new InventoryShard(room.getProperty(), room.getFloor()));
+                }
+                shard.add(room);
+            }
+            addRoomsMetrics.record(start);
+        } catch (RuntimeException e) {
+            addRoomsMetrics.recordFailure(start, e);
+            throw e;
+        }
+    }
+
+    private void register(Room room) {
+        if (room == null) {
+            throw new IllegalArgumentException("La habitación no puede ser nula");
+        }
+        if (rooms.containsKey(room.getRoomNumber())) {
+            throw new IllegalArgumentException("Ya existe la habitación " + room.getRoomNumber());
+        }
+
+        // Los cambios de estado no bloquean la habitación, así que el listener y el recuento se
+        // preparan antes de publicarla en el índice, cuando nadie más puede cambiarla todavía
+        room.setStatusListener(this::onStatusChange);
+        statistics.register(room);
+        if (rooms.putIfAbsent(room.getRoomNumber(), room) != null) {
+            statistics.unregister(room);
+            throw new IllegalArgumentException("Ya existe la habitación " + room.getRoomNumber());
+        }
+        roomOrder.add(room);
+        roomsByType.get(room.getType()).add(room);
+        shards.computeIfAbsent(InventoryShard.keyOf(room),
+                key -> new InventoryShard(room.getProperty(), room.getFloor())).add(room);
+    }
+
+    // A partir de aquí cada cambio de estado de una habitación se publica también en el bus
+    public void setEventBus(EventBus eventBus) {
+        this.eventBus = eventBus;
+    }
+
+    // Los eventos llevan la versión del estado, que ordena los cambios de una misma habitación
+    private void onStatusChange(Room room, Room.RoomStatus previous, Room.RoomStatus current, long version) {
+        statistics.onStatusChange(room, previous, current, version);
+        EventBus eventBus = this.eventBus;
+        if (eventBus != null) {
+            eventBus.publishStatusChange(room, previous, current, version);
+        }
     }
 
     public List<Room> getAllRooms() {
-        return new ArrayList<>(rooms);
+        long start = System.nanoTime();
+        List<Room> result = new ArrayList<>(roomOrder);
+        getAllRoomsMetrics.record(start);
+        return result;
     }
 
     public Room getRoomByNumber(int roomNumber) {
-        return rooms.stream()
-                .filter(room -> room.getRoomNumber() == roomNumber)
-                .findFirst()
-                .orElse(null);
+        long start = System.nanoTime();
+        Room room = rooms.get(roomNumber);
+        getRoomByNumberMetrics.record(start);
+        return room;
     }
 
     public List<Room> getRoomsByType(Room.RoomType type) {
-        return rooms.stream()
-                .filter(room -> room.getType() == type)
+        long start = System.nanoTime();
+        List<Room> result = new ArrayList<>(roomsByType.get(type));
+        getRoomsByTypeMetrics.record(start);
+        return result;
+    }
+
+    // Habitaciones de una propiedad, por planta
+    public List<Room> getRoomsByProperty(int property) {
+        long start = System.nanoTime();
+        List<Room> result = new ArrayList<>();
+        for (InventoryShard shard : shardsOf(property)) {
+            result.addAll(shard.getRooms());
+        }
+        getRoomsByPropertyMetrics.record(start);
+        return result;
+    }
+
+    // Habitaciones libres durante todo el rango de fechas (type == null para cualquier tipo)
+    public List<Room> findAvailableRooms(Room.RoomType type, LocalDate checkInDate, LocalDate checkOutDate) {
+        return findAvailableRooms(null, type, checkInDate, checkOutDate);
+    }
+
+    // Igual, limitado a una propiedad (property == null para todas). Cada shard busca en sus
+    // habitaciones y los resultados se juntan en orden de propiedad y planta.
+    public List<Room> findAvailableRooms(Integer property, Room.RoomType type, LocalDate checkInDate,
+                                         LocalDate checkOutDate) {
+        long start = System.nanoTime();
+        if (checkInDate == null || checkOutDate == null) {
+            IllegalArgumentException e = new IllegalArgumentException("Las fechas no pueden ser nulas");
+            findAvailableRoomsMetrics.recordFailure(start, e);
+            throw e;
+        }
+
+        Collection<InventoryShard> targets = property == null ? shards.values() : shardsOf(property);
+        List<Room> available = fanOut(targets)
+                .flatMap(shard -> shard.findAvailable(type, checkInDate, checkOutDate).stream())
                 .collect(Collectors.toList());
+        findAvailableRoomsMetrics.record(start);
+        return available;
+    }
+
+    // Aplica action a cada habitación, repartiendo los shards entre hilos si hay bastantes
+    void forEachRoom(Consumer<Room> action) {
+        fanOut(shards.values()).forEach(shard -> shard.getRooms().forEach(action));
+    }
+
+    private Stream<InventoryShard> fanOut(Collection<InventoryShard> targets) {
+        return targets.size() > 1 && rooms.size() >= PARALLEL_THRESHOLD ? targets.parallelStream() : targets.stream();
+    }
+
+    private Collection<InventoryShard> shardsOf(int property) {
+        return shards.subMap(InventoryShard.firstKeyOf(property), InventoryShard.firstKeyOf(property + 1)).values();
+    }
+
+    private Collection<InventoryShard> shardsOf(Integer property, Integer floor) {
+        if (property == null) {
+            return shards.values();
+        }
+        if (floor == null) {
+            return shardsOf(property);
+        }
+        InventoryShard shard = shards.get(InventoryShard.firstKeyOf(property) + floor);
+        return shard == null ? List.of() : List.of(shard);
     }
 
     public List<Room> getRoomsByStatus(Room.RoomStatus status) {
-        return rooms.stream()
+        long start = System.nanoTime();
+        List<Room> result = roomOrder.stream()
                 .filter(room -> room.getStatus() == status)
                 .collect(Collectors.toList());
+        getRoomsByStatusMetrics.record(start);
+        return result;
+    }
+
+    // Contadores por estado, planta y tipo mantenidos en cada cambio de estado
+    public RoomStatistics getStatistics() {
+        return statistics;
+    }
+
+    // Latencias, errores y contadores de las operaciones de este controlador
+    public Metrics getMetrics() {
+        return metrics;
     }
 
     public String generateRoomSummary() {
-        StringBuilder summary = new StringBuilder("RESUMEN DE HABITACIONES DEL HOTEL\n");
-        summary.append("================================\n\n");
+        long start = System.nanoTime();
+        StringBuilder summary = new StringBuilder();
+        try {
+            writeRoomSummary(summary);
+        } catch (IOException e) {
+            // StringBuilder nunca lanza IOException
+            throw new UncheckedIOException(e);
+        }
+        generateRoomSummaryMetrics.record(start);
+        return summary.toString();
+    }
 
-        // Resumen por planta
-        for (int floor = 1; floor <= 3; floor++) {
-            summary.append("Planta ").append(floor).append(":\n");
-            summary.append("-----------\n");
+    public void writeRoomSummary(Appendable out) throws IOException {
+        writeRoomSummary(out, null, null, null, 0, Integer.MAX_VALUE);
+    }
+
+    public void writeRoomSummary(Appendable out, Integer floor, Room.RoomType type, int offset, int limit)
+            throws IOException {
+        writeRoomSummary(out, null, floor, type, offset, limit);
+    }
 
-            final int currentFloor = floor;
-            List<Room> floorRooms = rooms.stream()
-                    .filter(room -> room.getRoomNumber() / 100 == currentFloor)
-                    .toList();
+    // Escribe el resumen planta a planta sobre out, sin construirlo entero en memoria.
+    // property, floor y type (opcionales) filtran las habitaciones; offset y limit paginan el
+    // listado. Una planta sin propiedad se refiere a la propiedad 0.
+    public void writeRoomSummary(Appendable out, Integer property, Integer floor, Room.RoomType type, int offset,
+                                 int limit) throws IOException {
+        long start = System.nanoTime();
+        try {
+            writeSummary(out, property, floor, type, offset, limit);
+            writeRoomSummaryMetrics.record(start);
+        } catch (IOException | RuntimeException e) {
+            writeRoomSummaryMetrics.recordFailure(start, e);
+            throw e;
+        }
+    }
 
-            for (Room room : floorRooms) {
-                summary.append(room.toString()).append("\n");
+    private void writeSummary(Appendable out, Integer property, Integer floor, Room.RoomType type, int offset,
+                              int limit) throws IOException {
+        out.append("RESUMEN DE HABITACIONES DEL HOTEL\n");
+        out.append("================================\n\n");
+
+        if (floor != null && property == null) {
+            property = 0;
+        }
+
+        // Resumen por planta
+        Collection<InventoryShard> floors = shardsOf(property, floor);
+        int matched = 0;
+        int written = 0;
+        for (InventoryShard shard : floors) {
+            if (written >= limit) {
+                break;
+            }
+            boolean headerWritten = false;
+            for (Room room : shard.getRooms()) {
+                if (written >= limit) {
+                    break;
+                }
+                if ((type != null && room.getType() != type) || matched++ < offset) {
+                    continue;
+                }
+                if (!headerWritten) {
+                    if (shard.getProperty() != 0) {
+                        out.append("Propiedad ").append(String.valueOf(shard.getProperty())).append(" - ");
+                    }
+                    out.append("Planta ").append(String.valueOf(shard.getFloor())).append(":\n");
+                    out.append("-----------\n");
+                    headerWritten = true;
+                }
+                out.append(room.toString()).append("\n");
+                written++;
+            }
+            if (headerWritten) {
+                out.append("\n");
             }
-            summary.append("\n");
         }
 
         // Estadísticas
-        long disponibles = rooms.stream().filter(r -> r.getStatus() == Room.RoomStatus.DISPONIBLE).count();
-        long reservadas = rooms.stream().filter(r -> r.getStatus() == Room.RoomStatus.RESERVADA).count();
-        long ocupadas = rooms.stream().filter(r -> r.getStatus() == Room.RoomStatus.OCUPADA).count();
-
-        summary.append("Estadísticas:\n");
-        summary.append("- Habitaciones disponibles: ").append(disponibles).append("\n");
-        summary.append("- Habitaciones reservadas: ").append(reservadas).append("\n");
-        summary.append("- Habitaciones ocupadas: ").append(ocupadas).append("\n");
+        out.append("Estadísticas:\n");
+        out.append("- Habitaciones disponibles: ")
+                .append(String.valueOf(count(property, floor, type, Room.RoomStatus.DISPONIBLE))).append("\n");
+        out.append("- Habitaciones reservadas: ")
+                .append(String.valueOf(count(property, floor, type, Room.RoomStatus.RESERVADA))).append("\n");
+        out.append("- Habitaciones ocupadas: ")
+                .append(String.valueOf(count(property, floor, type, Room.RoomStatus.OCUPADA))).append("\n");
+    }
 
-        return summary.toString();
+    private long count(Integer property, Integer floor, Room.RoomType type, Room.RoomStatus status) {
+        if (type == null) {
+            if (property == null) {
+                return statistics.getCount(status);
+            }
+            return floor == null ? statistics.getCount(property, status) : statistics.getCount(property, floor, status);
+        }
+        if (property == null) {
+            return statistics.getCount(type, status);
+        }
+        // Propiedad o planta y tipo a la vez: no hay contador combinado, se cuenta en sus shards
+        long count = 0;
+        for (InventoryShard shard : shardsOf(property, floor)) {
+            count += shard.countRooms(type, status);
+        }
+        return count;
     }
 }
\ No newline at end of file
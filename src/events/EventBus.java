@@ -0,0 +1,345 @@
+package events;
+
+import metrics.Metrics;
+import model.Reservation;
+import model.Room;
+
+import java.io.Closeable;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+// Bus de eventos en memoria sobre un búfer circular preasignado, al estilo del Disruptor.
+//
+// Los productores reservan la siguiente secuencia con un incremento atómico, rellenan la casilla
+// (los objetos del búfer se reutilizan) y la marcan como publicada: no se crea ningún objeto ni
+// se despierta a ningún hilo. Cada consumidor tiene su propio hilo y su propia secuencia (lo
+// último que ha procesado) y lee por lotes todo lo publicado desde entonces. Si un productor daría
+// la vuelta sobre una casilla que el consumidor más lento aún no ha procesado, espera a que la
+// libere: los eventos no se pierden y el búfer no crece, es el consumidor el que frena.
+//
+// Esa espera no debe hacerse con bloqueos tomados. Entre defer() y flush() los eventos de un hilo
+// reciben su secuencia al publicarse (sin esperar nunca), así que conservan el orden de los
+// bloqueos bajo los que se publican, pero se escriben en el búfer en flush(), ya fuera de ellos.
+//
+// Los manejadores no deben publicar en el mismo bus (con el búfer lleno se esperarían a sí mismos).
+public class EventBus implements Closeable {
+    public static final int DEFAULT_CAPACITY = 1 << 16;
+
+    private static final VarHandle PUBLISHED = MethodHandles.arrayElementVarHandle(int[].class);
+    private static final int SPIN_TRIES = 100;
+    private static final int YIELD_TRIES = 10;
+    private static final long MAX_PARK_NANOS = 1_000_000;
+
+    // Recibe los eventos de una suscripción, en orden de publicación. endOfBatch indica el último
+    // evento disponible por ahora (p. ej. para hacer flush de lo acumulado).
+    public interface Handler {
+        void onEvent(ReservationEvent event, long sequence, boolean endOfBatch);
+    }
+
+    private final ReservationEvent[] entries;
+    // Vuelta del búfer en la que se publicó cada casilla (-1 al principio)
+    private final int[] published;
+    private final int mask;
+    private final int shift;
+    // Última secuencia reservada por un productor
+    private final AtomicLong claimed = new AtomicLong(-1);
+    private final List<Subscription> subscriptions = new CopyOnWriteArrayList<>();
+    // Mínimo de las secuencias de los consumidores la última vez que se calculó; mientras no se
+    // alcance, publicar no necesita mirar a los consumidores
+    private volatile long cachedMinimum = -1;
+    private volatile boolean closed;
+    private final Metrics metrics;
+    private final LongAdder publishedEvents;
+    private final LongAdder backpressureWaits;
+    // Eventos del hilo con secuencia pero aún sin escribir (ver defer)
+    private final ThreadLocal<Deferred> deferred = ThreadLocal.withInitial(Deferred::new);
+
+    public EventBus() {
+        this(DEFAULT_CAPACITY, new Metrics());
+    }
+
+    public EventBus(int capacity, Metrics metrics) {
+        if (capacity < 2 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("La capacidad del bus debe ser una potencia de 2");
+        }
+        this.entries = new ReservationEvent[capacity];
+        for (int i = 0; i < capacity; i++) {
+            entries[i] = new ReservationEvent();
+        }
+        this.published = new int[capacity];
+        Arrays.fill(published, -1);
+        this.mask = capacity - 1;
+        this.shift = Integer.numberOfTrailingZeros(capacity);
+        this.metrics = metrics;
+        this.publishedEvents = metrics.counter("EventBus.published");
+        this.backpressureWaits = metrics.counter("EventBus.backpressure");
+    }
+
+    public void publishReservation(ReservationEvent.Type type, Reservation reservation) {
+        long sequence = claim();
+        Deferred pending = deferred.get();
+        if (pending.depth > 0) {
+            pending.add(sequence).setReservation(type, reservation);
+            return;
+        }
+        awaitSlot(sequence);
+        entries[(int) sequence & mask].setReservation(type, reservation);
+        publish(sequence);
+    }
+
+    public void publishStatusChange(Room room, Room.RoomStatus previous, Room.RoomStatus current, long version) {
+        long sequence = claim();
+        Deferred pending = deferred.get();
+        if (pending.depth > 0) {
+            pending.add(sequence).setStatusChange(room, previous, current, version);
+            return;
+        }
+        awaitSlot(sequence);
+        entries[(int) sequence & mask].setStatusChange(room, previous, current, version);
+        publish(sequence);
+    }
+
+    // A partir de aquí y hasta flush() este hilo publica sin esperar a los consumidores. Se usa
+    // antes de tomar bloqueos; flush() debe llamarse siempre (en un finally) después de soltarlos,
+    // porque los consumidores no pasan de una secuencia reservada hasta que se escribe.
+    public void defer() {
+        deferred.get().depth++;
+    }
+
+    // Escribe en orden los eventos aplazados por este hilo, esperando si hace falta a los consumidores
+    public void flush() {
+        Deferred pending = deferred.get();
+        if (pending.depth == 0) {
+            throw new IllegalStateException("flush() sin defer()");
+        }
+        if (--pending.depth > 0) {
+            return;
+        }
+        for (int i = 0; i < pending.size; i++) {
+            long sequence = pending.sequences[i];
+            awaitSlot(sequence);
+            entries[(int) sequence & mask].copyFrom(pending.events.get(i));
+            publish(sequence);
+        }
+        pending.clear();
+    }
+
+    // El consumidor recibe los eventos publicados a partir de ahora
+    public Subscription subscribe(String name, Handler handler) {
+        if (closed) {
+            throw new IllegalStateException("El bus de eventos está cerrado");
+        }
+        Subscription subscription = new Subscription(name, handler, claimed.get());
+        subscriptions.add(subscription);
+        subscription.thread.start();
+        return subscription;
+    }
+
+    public int getCapacity() {
+        return entries.length;
+    }
+
+    // Secuencia del último evento reservado (-1 si aún no hay ninguno)
+    public long getLastSequence() {
+        return claimed.get();
+    }
+
+    public List<Subscription> getSubscriptions() {
+        return new ArrayList<>(subscriptions);
+    }
+
+    // Deja de aceptar eventos y detiene los consumidores cuando han procesado todo lo publicado
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        // Los productores que ya tenían secuencia terminan de publicar
+        long last = claimed.get();
+        for (long sequence = Math.max(0, last - entries.length + 1); sequence <= last; sequence++) {
+            int tries = 0;
+            while (!isPublished(sequence)) {
+                tries = idle(tries);
+            }
+        }
+        for (Subscription subscription : subscriptions) {
+            subscription.close();
+        }
+    }
+
+    private long claim() {
+        if (closed) {
+            throw new IllegalStateException("El bus de eventos está cerrado");
+        }
+        return claimed.incrementAndGet();
+    }
+
+    // Antes de escribir la casilla de sequence
+    private void awaitSlot(long sequence) {
+        long wrapPoint = sequence - entries.length;
+        if (wrapPoint > cachedMinimum) {
+            awaitConsumers(sequence, wrapPoint);
+        }
+    }
+
+    // Contrapresión: espera a que todos los consumidores hayan procesado la casilla wrapPoint
+    private void awaitConsumers(long sequence, long wrapPoint) {
+        long minimum = minimumSequence(sequence);
+        if (minimum < wrapPoint) {
+            backpressureWaits.increment();
+            int tries = 0;
+            while ((minimum = minimumSequence(sequence)) < wrapPoint) {
+                tries = idle(tries);
+            }
+        }
+        cachedMinimum = minimum;
+    }
+
+    private long minimumSequence(long defaultValue) {
+        long minimum = defaultValue;
+        for (Subscription subscription : subscriptions) {
+            minimum = Math.min(minimum, subscription.sequence.get());
+        }
+        return minimum;
+    }
+
+    private void publish(long sequence) {
+        PUBLISHED.setRelease(published, (int) sequence & mask, (int) (sequence >>> shift));
+        publishedEvents.increment();
+    }
+
+    // Última secuencia de [from, to] hasta la que todo está publicado (from - 1 si nada)
+    private long highestPublished(long from, long to) {
+        for (long sequence = from; sequence <= to; sequence++) {
+            if (!isPublished(sequence)) {
+                return sequence - 1;
+            }
+        }
+        return to;
+    }
+
+    private boolean isPublished(long sequence) {
+        return (int) PUBLISHED.getAcquire(published, (int) sequence & mask) == (int) (sequence >>> shift);
+    }
+
+    // Espera escalonada: activa, luego cediendo el procesador y por último durmiendo cada vez más
+    // (hasta 1 ms). Así publicar nunca tiene que despertar a nadie.
+    private static int idle(int tries) {
+        if (tries < SPIN_TRIES) {
+            Thread.onSpinWait();
+        } else if (tries < SPIN_TRIES + YIELD_TRIES) {
+            Thread.yield();
+        } else {
+            int shift = Math.min(10, tries - SPIN_TRIES - YIELD_TRIES);
+            LockSupport.parkNanos(Math.min(MAX_PARK_NANOS, 1000L << shift));
+        }
+        return tries + 1;
+    }
+
+    // Eventos aplazados de un hilo. Los objetos se reutilizan entre operaciones.
+    private static final class Deferred {
+        private int depth;
+        private int size;
+        private long[] sequences = new long[4];
+        private final List<ReservationEvent> events = new ArrayList<>();
+
+        ReservationEvent add(long sequence) {
+            if (size == sequences.length) {
+                sequences = Arrays.copyOf(sequences, size * 2);
+            }
+            if (size == events.size()) {
+                events.add(new ReservationEvent());
+            }
+            sequences[size] = sequence;
+            return events.get(size++);
+        }
+
+        // Sin referencias a reservas y habitaciones que ya no hacen falta
+        void clear() {
+            for (int i = 0; i < size; i++) {
+                events.get(i).clear();
+            }
+            size = 0;
+        }
+    }
+
+    // Consumidor con su propio hilo y su propia secuencia
+    public final class Subscription implements Closeable {
+        private final String name;
+        private final Handler handler;
+        private final AtomicLong sequence;
+        private final Thread thread;
+        private final LongAdder failures;
+        private volatile boolean running = true;
+
+        private Subscription(String name, Handler handler, long startSequence) {
+            this.name = name;
+            this.handler = handler;
+            this.sequence = new AtomicLong(startSequence);
+            this.failures = metrics.counter("EventBus." + name + ".failures");
+            this.thread = new Thread(this::consumeLoop, "events-" + name);
+            this.thread.setDaemon(true);
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        // Secuencia del último evento procesado
+        public long getSequence() {
+            return sequence.get();
+        }
+
+        // Eventos publicados que este consumidor aún no ha procesado
+        public long getLag() {
+            return Math.max(0, claimed.get() - sequence.get());
+        }
+
+        // Procesa lo ya publicado y se detiene; deja de frenar a los productores
+        @Override
+        public void close() {
+            running = false;
+            if (Thread.currentThread() != thread) {
+                try {
+                    thread.join();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            subscriptions.remove(this);
+        }
+
+        private void consumeLoop() {
+            int tries = 0;
+            while (true) {
+                long next = sequence.get() + 1;
+                long available = highestPublished(next, claimed.get());
+                if (available < next) {
+                    if (!running) {
+                        return;
+                    }
+                    tries = idle(tries);
+                    continue;
+                }
+                tries = 0;
+                for (long current = next; current <= available; current++) {
+                    try {
+                        handler.onEvent(entries[(int) current & mask], current, current == available);
+                    } catch (RuntimeException e) {
+                        // Un evento que falla no debe detener al consumidor ni, con él, a los productores
+                        failures.increment();
+                    }
+                }
+                sequence.set(available);
+            }
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package events;
+
+import model.EntityId;
+import model.Reservation;
+import model.Room;
+
+import java.time.LocalDate;
+
+// Evento publicado en el EventBus. Las instancias son las casillas del búfer circular y se
+// reutilizan: un consumidor no debe guardar la referencia después de onEvent, sino copiar lo
+// que necesite.
+public final class ReservationEvent {
+    public enum Type {
+        RESERVATION_CREATED,
+        RESERVATION_CANCELLED,
+        CHECKED_IN,
+        CHECKED_OUT,
+        ROOM_STATUS_CHANGED
+    }
+
+    private Type type;
+    private long timestamp;
+    private int roomNumber;
+    // Solo en los eventos de reserva
+    private EntityId reservationId;
+    private EntityId clientId;
+    private LocalDate checkInDate;
+    private LocalDate checkOutDate;
+    private long totalPriceCents;
+    // Solo en ROOM_STATUS_CHANGED
+    private Room.RoomStatus previousStatus;
+    private Room.RoomStatus status;
+    private long statusVersion;
+
+    ReservationEvent() {
+    }
+
+    void setReservation(Type type, Reservation reservation) {
+        this.type = type;
+        this.timestamp = System.currentTimeMillis();
+        this.roomNumber = reservation.getRoom().getRoomNumber();
+        this.reservationId = reservation.getId();
+        this.clientId = reservation.getClient().getId();
+        this.checkInDate = reservation.getCheckInDate();
+        this.checkOutDate = reservation.getCheckOutDate();
+        this.totalPriceCents = reservation.getTotalPriceCents();
+        this.previousStatus = null;
+        this.status = null;
+        this.statusVersion = 0;
+    }
+
+    void setStatusChange(Room room, Room.RoomStatus previous, Room.RoomStatus current, long version) {
+        this.type = Type.ROOM_STATUS_CHANGED;
+        this.timestamp = System.currentTimeMillis();
+        this.roomNumber = room.getRoomNumber();
+        this.reservationId = null;
+        this.clientId = null;
+        this.checkInDate = null;
+        this.checkOutDate = null;
+        this.totalPriceCents = 0;
+        this.previousStatus = previous;
+        this.status = current;
+        this.statusVersion = version;
+    }
+
+    void copyFrom(ReservationEvent other) {
+        this.type = other.type;
+        this.timestamp = other.timestamp;
+        this.roomNumber = other.roomNumber;
+        this.reservationId = other.reservationId;
+        this.clientId = other.clientId;
+        this.checkInDate = other.checkInDate;
+        this.checkOutDate = other.checkOutDate;
+        this.totalPriceCents = other.totalPriceCents;
+        this.previousStatus = other.previousStatus;
+        this.status = other.status;
+        this.statusVersion = other.statusVersion;
+    }
+
+    void clear() {
+        this.type = null;
+        this.reservationId = null;
+        this.clientId = null;
+        this.checkInDate = null;
+        this.checkOutDate = null;
+        this.previousStatus = null;
+        this.status = null;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    // Momento de la publicación, en milisegundos desde epoch
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    public int getRoomNumber() {
+        return roomNumber;
+    }
+
+    public EntityId getReservationId() {
+        return reservationId;
+    }
+
+    public EntityId getClientId() {
+        return clientId;
+    }
+
+    public LocalDate getCheckInDate() {
+        return checkInDate;
+    }
+
+    public LocalDate getCheckOutDate() {
+        return checkOutDate;
+    }
+
+    public long getTotalPriceCents() {
+        return totalPriceCents;
+    }
+
+    public Room.RoomStatus getPreviousStatus() {
+        return previousStatus;
+    }
+
+    public Room.RoomStatus getStatus() {
+        return status;
+    }
+
+    // Versión del estado de la habitación tras el cambio; dos cambios de la misma habitación
+    // publicados por hilos distintos pueden llegar desordenados, la versión da el orden real
+    public long getStatusVersion() {
+        return statusVersion;
+    }
+
+    @Override
+    public String toString() {
+        if (type == Type.ROOM_STATUS_CHANGED) {
+            return type + " habitación " + roomNumber + ": " + previousStatus + " -> " + status + " (versión "
+                    + statusVersion + ")";
+        }
+        return type + " reserva " + reservationId + " (cliente " + clientId + ", habitación " + roomNumber + ", "
+                + checkInDate + " - " + checkOutDate + ")";
+    }
+}
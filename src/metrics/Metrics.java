@@ -0,0 +1,96 @@
+package metrics;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Collections;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+// Registro de métricas de los controladores: una OperationMetrics por operación y contadores con
+// nombre para sucesos concretos (p. ej. rechazos por solapamiento). Las operaciones y contadores
+// se crean una vez y los controladores guardan la referencia, así que medir una llamada no
+// consulta el mapa; solo hace incrementos sobre contadores sin bloqueo.
+public final class Metrics {
+    private final Map<String, OperationMetrics> operations = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> counters = new ConcurrentHashMap<>();
+
+    public OperationMetrics operation(String name) {
+        return operations.computeIfAbsent(name, OperationMetrics::new);
+    }
+
+    public LongAdder counter(String name) {
+        return counters.computeIfAbsent(name, key -> new LongAdder());
+    }
+
+    // Operaciones registradas, ordenadas por nombre
+    public Map<String, OperationMetrics> getOperations() {
+        return Collections.unmodifiableMap(new TreeMap<>(operations));
+    }
+
+    public Map<String, Long> getCounters() {
+        Map<String, Long> result = new TreeMap<>();
+        counters.forEach((name, counter) -> result.put(name, counter.sum()));
+        return result;
+    }
+
+    public long getCounter(String name) {
+        LongAdder counter = counters.get(name);
+        return counter == null ? 0 : counter.sum();
+    }
+
+    public void reset() {
+        operations.values().forEach(OperationMetrics::reset);
+        counters.values().forEach(LongAdder::reset);
+    }
+
+    public String generateReport() {
+        StringBuilder report = new StringBuilder();
+        try {
+            writeReport(report);
+        } catch (IOException e) {
+            // StringBuilder nunca lanza IOException
+            throw new UncheckedIOException(e);
+        }
+        return report.toString();
+    }
+
+    // Tabla de operaciones llamadas al menos una vez, contadores y motivos de error
+    public void writeReport(Appendable out) throws IOException {
+        out.append(String.format(Locale.ROOT, "%-56s %10s %8s %10s %10s %10s %10s %10s%n", "operación", "llamadas",
+                "errores", "media µs", "p50 µs", "p99 µs", "p999 µs", "máx µs"));
+        Map<String, OperationMetrics> sorted = getOperations();
+        for (OperationMetrics operation : sorted.values()) {
+            LatencyHistogram latency = operation.getLatency();
+            if (latency.getCount() == 0) {
+                continue;
+            }
+            out.append(String.format(Locale.ROOT, "%-56s %10d %8d %10.1f %10.1f %10.1f %10.1f %10.1f%n",
+                    operation.getName(), latency.getCount(), operation.getErrorCount(), latency.getMean() / 1e3,
+                    latency.getPercentile(0.50) / 1e3, latency.getPercentile(0.99) / 1e3,
+                    latency.getPercentile(0.999) / 1e3, latency.getMax() / 1e3));
+        }
+
+        Map<String, Long> counterValues = getCounters();
+        if (!counterValues.isEmpty()) {
+            out.append("\nContadores:\n");
+            for (Map.Entry<String, Long> counter : counterValues.entrySet()) {
+                out.append(String.format(Locale.ROOT, "  %-54s %10d%n", counter.getKey(), counter.getValue()));
+            }
+        }
+
+        boolean headerWritten = false;
+        for (OperationMetrics operation : sorted.values()) {
+            for (Map.Entry<String, Long> reason : operation.getFailureReasons().entrySet()) {
+                if (!headerWritten) {
+                    out.append("\nMotivos de error:\n");
+                    headerWritten = true;
+                }
+                out.append(String.format(Locale.ROOT, "  %-54s %10d  %s%n", operation.getName(), reason.getValue(),
+                        reason.getKey()));
+            }
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package metrics;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+// Llamadas, errores y latencia de una operación, más el motivo de cada error (el mensaje de la
+// excepción). Los motivos distintos se limitan para que mensajes con datos variables no crezcan
+// sin control; los que no caben se cuentan como "(otros)".
+public final class OperationMetrics {
+    private static final int MAX_REASONS = 64;
+    private static final String OTHER_REASONS = "(otros)";
+
+    private final String name;
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private final LongAdder errors = new LongAdder();
+    private final Map<String, LongAdder> reasons = new ConcurrentHashMap<>();
+
+    OperationMetrics(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    // Registra una llamada terminada con éxito que empezó en startNanos (System.nanoTime())
+    public void record(long startNanos) {
+        latency.record(System.nanoTime() - startNanos);
+    }
+
+    // Registra una llamada que terminó lanzando error
+    public void recordFailure(long startNanos, Throwable error) {
+        latency.record(System.nanoTime() - startNanos);
+        errors.increment();
+
+        String reason = error.getMessage() != null ? error.getMessage() : error.getClass().getSimpleName();
+        LongAdder counter = reasons.get(reason);
+        if (counter == null) {
+            counter = reasons.size() < MAX_REASONS
+                    ? reasons.computeIfAbsent(reason, key -> new LongAdder())
+                    : reasons.computeIfAbsent(OTHER_REASONS, key -> new LongAdder());
+        }
+        counter.increment();
+    }
+
+    public long getCount() {
+        return latency.getCount();
+    }
+
+    public long getErrorCount() {
+        return errors.sum();
+    }
+
+    public LatencyHistogram getLatency() {
+        return latency;
+    }
+
+    // Errores por motivo, ordenados alfabéticamente
+    public Map<String, Long> getFailureReasons() {
+        Map<String, Long> result = new TreeMap<>();
+        reasons.forEach((reason, counter) -> result.put(reason, counter.sum()));
+        return result;
+    }
+
+    public void reset() {
+        latency.reset();
+        errors.reset();
+        reasons.clear();
+    }
+}
@@ -0,0 +1,79 @@
+package model;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+// Fecha de negocio del hotel sobre un Clock intercambiable (el del sistema o uno simulado).
+// La fecha de hoy se calcula una vez por día y se guarda: today() solo compara los milisegundos
+// del reloj con el inicio del día siguiente, sin crear objetos ni consultar la zona horaria.
+//
+// El cambio de día no se notifica al consultar la fecha; lo hace rollover(), que llama el
+// planificador (DayRolloverScheduler) o la simulación, para que los oyentes no se ejecuten
+// dentro de los bloqueos de quien estuviera leyendo la fecha.
+public final class BusinessClock {
+    private final Clock clock;
+    private final List<Consumer<LocalDate>> rolloverListeners;
+    private volatile LocalDate today;
+    private volatile long nextDayMillis;
+    private LocalDate lastRollover;
+
+    public BusinessClock(Clock clock) {
+        this.clock = clock;
+        this.rolloverListeners = new CopyOnWriteArrayList<>();
+        this.nextDayMillis = Long.MIN_VALUE;
+        this.lastRollover = today();
+    }
+
+    public static BusinessClock system() {
+        return new BusinessClock(Clock.systemDefaultZone());
+    }
+
+    public Clock getClock() {
+        return clock;
+    }
+
+    public LocalDate today() {
+        if (clock.millis() >= nextDayMillis) {
+            return refresh();
+        }
+        return today;
+    }
+
+    private synchronized LocalDate refresh() {
+        if (clock.millis() >= nextDayMillis) {
+            LocalDate date = LocalDate.now(clock);
+            today = date;
+            nextDayMillis = date.plusDays(1).atStartOfDay(clock.getZone()).toInstant().toEpochMilli();
+        }
+        return today;
+    }
+
+    // Milisegundos que faltan para el cambio de día según el reloj
+    public long millisUntilNextDay() {
+        today();
+        return Math.max(0, nextDayMillis - clock.millis());
+    }
+
+    public void addRolloverListener(Consumer<LocalDate> listener) {
+        rolloverListeners.add(listener);
+    }
+
+    // Avisa a los oyentes si la fecha ha cambiado desde el último aviso; devuelve si lo ha hecho
+    public boolean rollover() {
+        LocalDate date;
+        synchronized (this) {
+            date = today();
+            if (date.equals(lastRollover)) {
+                return false;
+            }
+            lastRollover = date;
+        }
+        for (Consumer<LocalDate> listener : rolloverListeners) {
+            listener.accept(date);
+        }
+        return true;
+    }
+}
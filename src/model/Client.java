@@ -1,23 +1,47 @@
 package model;
 
+import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
 import java.util.List;
-import java.util.UUID;
-import java.util.stream.Collectors;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.TreeSet;
 
 public class Client {
-    private final String id;
+    public static final int MAX_ACTIVE_RESERVATIONS = 3;
+    // Límite del nombre completo, muy por debajo del tamaño máximo de un evento del diario
+    public static final int MAX_NAME_LENGTH = 200;
+
+    private static final Comparator<Reservation> BY_CHECK_OUT = Comparator
+            .comparing(Reservation::getCheckOutDate)
+            .thenComparing(Reservation::getId);
+
+    private final EntityId id;
     private final String fullName;
-    private final List<Reservation> reservations;
+    private final BusinessClock clock;
+    // Reservas no canceladas que aún no han terminado, ordenadas por fecha de salida, e historial
+    // (canceladas o ya terminadas). Las que terminan pasan de una a otra en cada cambio de día
+    // (expireReservations) y, si aún no ha llegado el aviso, al consultarlas.
+    private final NavigableSet<Reservation> upcoming;
+    private final List<Reservation> history;
+
+    public Client(String fullName, BusinessClock clock) {
+        this(EntityId.next(), fullName, clock);
+    }
 
-    public Client(String fullName) {
-        this.id = UUID.randomUUID().toString();
+    // Para reconstruir clientes ya existentes (p. ej. al reproducir el diario)
+    public Client(EntityId id, String fullName, BusinessClock clock) {
+        this.id = id;
         this.fullName = fullName;
-        this.reservations = new ArrayList<>();
+        this.clock = clock;
+        this.upcoming = new TreeSet<>(BY_CHECK_OUT);
+        this.history = new ArrayList<>();
     }
 
     // Getters y setters
-    public String getId() {
+    public EntityId getId() {
         return id;
     }
 
@@ -26,26 +50,79 @@ public class Client {
     }
 
 
-    public void addReservation(Reservation reservation) {
-        reservations.add(reservation);
+    // Las reservas del cliente se protegen con el monitor del propio cliente
+    public synchronized void addReservation(Reservation reservation) {
+        if (reservation.isCancelled() || reservation.getCheckOutDate().isBefore(clock.today())) {
+            history.add(reservation);
+        } else {
+            upcoming.add(reservation);
+        }
     }
 
+    // Llamado al cancelar una reserva del cliente
+    public synchronized void onReservationCancelled(Reservation reservation) {
+        if (upcoming.remove(reservation)) {
+            history.add(reservation);
+        }
+    }
 
     // Métodos para obtener reservas activas e historial
-    public List<Reservation> getActiveReservations() {
-        return reservations.stream()
-                .filter(r -> !r.isCancelled() && r.getCheckOutDate().isAfter(java.time.LocalDate.now()))
-                .collect(Collectors.toList());
+    public synchronized List<Reservation> getActiveReservations() {
+        LocalDate today = clock.today();
+        expire(today);
+        List<Reservation> active = new ArrayList<>(upcoming.size());
+        for (Reservation reservation : upcoming) {
+            if (reservation.getCheckOutDate().isAfter(today) && !reservation.isCancelled()) {
+                active.add(reservation);
+            }
+        }
+        return active;
+    }
+
+    public synchronized List<Reservation> getReservationHistory() {
+        expire(clock.today());
+        return new ArrayList<>(history);
+    }
+
+    public synchronized int getActiveReservationCount() {
+        LocalDate today = clock.today();
+        expire(today);
+        // Las que salen hoy siguen en upcoming pero ya no cuentan como activas; están al principio
+        int endingToday = 0;
+        for (Reservation reservation : upcoming) {
+            if (reservation.getCheckOutDate().isAfter(today)) {
+                break;
+            }
+            endingToday++;
+        }
+        return upcoming.size() - endingToday;
+    }
+
+    public synchronized boolean canMakeReservation() {
+        return getActiveReservationCount() < MAX_ACTIVE_RESERVATIONS;
+    }
+
+    // Quita del historial las reservas que ya se han pasado al archivo en disco
+    public synchronized void removeArchived(Set<Reservation> archived) {
+        expire(clock.today());
+        history.removeIf(archived::contains);
     }
 
-    public List<Reservation> getReservationHistory() {
-        return reservations.stream()
-                .filter(r -> r.isCancelled() || r.getCheckOutDate().isBefore(java.time.LocalDate.now()))
-                .collect(Collectors.toList());
+    // Cambio de día: pasa al historial las reservas que terminaron antes de today
+    public synchronized void expireReservations(LocalDate today) {
+        expire(today);
     }
 
-    public boolean canMakeReservation() {
-        return getActiveReservations().size() < 3;
+    private void expire(LocalDate today) {
+        Iterator<Reservation> iterator = upcoming.iterator();
+        while (iterator.hasNext()) {
+            Reservation reservation = iterator.next();
+            if (!reservation.getCheckOutDate().isBefore(today)) {
+                break;
+            }
+            iterator.remove();
+            history.add(reservation);
+        }
     }
 
     @Override
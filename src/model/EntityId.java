@@ -0,0 +1,104 @@
+package model;
+
+import java.security.SecureRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Identificador de 128 bits de clientes y reservas, guardado como dos long. Los nuevos se generan
+// con un prefijo aleatorio por proceso y un contador, sin pasar por SecureRandom en cada alta.
+// La forma textual es la de un UUID (8-4-4-4-12 dígitos hexadecimales), así que los IDs antiguos
+// del diario y de las instantáneas siguen siendo válidos; solo se genera al mostrarlo.
+public final class EntityId implements Comparable<EntityId> {
+    private static final long PROCESS_PREFIX = new SecureRandom().nextLong();
+    private static final AtomicLong SEQUENCE = new AtomicLong();
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private final long high;
+    private final long low;
+
+    public EntityId(long high, long low) {
+        this.high = high;
+        this.low = low;
+    }
+
+    public static EntityId next() {
+        return new EntityId(PROCESS_PREFIX, SEQUENCE.incrementAndGet());
+    }
+
+    // Lee la forma textual; lanza IllegalArgumentException si no es un identificador válido
+    public static EntityId parse(String text) {
+        if (text == null || text.length() != 36 || text.charAt(8) != '-' || text.charAt(13) != '-'
+                || text.charAt(18) != '-' || text.charAt(23) != '-') {
+            throw new IllegalArgumentException("Identificador no válido: " + text);
+        }
+        long high = (parseHex(text, 0, 8) << 32) | (parseHex(text, 9, 13) << 16) | parseHex(text, 14, 18);
+        long low = (parseHex(text, 19, 23) << 48) | parseHex(text, 24, 36);
+        return new EntityId(high, low);
+    }
+
+    private static long parseHex(String text, int from, int to) {
+        long value = 0;
+        for (int i = from; i < to; i++) {
+            int digit = Character.digit(text.charAt(i), 16);
+            if (digit < 0) {
+                throw new IllegalArgumentException("Identificador no válido: " + text);
+            }
+            value = (value << 4) | digit;
+        }
+        return value;
+    }
+
+    public long getHigh() {
+        return high;
+    }
+
+    public long getLow() {
+        return low;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (!(other instanceof EntityId)) {
+            return false;
+        }
+        EntityId id = (EntityId) other;
+        return high == id.high && low == id.low;
+    }
+
+    @Override
+    public int hashCode() {
+        // Los IDs de un mismo proceso solo difieren en el contador; se mezcla para repartirlos
+        long mixed = (high ^ low) * 0x9E3779B97F4A7C15L;
+        return (int) (mixed ^ (mixed >>> 32));
+    }
+
+    @Override
+    public int compareTo(EntityId other) {
+        int result = Long.compare(high, other.high);
+        return result != 0 ? result : Long.compare(low, other.low);
+    }
+
+    @Override
+    public String toString() {
+        char[] text = new char[36];
+        writeHex(text, 0, high >>> 32, 8);
+        text[8] = '-';
+        writeHex(text, 9, high >>> 16, 4);
+        text[13] = '-';
+        writeHex(text, 14, high, 4);
+        text[18] = '-';
+        writeHex(text, 19, low >>> 48, 4);
+        text[23] = '-';
+        writeHex(text, 24, low, 12);
+        return new String(text);
+    }
+
+    private static void writeHex(char[] text, int offset, long value, int digits) {
+        for (int i = digits - 1; i >= 0; i--) {
+            text[offset + i] = HEX[(int) (value & 0xF)];
+            value >>>= 4;
+        }
+    }
+}
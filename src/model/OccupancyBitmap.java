@@ -0,0 +1,105 @@
+package model;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+
+// Mapa de bits con granularidad de un día: cada bit marca un día ocupado de la habitación.
+// Los días se guardan relativos a baseDay (alineado a 64) en palabras de 64 bits, de modo
+// que comprobar una estancia de hasta 90 días cuesta como mucho un par de operaciones AND.
+public class OccupancyBitmap {
+    // Tramo máximo del mapa, de la primera a la última noche que ha marcado. Las reservas ya no
+    // pueden ir más allá de RateTable.MAX_DAYS, pero el mapa no debe fiarse de quien lo llama.
+    public static final int MAX_SPAN_DAYS = 100 * 366;
+
+    private static final int WORD_BITS = 64;
+    private static final int MAX_WORDS = MAX_SPAN_DAYS / WORD_BITS + 2;
+
+    private long baseDay;
+    private long[] words;
+
+    public OccupancyBitmap() {
+        this.baseDay = 0;
+        this.words = new long[0];
+    }
+
+    // Marca como ocupados los días [from, to], ambos incluidos. Si el mapa tendría que crecer más
+    // de MAX_SPAN_DAYS lanza IllegalArgumentException sin haber marcado nada.
+    public void occupy(LocalDate from, LocalDate to) {
+        long first = from.toEpochDay();
+        long last = to.toEpochDay();
+        ensureCapacity(first, last);
+        apply(first, last, true);
+    }
+
+    // Libera los días [from, to], ambos incluidos
+    public void release(LocalDate from, LocalDate to) {
+        long first = Math.max(from.toEpochDay(), baseDay);
+        long last = Math.min(to.toEpochDay(), baseDay + (long) words.length * WORD_BITS - 1);
+        if (first <= last) {
+            apply(first, last, false);
+        }
+    }
+
+    // Indica si ningún día de [from, to] (ambos incluidos) está ocupado
+    public boolean isFree(LocalDate from, LocalDate to) {
+        long first = Math.max(from.toEpochDay(), baseDay);
+        long last = Math.min(to.toEpochDay(), baseDay + (long) words.length * WORD_BITS - 1);
+        if (first > last) {
+            return true;
+        }
+
+        int firstWord = (int) ((first - baseDay) / WORD_BITS);
+        int lastWord = (int) ((last - baseDay) / WORD_BITS);
+        for (int i = firstWord; i <= lastWord; i++) {
+            if ((words[i] & mask(i, first, last)) != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void apply(long first, long last, boolean occupied) {
+        int firstWord = (int) ((first - baseDay) / WORD_BITS);
+        int lastWord = (int) ((last - baseDay) / WORD_BITS);
+        for (int i = firstWord; i <= lastWord; i++) {
+            long mask = mask(i, first, last);
+            if (occupied) {
+                words[i] |= mask;
+            } else {
+                words[i] &= ~mask;
+            }
+        }
+    }
+
+    // Máscara de los bits de la palabra i que caen dentro de [first, last]
+    private long mask(int wordIndex, long first, long last) {
+        long wordStart = baseDay + (long) wordIndex * WORD_BITS;
+        int from = (int) Math.max(0, first - wordStart);
+        int to = (int) Math.min(WORD_BITS - 1, last - wordStart);
+        long upper = to == WORD_BITS - 1 ? -1L : (1L << (to + 1)) - 1;
+        return upper & (-1L << from);
+    }
+
+    // Los tamaños se calculan en long y se comprueban antes de reservar memoria
+    private void ensureCapacity(long first, long last) {
+        long alignedFirst = Math.floorDiv(first, WORD_BITS) * WORD_BITS;
+        long newBase = words.length == 0 ? alignedFirst : Math.min(baseDay, alignedFirst);
+        long shift = words.length == 0 ? 0 : (baseDay - newBase) / WORD_BITS;
+        long required = Math.max(shift + words.length, (last - newBase) / WORD_BITS + 1);
+        if (required > MAX_WORDS) {
+            throw new IllegalArgumentException("Las reservas de una habitación no pueden abarcar más de "
+                    + MAX_SPAN_DAYS + " días");
+        }
+
+        if (shift > 0) {
+            long[] grown = new long[(int) (words.length + shift)];
+            System.arraycopy(words, 0, grown, (int) shift, words.length);
+            words = grown;
+        }
+        baseDay = newBase;
+
+        if (required > words.length) {
+            words = Arrays.copyOf(words, (int) Math.min(MAX_WORDS, Math.max(required, words.length * 2L)));
+        }
+    }
+}
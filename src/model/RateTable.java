@@ -0,0 +1,272 @@
+package model;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+
+// Tarifas por noche de cada tipo de habitación y, opcionalmente, de habitaciones concretas.
+//
+// Cada tarifa es un tramo de días (en días desde epoch) con las sumas acumuladas de los precios
+// en céntimos, de modo que el precio de cualquier estancia es una resta: O(1) y sin reservar
+// memoria. Fuera del tramo se aplica el precio base del tipo (Room.RoomType.getPricePerNight) o,
+// en una habitación con tarifa propia, la de su tipo.
+//
+// Las tarifas vigentes forman una instantánea inmutable publicada en un campo volatile. Los
+// cambios (de uno en uno o en bloque con update) construyen una instantánea nueva bajo el
+// monitor de la tabla y la publican de una vez, así que quien cotiza nunca se bloquea ni ve un
+// cambio en bloque a medias.
+public class RateTable {
+    // Tramo máximo de una tarifa, para que un error en las fechas no reserve arrays enormes. Es
+    // también el horizonte de las reservas (ReserveController no acepta salidas más lejanas).
+    public static final int MAX_DAYS = 20 * 366;
+    private static final long NOT_SET = -1;
+
+    private volatile Rates rates;
+
+    public RateTable() {
+        Room.RoomType[] types = Room.RoomType.values();
+        Schedule[] byType = new Schedule[types.length];
+        for (Room.RoomType type : types) {
+            byType[type.ordinal()] = Schedule.flat(type.getPricePerNight() * 100L);
+        }
+        this.rates = new Rates(byType, new int[0], new Room.RoomType[0], new Schedule[0]);
+    }
+
+    // Cambio de tarifa: precio por noche para las noches entre from (incluida) y to (excluida)
+    // de un tipo (room == null) o de una habitación
+    public static final class Change {
+        private final Room.RoomType type;
+        private final Room room;
+        private final long fromDay;
+        private final long toDay;
+        private final long priceCents;
+
+        private Change(Room.RoomType type, Room room, LocalDate from, LocalDate to, long priceCents) {
+            if (from == null || to == null) {
+                throw new IllegalArgumentException("Las fechas no pueden ser nulas");
+            }
+            if (!to.isAfter(from)) {
+                throw new IllegalArgumentException("La fecha final debe ser posterior a la inicial");
+            }
+            if (priceCents < 0) {
+                throw new IllegalArgumentException("El precio no puede ser negativo");
+            }
+            this.type = type;
+            this.room = room;
+            this.fromDay = from.toEpochDay();
+            this.toDay = to.toEpochDay();
+            this.priceCents = priceCents;
+        }
+
+        public static Change forType(Room.RoomType type, LocalDate from, LocalDate to, long priceCents) {
+            if (type == null) {
+                throw new IllegalArgumentException("El tipo de habitación no puede ser nulo");
+            }
+            return new Change(type, null, from, to, priceCents);
+        }
+
+        public static Change forRoom(Room room, LocalDate from, LocalDate to, long priceCents) {
+            if (room == null) {
+                throw new IllegalArgumentException("La habitación no puede ser nula");
+            }
+            return new Change(room.getType(), room, from, to, priceCents);
+        }
+    }
+
+    // Precio en céntimos de las noches entre checkInDay (incluida) y checkOutDay (excluida)
+    public long quote(Room room, long checkInDay, long checkOutDay) {
+        if (checkOutDay <= checkInDay) {
+            return 0;
+        }
+        return rates.scheduleOf(room).sum(checkInDay, checkOutDay);
+    }
+
+    public long quote(Room room, LocalDate checkInDate, LocalDate checkOutDate) {
+        return quote(room, checkInDate.toEpochDay(), checkOutDate.toEpochDay());
+    }
+
+    // Precio en céntimos de una noche concreta
+    public long getNightlyRate(Room room, LocalDate night) {
+        return getNightlyRate(room, night.toEpochDay());
+    }
+
+    public long getNightlyRate(Room room, long day) {
+        return rates.scheduleOf(room).sum(day, day + 1);
+    }
+
+    public void setRate(Room.RoomType type, LocalDate from, LocalDate to, long priceCents) {
+        update(List.of(Change.forType(type, from, to, priceCents)));
+    }
+
+    public void setRate(Room room, LocalDate from, LocalDate to, long priceCents) {
+        update(List.of(Change.forRoom(room, from, to, priceCents)));
+    }
+
+    // Aplica todos los cambios en orden y los publica a la vez
+    public synchronized void update(List<Change> changes) {
+        Rates current = rates;
+        Schedule[] byType = current.byType.clone();
+        int[] roomNumbers = current.roomNumbers;
+        Room.RoomType[] roomTypes = current.roomTypes;
+        Schedule[] byRoom = current.byRoom.clone();
+
+        for (Change change : changes) {
+            if (change.room == null) {
+                int type = change.type.ordinal();
+                byType[type] = byType[type].with(change.fromDay, change.toDay, change.priceCents, null);
+                continue;
+            }
+            int index = Arrays.binarySearch(roomNumbers, change.room.getRoomNumber());
+            if (index < 0) {
+                // Habitación sin tarifa propia hasta ahora: se inserta manteniendo el orden
+                index = -index - 1;
+                roomNumbers = insert(roomNumbers, index, change.room.getRoomNumber());
+                roomTypes = insert(roomTypes, index, change.room.getType());
+                byRoom = insert(byRoom, index, Schedule.EMPTY);
+            }
+            byRoom[index] = byRoom[index].with(change.fromDay, change.toDay, change.priceCents,
+                    byType[change.type.ordinal()]);
+        }
+
+        // Las tarifas propias se apoyan en la de su tipo, que puede haber cambiado
+        for (int i = 0; i < byRoom.length; i++) {
+            byRoom[i] = byRoom[i].rebase(byType[roomTypes[i].ordinal()]);
+        }
+        rates = new Rates(byType, roomNumbers, roomTypes, byRoom);
+    }
+
+    private static int[] insert(int[] values, int index, int value) {
+        int[] result = new int[values.length + 1];
+        System.arraycopy(values, 0, result, 0, index);
+        result[index] = value;
+        System.arraycopy(values, index, result, index + 1, values.length - index);
+        return result;
+    }
+
+    private static <T> T[] insert(T[] values, int index, T value) {
+        T[] result = Arrays.copyOf(values, values.length + 1);
+        System.arraycopy(values, index, result, index + 1, values.length - index);
+        result[index] = value;
+        return result;
+    }
+
+    // Instantánea inmutable de todas las tarifas
+    private static final class Rates {
+        final Schedule[] byType;
+        final int[] roomNumbers;
+        final Room.RoomType[] roomTypes;
+        final Schedule[] byRoom;
+
+        Rates(Schedule[] byType, int[] roomNumbers, Room.RoomType[] roomTypes, Schedule[] byRoom) {
+            this.byType = byType;
+            this.roomNumbers = roomNumbers;
+            this.roomTypes = roomTypes;
+            this.byRoom = byRoom;
+        }
+
+        Schedule scheduleOf(Room room) {
+            if (roomNumbers.length > 0) {
+                int index = Arrays.binarySearch(roomNumbers, room.getRoomNumber());
+                if (index >= 0) {
+                    return byRoom[index];
+                }
+            }
+            return byType[room.getType().ordinal()];
+        }
+    }
+
+    // Tramo de tarifas [startDay, startDay + n) con prefix[i] = suma de las i primeras noches.
+    // Fuera del tramo se usa fallback (la tarifa del tipo) o, si no hay, basePrice.
+    // En una tarifa propia de habitación, overrides guarda los precios fijados a mano (NOT_SET
+    // en las noches que siguen la tarifa del tipo) para poder recalcularla si esta cambia.
+    private static final class Schedule {
+        static final Schedule EMPTY = new Schedule(0, new long[1], 0, null, new long[0]);
+
+        final long startDay;
+        final long[] prefix;
+        final long basePrice;
+        final Schedule fallback;
+        final long[] overrides;
+
+        Schedule(long startDay, long[] prefix, long basePrice, Schedule fallback, long[] overrides) {
+            this.startDay = startDay;
+            this.prefix = prefix;
+            this.basePrice = basePrice;
+            this.fallback = fallback;
+            this.overrides = overrides;
+        }
+
+        static Schedule flat(long basePrice) {
+            return new Schedule(0, new long[1], basePrice, null, null);
+        }
+
+        long endDay() {
+            return startDay + prefix.length - 1;
+        }
+
+        long sum(long from, long to) {
+            long end = endDay();
+            long first = Math.min(Math.max(from, startDay), end);
+            long last = Math.min(Math.max(to, startDay), end);
+            long inside = prefix[(int) (last - startDay)] - prefix[(int) (first - startDay)];
+            return inside + outside(from, Math.min(to, startDay)) + outside(Math.max(from, end), to);
+        }
+
+        private long outside(long from, long to) {
+            if (from >= to) {
+                return 0;
+            }
+            return fallback == null ? (to - from) * basePrice : fallback.sum(from, to);
+        }
+
+        // Copia con las noches [from, to) a priceCents; el tramo crece si hace falta
+        Schedule with(long from, long to, long priceCents, Schedule typeSchedule) {
+            boolean empty = prefix.length == 1;
+            long newStart = empty ? from : Math.min(startDay, from);
+            long newEnd = empty ? to : Math.max(endDay(), to);
+            if (newEnd - newStart > MAX_DAYS) {
+                throw new IllegalArgumentException("Las tarifas no pueden abarcar más de " + MAX_DAYS + " días");
+            }
+            int days = (int) (newEnd - newStart);
+
+            if (typeSchedule == null) {
+                long[] nightly = new long[days];
+                for (int i = 0; i < days; i++) {
+                    long day = newStart + i;
+                    nightly[i] = day >= from && day < to ? priceCents : sum(day, day + 1);
+                }
+                return new Schedule(newStart, prefixOf(nightly), basePrice, null, null);
+            }
+
+            long[] newOverrides = new long[days];
+            Arrays.fill(newOverrides, NOT_SET);
+            if (overrides != null && !empty) {
+                System.arraycopy(overrides, 0, newOverrides, (int) (startDay - newStart), overrides.length);
+            }
+            Arrays.fill(newOverrides, (int) (from - newStart), (int) (to - newStart), priceCents);
+            return materialize(newStart, newOverrides, typeSchedule);
+        }
+
+        // La misma tarifa propia sobre una tarifa de tipo nueva
+        Schedule rebase(Schedule typeSchedule) {
+            return fallback == typeSchedule ? this : materialize(startDay, overrides, typeSchedule);
+        }
+
+        private static Schedule materialize(long startDay, long[] overrides, Schedule typeSchedule) {
+            long[] nightly = new long[overrides.length];
+            for (int i = 0; i < nightly.length; i++) {
+                long day = startDay + i;
+                nightly[i] = overrides[i] != NOT_SET ? overrides[i] : typeSchedule.sum(day, day + 1);
+            }
+            return new Schedule(startDay, prefixOf(nightly), 0, typeSchedule, overrides);
+        }
+
+        private static long[] prefixOf(long[] nightly) {
+            long[] result = new long[nightly.length + 1];
+            for (int i = 0; i < nightly.length; i++) {
+                result[i + 1] = result[i] + nightly[i];
+            }
+            return result;
+        }
+    }
+}
@@ -2,29 +2,42 @@ package model;
 
 import java.time.LocalDate;
 import java.time.temporal.ChronoUnit;
-import java.util.UUID;
 
 public class Reservation {
-    private final String id;
+    // Estado de la estancia, independiente del de la habitación (que puede tener otras reservas)
+    public enum Status {
+        CONFIRMADA, EN_CURSO, FINALIZADA, CANCELADA
+    }
+
+    private final EntityId id;
     private final Room room;
     private final Client client;
     private final LocalDate checkInDate;
     private final LocalDate checkOutDate;
-    private final double totalPrice;
-    private boolean cancelled;
+    // Precio de la estancia en céntimos, fijado al reservar con las tarifas de ese momento
+    private final long totalPriceCents;
+    // Los cambios se hacen con la habitación bloqueada
+    private volatile Status status;
+
+    public Reservation(Room room, Client client, LocalDate checkInDate, LocalDate checkOutDate,
+                       long totalPriceCents) {
+        this(EntityId.next(), room, client, checkInDate, checkOutDate, totalPriceCents);
+    }
 
-    public Reservation(Room room, Client client, LocalDate checkInDate, LocalDate checkOutDate) {
-        this.id = UUID.randomUUID().toString();
+    // Para reconstruir reservas ya existentes (p. ej. al reproducir el diario)
+    public Reservation(EntityId id, Room room, Client client, LocalDate checkInDate, LocalDate checkOutDate,
+                       long totalPriceCents) {
+        this.id = id;
         this.room = room;
         this.client = client;
         this.checkInDate = checkInDate;
         this.checkOutDate = checkOutDate;
-        this.totalPrice = calculateTotalPrice();
-        this.cancelled = false;
+        this.totalPriceCents = totalPriceCents;
+        this.status = Status.CONFIRMADA;
     }
 
     // Getters
-    public String getId() {
+    public EntityId getId() {
         return id;
     }
 
@@ -32,6 +45,10 @@ public class Reservation {
         return room;
     }
 
+    public Client getClient() {
+        return client;
+    }
+
 
     public LocalDate getCheckInDate() {
         return checkInDate;
@@ -41,31 +58,80 @@ public class Reservation {
         return checkOutDate;
     }
 
+    public double getTotalPrice() {
+        return totalPriceCents / 100.0;
+    }
+
+    public long getTotalPriceCents() {
+        return totalPriceCents;
+    }
+
+
+    public Status getStatus() {
+        return status;
+    }
 
     public boolean isCancelled() {
-        return cancelled;
+        return status == Status.CANCELADA;
     }
 
     // Métodos de negocio
-    public void cancel() {
-        if (LocalDate.now().isBefore(checkInDate)) {
-            cancelled = true;
-            room.setStatus(Room.RoomStatus.DISPONIBLE);
+    public void cancel(LocalDate today) {
+        if (today.isBefore(checkInDate)) {
+            markCancelled();
         } else {
             throw new IllegalStateException("No se puede cancelar una reserva que ya ha comenzado");
         }
     }
 
-    public long getDurationInDays() {
-        return ChronoUnit.DAYS.between(checkInDate, checkOutDate);
+    // Marca como cancelada una reserva reconstruida que aún no está en el índice de la habitación
+    public void restoreCancelled() {
+        status = Status.CANCELADA;
+    }
+
+    // Check-in y check-out: ReserveController comprueba la transición y el estado de la habitación
+    // bajo su bloqueo; al reproducir el diario o cargar una instantánea se aplican sin más
+    public void markCheckedIn() {
+        synchronized (room) {
+            if (status == Status.CONFIRMADA) {
+                status = Status.EN_CURSO;
+            }
+        }
+    }
+
+    public void markCheckedOut() {
+        synchronized (room) {
+            if (status == Status.CONFIRMADA || status == Status.EN_CURSO) {
+                status = Status.FINALIZADA;
+            }
+        }
+    }
+
+    // Aplica la cancelación sin comprobar fechas (cancel() o reconstrucción desde el diario)
+    public void markCancelled() {
+        synchronized (room) {
+            if (status == Status.CANCELADA) {
+                return;
+            }
+            status = Status.CANCELADA;
+            room.removeBooking(this);
+            // La habitación solo queda libre si no tiene otras reservas sin check-in, incluida una
+            // llegada con retraso de días anteriores. El evento del cambio de estado se escribe en
+            // el bus cuando ReserveController suelta los bloqueos.
+            if (!room.hasPendingBookings()) {
+                room.compareAndSetStatus(Room.RoomStatus.RESERVADA, Room.RoomStatus.DISPONIBLE);
+            }
+        }
+        // Fuera del bloqueo de la habitación: el orden de bloqueo es siempre cliente -> habitación
+        client.onReservationCancelled(this);
     }
 
-    private double calculateTotalPrice() {
-        return getDurationInDays() * room.getPricePerNight();
+    public long getDurationInDays() {
+        return ChronoUnit.DAYS.between(checkInDate, checkOutDate);
     }
 
     public boolean overlaps(LocalDate start, LocalDate end) {
-        return !cancelled &&
+        return status != Status.CANCELADA &&
                 ((start.isBefore(checkOutDate) || start.isEqual(checkOutDate)) &&
                         (end.isAfter(checkInDate) || end.isEqual(checkInDate)));
     }
@@ -78,7 +144,7 @@ public class Reservation {
                 "\nCheck-in: " + checkInDate +
                 "\nCheck-out: " + checkOutDate +
                 "\nDuración: " + getDurationInDays() + " días" +
-                "\nPrecio total: " + totalPrice + "€" +
-                (cancelled ? "\nESTADO: CANCELADA" : "");
+                "\nPrecio total: " + getTotalPrice() + "€" +
+                (status != Status.CONFIRMADA ? "\nESTADO: " + status : "");
     }
 }
\ No newline at end of file
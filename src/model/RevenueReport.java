@@ -0,0 +1,351 @@
+package model;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// Ocupación e ingresos de las noches entre from (incluida) y to (excluida): noches vendidas e
+// ingresos por día, por tipo y por planta (de cada propiedad), y a partir de ellos la tasa de
+// ocupación, el precio medio por noche vendida (ADR) y el ingreso por habitación disponible
+// (RevPAR). Las noches disponibles salen del inventario actual; las reservas canceladas no cuentan.
+// El ingreso de cada noche es su tarifa en RateTable, escalada por lo que se cobró de verdad: si
+// las tarifas no han cambiado desde la reserva es exactamente la tarifa del día, y si han cambiado
+// la estancia sigue sumando su precio pero repartido según las tarifas de cada noche.
+public class RevenueReport {
+    private final LocalDate from;
+    private final LocalDate to;
+    private final Inventory inventory;
+    private final long[] nightsByDay;
+    private final double[] revenueByDay;
+    private final long[] nightsByType;
+    private final double[] revenueByType;
+    private final long[] nightsByFloor;
+    private final double[] revenueByFloor;
+
+    private RevenueReport(Accumulator accumulator) {
+        this.from = accumulator.from;
+        this.to = accumulator.to;
+        this.inventory = accumulator.inventory;
+        this.nightsByDay = accumulator.nightsByDay;
+        this.revenueByDay = accumulator.revenueByDay;
+        this.nightsByType = accumulator.nightsByType;
+        this.revenueByType = accumulator.revenueByType;
+        this.nightsByFloor = accumulator.nightsByFloor;
+        this.revenueByFloor = accumulator.revenueByFloor;
+    }
+
+    public LocalDate getFrom() {
+        return from;
+    }
+
+    public LocalDate getTo() {
+        return to;
+    }
+
+    public int getDays() {
+        return nightsByDay.length;
+    }
+
+    // Totales del intervalo
+    public long getRoomNightsAvailable() {
+        return inventory.rooms * (long) getDays();
+    }
+
+    public long getRoomNightsSold() {
+        long total = 0;
+        for (long nights : nightsByType) {
+            total += nights;
+        }
+        return total;
+    }
+
+    public double getRevenue() {
+        double total = 0;
+        for (double revenue : revenueByType) {
+            total += revenue;
+        }
+        return total;
+    }
+
+    public double getOccupancyRate() {
+        return ratio(getRoomNightsSold(), getRoomNightsAvailable());
+    }
+
+    public double getAdr() {
+        return ratio(getRevenue(), getRoomNightsSold());
+    }
+
+    public double getRevPar() {
+        return ratio(getRevenue(), getRoomNightsAvailable());
+    }
+
+    // Por día
+    public long getRoomNightsSold(LocalDate day) {
+        return nightsByDay[dayIndex(day)];
+    }
+
+    public double getRevenue(LocalDate day) {
+        return revenueByDay[dayIndex(day)];
+    }
+
+    public double getOccupancyRate(LocalDate day) {
+        return ratio(getRoomNightsSold(day), inventory.rooms);
+    }
+
+    public double getRevPar(LocalDate day) {
+        return ratio(getRevenue(day), inventory.rooms);
+    }
+
+    // Por tipo de habitación
+    public long getRoomNightsAvailable(Room.RoomType type) {
+        return inventory.roomsByType[type.ordinal()] * (long) getDays();
+    }
+
+    public long getRoomNightsSold(Room.RoomType type) {
+        return nightsByType[type.ordinal()];
+    }
+
+    public double getRevenue(Room.RoomType type) {
+        return revenueByType[type.ordinal()];
+    }
+
+    public double getOccupancyRate(Room.RoomType type) {
+        return ratio(getRoomNightsSold(type), getRoomNightsAvailable(type));
+    }
+
+    public double getAdr(Room.RoomType type) {
+        return ratio(getRevenue(type), getRoomNightsSold(type));
+    }
+
+    public double getRevPar(Room.RoomType type) {
+        return ratio(getRevenue(type), getRoomNightsAvailable(type));
+    }
+
+    // Por planta (las del inventario, por propiedad y planta)
+    public List<Floor> getFloors() {
+        List<Floor> floors = new ArrayList<>(inventory.floors.length);
+        for (int key : inventory.floors) {
+            floors.add(new Floor(key));
+        }
+        return floors;
+    }
+
+    public long getRoomNightsAvailable(Floor floor) {
+        int index = Arrays.binarySearch(inventory.floors, floor.key);
+        return index < 0 ? 0 : inventory.roomsByFloor[index] * (long) getDays();
+    }
+
+    public long getRoomNightsSold(Floor floor) {
+        int index = Arrays.binarySearch(inventory.floors, floor.key);
+        return index < 0 ? 0 : nightsByFloor[index];
+    }
+
+    public double getRevenue(Floor floor) {
+        int index = Arrays.binarySearch(inventory.floors, floor.key);
+        return index < 0 ? 0 : revenueByFloor[index];
+    }
+
+    public double getOccupancyRate(Floor floor) {
+        return ratio(getRoomNightsSold(floor), getRoomNightsAvailable(floor));
+    }
+
+    public double getAdr(Floor floor) {
+        return ratio(getRevenue(floor), getRoomNightsSold(floor));
+    }
+
+    public double getRevPar(Floor floor) {
+        return ratio(getRevenue(floor), getRoomNightsAvailable(floor));
+    }
+
+    private int dayIndex(LocalDate day) {
+        long index = day.toEpochDay() - from.toEpochDay();
+        if (index < 0 || index >= nightsByDay.length) {
+            throw new IllegalArgumentException("El día " + day + " no está en el informe");
+        }
+        return (int) index;
+    }
+
+    private static double ratio(double value, double total) {
+        return total == 0 ? 0 : value / total;
+    }
+
+    // Sumas parciales del informe. No es seguro entre hilos: cada hilo acumula en la suya
+    // (emptyCopy) y al final se combinan con merge.
+    public static final class Accumulator {
+        private final LocalDate from;
+        private final LocalDate to;
+        private final long fromDay;
+        private final long toDay;
+        private final Inventory inventory;
+        private final RateTable rates;
+        private final long[] nightsByDay;
+        private final double[] revenueByDay;
+        private final long[] nightsByType;
+        private final double[] revenueByType;
+        private final long[] nightsByFloor;
+        private final double[] revenueByFloor;
+
+        public Accumulator(LocalDate from, LocalDate to, List<Room> rooms, RateTable rates) {
+            this(from, to, new Inventory(rooms), rates);
+        }
+
+        private Accumulator(LocalDate from, LocalDate to, Inventory inventory, RateTable rates) {
+            if (from == null || to == null) {
+                throw new IllegalArgumentException("Las fechas no pueden ser nulas");
+            }
+            if (!to.isAfter(from)) {
+                throw new IllegalArgumentException("La fecha final debe ser posterior a la inicial");
+            }
+            this.from = from;
+            this.to = to;
+            this.fromDay = from.toEpochDay();
+            this.toDay = to.toEpochDay();
+            this.inventory = inventory;
+            this.rates = rates;
+            int days = Math.toIntExact(toDay - fromDay);
+            int types = Room.RoomType.values().length;
+            this.nightsByDay = new long[days];
+            this.revenueByDay = new double[days];
+            this.nightsByType = new long[types];
+            this.revenueByType = new double[types];
+            this.nightsByFloor = new long[inventory.floors.length];
+            this.revenueByFloor = new double[inventory.floors.length];
+        }
+
+        // Acumulador vacío del mismo intervalo e inventario
+        public Accumulator emptyCopy() {
+            return new Accumulator(from, to, inventory, rates);
+        }
+
+        public void add(Reservation reservation) {
+            if (reservation.isCancelled()) {
+                return;
+            }
+            long first = Math.max(reservation.getCheckInDate().toEpochDay(), fromDay);
+            long end = Math.min(reservation.getCheckOutDate().toEpochDay(), toDay);
+            if (first >= end) {
+                return;
+            }
+            Room room = reservation.getRoom();
+            // Céntimos cobrados por cada céntimo de tarifa actual (1 si no han cambiado)
+            long quoted = rates.quote(room, reservation.getCheckInDate(), reservation.getCheckOutDate());
+            double scale = quoted > 0 ? reservation.getTotalPriceCents() / (double) quoted : 0;
+            double revenue = 0;
+            for (long day = first; day < end; day++) {
+                double nightly = quoted > 0
+                        ? rates.getNightlyRate(room, day) * scale / 100.0
+                        : reservation.getTotalPrice() / reservation.getDurationInDays();
+                nightsByDay[(int) (day - fromDay)]++;
+                revenueByDay[(int) (day - fromDay)] += nightly;
+                revenue += nightly;
+            }
+
+            long nights = end - first;
+            int type = room.getType().ordinal();
+            nightsByType[type] += nights;
+            revenueByType[type] += revenue;
+            // Una habitación dada de alta después de empezar el informe no tiene planta en él
+            int floor = Arrays.binarySearch(inventory.floors, Floor.keyOf(room));
+            if (floor >= 0) {
+                nightsByFloor[floor] += nights;
+                revenueByFloor[floor] += revenue;
+            }
+        }
+
+        public Accumulator merge(Accumulator other) {
+            add(nightsByDay, other.nightsByDay);
+            add(revenueByDay, other.revenueByDay);
+            add(nightsByType, other.nightsByType);
+            add(revenueByType, other.revenueByType);
+            add(nightsByFloor, other.nightsByFloor);
+            add(revenueByFloor, other.revenueByFloor);
+            return this;
+        }
+
+        public RevenueReport toReport() {
+            return new RevenueReport(this);
+        }
+
+        private static void add(long[] target, long[] values) {
+            for (int i = 0; i < target.length; i++) {
+                target[i] += values[i];
+            }
+        }
+
+        private static void add(double[] target, double[] values) {
+            for (int i = 0; i < target.length; i++) {
+                target[i] += values[i];
+            }
+        }
+    }
+
+    // Planta de una propiedad. Los números de planta se repiten entre propiedades (la planta 1 de
+    // la propiedad 0 y la de la 2 son distintas), así que se identifican por las dos cosas.
+    public static final class Floor implements Comparable<Floor> {
+        private final int key;
+
+        private Floor(int key) {
+            this.key = key;
+        }
+
+        public static Floor of(int property, int floor) {
+            if (property < 0 || floor < 0 || floor >= Room.ROOMS_PER_PROPERTY / 100) {
+                throw new IllegalArgumentException("Planta no válida: " + property + "/" + floor);
+            }
+            return new Floor(property * (Room.ROOMS_PER_PROPERTY / 100) + floor);
+        }
+
+        static int keyOf(Room room) {
+            return room.getRoomNumber() / 100;
+        }
+
+        public int getProperty() {
+            return key / (Room.ROOMS_PER_PROPERTY / 100);
+        }
+
+        public int getFloor() {
+            return key % (Room.ROOMS_PER_PROPERTY / 100);
+        }
+
+        @Override
+        public int compareTo(Floor other) {
+            return Integer.compare(key, other.key);
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof Floor && ((Floor) other).key == key;
+        }
+
+        @Override
+        public int hashCode() {
+            return key;
+        }
+
+        @Override
+        public String toString() {
+            return getProperty() == 0 ? "Planta " + getFloor() : "P" + getProperty() + " planta " + getFloor();
+        }
+    }
+
+    // Habitaciones por tipo y por planta en el momento de empezar el informe
+    private static final class Inventory {
+        final long rooms;
+        final long[] roomsByType;
+        // Claves de planta (número de habitación / 100, es decir propiedad * 100 + planta), ordenadas
+        final int[] floors;
+        final long[] roomsByFloor;
+
+        Inventory(List<Room> rooms) {
+            this.rooms = rooms.size();
+            this.roomsByType = new long[Room.RoomType.values().length];
+            this.floors = rooms.stream().mapToInt(Floor::keyOf).distinct().sorted().toArray();
+            this.roomsByFloor = new long[floors.length];
+            for (Room room : rooms) {
+                roomsByType[room.getType().ordinal()]++;
+                roomsByFloor[Arrays.binarySearch(floors, Floor.keyOf(room))]++;
+            }
+        }
+    }
+}
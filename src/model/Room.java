@@ -1,5 +1,12 @@
 package model;
 
+import java.time.LocalDate;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
+
 public class Room {
     // Enum para el tipo de habitación
     public enum RoomType {
@@ -22,19 +29,50 @@ public class Room {
     public enum RoomStatus {
         DISPONIBLE,
         RESERVADA,
-        OCUPADA
+        OCUPADA;
+
+        // Ciclo DISPONIBLE -> RESERVADA -> OCUPADA -> DISPONIBLE, más la cancelación
+        // (RESERVADA -> DISPONIBLE) y la salida con otra reserva pendiente (OCUPADA -> RESERVADA)
+        public boolean canTransitionTo(RoomStatus next) {
+            return switch (this) {
+                case DISPONIBLE -> next == RESERVADA;
+                case RESERVADA -> next == OCUPADA || next == DISPONIBLE;
+                case OCUPADA -> next == DISPONIBLE || next == RESERVADA;
+            };
+        }
     }
 
+    // Recibe los cambios de estado de la habitación (p. ej. para mantener estadísticas). Se llama
+    // después de cada cambio, sin bloqueos: dos cambios simultáneos pueden notificarse en
+    // cualquier orden, pero version (creciente) indica el orden real.
+    public interface StatusListener {
+        void onStatusChange(Room room, RoomStatus previous, RoomStatus current, long version);
+    }
+
+    private static final RoomStatus[] STATUSES = RoomStatus.values();
+    private static final int STATUS_BITS = 8;
+
+    public static final int ROOMS_PER_PROPERTY = 10_000;
+
     private final int roomNumber;
     private final RoomType type;
-    private RoomStatus status;
+    // Estado y versión en un único valor (versión << 8 | ordinal del estado), de modo que se leen
+    // y se cambian juntos sin bloqueos. La versión aumenta con cada cambio.
+    private final AtomicLong statusStamp;
     private final String description;
+    // Reservas vigentes (no canceladas) de la habitación ordenadas por fecha de check-in
+    private final NavigableMap<LocalDate, Reservation> bookings;
+    // Días ocupados por esas mismas reservas, para las búsquedas de disponibilidad
+    private final OccupancyBitmap occupancy;
+    private volatile StatusListener statusListener;
 
     public Room(int roomNumber, RoomType type, String description) {
         this.roomNumber = roomNumber;
         this.type = type;
-        this.status = RoomStatus.DISPONIBLE;
+        this.statusStamp = new AtomicLong(stampOf(0, RoomStatus.DISPONIBLE));
         this.description = description;
+        this.bookings = new TreeMap<>();
+        this.occupancy = new OccupancyBitmap();
     }
 
     // Getters y setters
@@ -42,28 +80,168 @@ public class Room {
         return roomNumber;
     }
 
+    // Por convenio el número de habitación es propiedad * 10000 + planta * 100 + puerta, así que
+    // las habitaciones de todas las propiedades se identifican solo por su número (101 es la
+    // puerta 1 de la planta 1 de la propiedad 0, 20305 la puerta 5 de la planta 3 de la 2)
+    public int getProperty() {
+        return roomNumber / ROOMS_PER_PROPERTY;
+    }
+
+    public int getFloor() {
+        return roomNumber % ROOMS_PER_PROPERTY / 100;
+    }
+
     public RoomType getType() {
         return type;
     }
 
-    public int getPricePerNight() {
+    public String getDescription() {
+        return description;
+    }
+
+    // Tarifa base del tipo, la que se aplica fuera de los tramos de RateTable. El precio de una
+    // noche concreta (temporadas, tarifas propias) lo da RateTable.getNightlyRate.
+    public int getBasePricePerNight() {
         return type.getPricePerNight();
     }
 
     public RoomStatus getStatus() {
-        return status;
+        return statusOf(statusStamp.get());
+    }
+
+    public long getStatusVersion() {
+        return versionOf(statusStamp.get());
+    }
+
+    // Estado y versión leídos a la vez; se separan con statusOf y versionOf
+    public long getStatusStamp() {
+        return statusStamp.get();
+    }
+
+    public static RoomStatus statusOf(long stamp) {
+        return STATUSES[(int) (stamp & ((1 << STATUS_BITS) - 1))];
+    }
+
+    public static long versionOf(long stamp) {
+        return stamp >>> STATUS_BITS;
+    }
+
+    private static long stampOf(long version, RoomStatus status) {
+        return version << STATUS_BITS | status.ordinal();
+    }
+
+    // Pasa de expected a next si la habitación sigue en expected y devuelve false si está en otro
+    // estado. Una transición que no permite el ciclo de estados es un error.
+    public boolean compareAndSetStatus(RoomStatus expected, RoomStatus next) {
+        checkTransition(expected, next);
+        while (true) {
+            long stamp = statusStamp.get();
+            if (statusOf(stamp) != expected) {
+                return false;
+            }
+            if (statusStamp.compareAndSet(stamp, stampOf(versionOf(stamp) + 1, next))) {
+                notifyStatusChange(expected, next, versionOf(stamp) + 1);
+                return true;
+            }
+        }
     }
 
+    // Fija el estado sin validar la transición: solo para restaurar un estado ya registrado
+    // (instantáneas y reproducción del diario)
     public void setStatus(RoomStatus status) {
-        this.status = status;
+        while (true) {
+            long stamp = statusStamp.get();
+            RoomStatus previous = statusOf(stamp);
+            if (previous == status) {
+                return;
+            }
+            if (statusStamp.compareAndSet(stamp, stampOf(versionOf(stamp) + 1, status))) {
+                notifyStatusChange(previous, status, versionOf(stamp) + 1);
+                return;
+            }
+        }
+    }
+
+    public void setStatusListener(StatusListener statusListener) {
+        this.statusListener = statusListener;
+    }
+
+    private void checkTransition(RoomStatus from, RoomStatus to) {
+        if (!from.canTransitionTo(to)) {
+            throw new IllegalStateException("Cambio de estado no válido: " + from + " -> " + to);
+        }
+    }
+
+    private void notifyStatusChange(RoomStatus previous, RoomStatus current, long version) {
+        StatusListener listener = statusListener;
+        if (listener != null) {
+            listener.onStatusChange(this, previous, current, version);
+        }
+    }
+
+    // Índice de reservas de la habitación (protegido por el monitor de la propia habitación). Lo
+    // único que puede fallar es ampliar el mapa de días, así que va primero: si lanza, la
+    // habitación queda como estaba.
+    public synchronized void addBooking(Reservation reservation) {
+        occupancy.occupy(reservation.getCheckInDate(), reservation.getCheckOutDate());
+        bookings.put(reservation.getCheckInDate(), reservation);
+    }
+
+    public synchronized void removeBooking(Reservation reservation) {
+        if (bookings.remove(reservation.getCheckInDate(), reservation)) {
+            occupancy.release(reservation.getCheckInDate(), reservation.getCheckOutDate());
+        }
+    }
+
+    // Cambio de día: retira del índice las reservas que terminaron antes de date, que ya no
+    // pueden solaparse con ninguna nueva; siguen existiendo en el controlador y en el cliente
+    public synchronized int removeBookingsEndedBefore(LocalDate date) {
+        int removed = 0;
+        Iterator<Reservation> iterator = bookings.headMap(date, false).values().iterator();
+        while (iterator.hasNext()) {
+            Reservation reservation = iterator.next();
+            if (reservation.getCheckOutDate().isBefore(date)) {
+                iterator.remove();
+                occupancy.release(reservation.getCheckInDate(), reservation.getCheckOutDate());
+                removed++;
+            }
+        }
+        return removed;
+    }
+
+    public synchronized boolean hasBookingsFrom(LocalDate date) {
+        return bookings.ceilingKey(date) != null;
+    }
+
+    // Si queda alguna reserva sin check-in, futura o con la llegada pendiente de un día anterior.
+    // Suele bastar con mirar la primera: solo las estancias en curso o terminadas se saltan.
+    public synchronized boolean hasPendingBookings() {
+        for (Reservation reservation : bookings.values()) {
+            if (reservation.getStatus() == Reservation.Status.CONFIRMADA) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Misma semántica que Reservation.overlaps: los días de entrada y salida cuentan como ocupados
+    public synchronized boolean isAvailable(LocalDate checkInDate, LocalDate checkOutDate) {
+        return occupancy.isFree(checkInDate, checkOutDate);
+    }
+
+    public synchronized boolean hasOverlap(LocalDate checkInDate, LocalDate checkOutDate) {
+        // Las reservas de una habitación nunca se solapan entre sí, así que basta con
+        // comprobar la última que empieza antes de (o en) la fecha de salida solicitada
+        Map.Entry<LocalDate, Reservation> candidate = bookings.floorEntry(checkOutDate);
+        return candidate != null && candidate.getValue().overlaps(checkInDate, checkOutDate);
     }
 
     @Override
     public String toString() {
         return "Habitación " + roomNumber +
                 " (" + type + ") - " +
-                status +
-                " - " + getPricePerNight() + "€/noche" +
+                getStatus() +
+                " - tarifa base " + getBasePricePerNight() + "€/noche" +
                 (description != null && !description.isEmpty() ? " - " + description : "");
     }
 }
\ No newline at end of file
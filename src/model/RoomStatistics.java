@@ -0,0 +1,115 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Contadores de habitaciones por estado, por propiedad y planta, y por tipo. Se actualizan en O(1)
+// en cada cambio de estado de una habitación registrada, de modo que consultarlos no recorre el
+// inventario.
+public class RoomStatistics implements Room.StatusListener {
+    private static final int STATUSES = Room.RoomStatus.values().length;
+    private static final int FLOORS_PER_PROPERTY = Room.ROOMS_PER_PROPERTY / 100;
+
+    private final AtomicLongArray byStatus;
+    private final AtomicLongArray byType;
+    // Por planta de cada propiedad, con clave propiedad * 100 + planta (número de habitación / 100)
+    private final ConcurrentSkipListMap<Integer, AtomicLongArray> byFloor;
+
+    public RoomStatistics() {
+        this.byStatus = new AtomicLongArray(STATUSES);
+        this.byType = new AtomicLongArray(Room.RoomType.values().length * STATUSES);
+        this.byFloor = new ConcurrentSkipListMap<>();
+    }
+
+    // Empieza a contar una habitación con su estado actual
+    public void register(Room room) {
+        increment(room, room.getStatus());
+    }
+
+    // Deja de contarla (alta rechazada después de register)
+    public void unregister(Room room) {
+        decrement(room, room.getStatus());
+    }
+
+    // Cada cambio mueve una unidad de un estado a otro; como las sumas conmutan, los cambios
+    // simultáneos de una habitación pueden aplicarse en cualquier orden
+    @Override
+    public void onStatusChange(Room room, Room.RoomStatus previous, Room.RoomStatus current, long version) {
+        decrement(room, previous);
+        increment(room, current);
+    }
+
+    public long getCount(Room.RoomStatus status) {
+        return byStatus.get(status.ordinal());
+    }
+
+    public long getCount(Room.RoomType type, Room.RoomStatus status) {
+        return byType.get(type.ordinal() * STATUSES + status.ordinal());
+    }
+
+    public long getCount(int property, int floor, Room.RoomStatus status) {
+        AtomicLongArray counters = byFloor.get(floorKey(property, floor));
+        return counters == null ? 0 : counters.get(status.ordinal());
+    }
+
+    public long getCount(int property, Room.RoomStatus status) {
+        long total = 0;
+        for (AtomicLongArray counters : byFloor.subMap(floorKey(property, 0), floorKey(property + 1, 0)).values()) {
+            total += counters.get(status.ordinal());
+        }
+        return total;
+    }
+
+    public long getRoomCount() {
+        long total = 0;
+        for (int i = 0; i < STATUSES; i++) {
+            total += byStatus.get(i);
+        }
+        return total;
+    }
+
+    // Propiedades con al menos una habitación, en orden ascendente
+    public List<Integer> getProperties() {
+        List<Integer> properties = new ArrayList<>();
+        for (int key : byFloor.keySet()) {
+            int property = key / FLOORS_PER_PROPERTY;
+            if (properties.isEmpty() || properties.get(properties.size() - 1) != property) {
+                properties.add(property);
+            }
+        }
+        return properties;
+    }
+
+    // Plantas de una propiedad con al menos una habitación, en orden ascendente
+    public List<Integer> getFloors(int property) {
+        List<Integer> floors = new ArrayList<>();
+        for (int key : byFloor.subMap(floorKey(property, 0), floorKey(property + 1, 0)).keySet()) {
+            floors.add(key % FLOORS_PER_PROPERTY);
+        }
+        return floors;
+    }
+
+    public double getOccupancyRate() {
+        long total = getRoomCount();
+        return total == 0 ? 0 : (double) getCount(Room.RoomStatus.OCUPADA) / total;
+    }
+
+    private void increment(Room room, Room.RoomStatus status) {
+        byStatus.incrementAndGet(status.ordinal());
+        byType.incrementAndGet(room.getType().ordinal() * STATUSES + status.ordinal());
+        byFloor.computeIfAbsent(floorKey(room.getProperty(), room.getFloor()), key -> new AtomicLongArray(STATUSES))
+                .incrementAndGet(status.ordinal());
+    }
+
+    private void decrement(Room room, Room.RoomStatus status) {
+        byStatus.decrementAndGet(status.ordinal());
+        byType.decrementAndGet(room.getType().ordinal() * STATUSES + status.ordinal());
+        byFloor.get(floorKey(room.getProperty(), room.getFloor())).decrementAndGet(status.ordinal());
+    }
+
+    private static int floorKey(int property, int floor) {
+        return property * FLOORS_PER_PROPERTY + floor;
+    }
+}
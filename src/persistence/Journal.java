@@ -0,0 +1,418 @@
+package persistence;
+
+import model.EntityId;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.zip.CRC32;
+
+// Diario de eventos de dominio, solo de escritura al final, con commit en grupo.
+//
+// Cada registro es [longitud int][crc32 int][secuencia long][tipo byte][datos]. Los hilos que
+// escriben solo codifican el registro en un búfer compartido y obtienen su número de secuencia;
+// un único hilo escritor vuelca todo lo acumulado con un write + force, de modo que muchas
+// reservas concurrentes comparten el mismo fsync. Quien necesite durabilidad espera con
+// awaitDurable(secuencia) fuera de sus propios bloqueos.
+//
+// Si una escritura falla, el hilo escritor termina y el diario deja de aceptar eventos: append*
+// y checkWritable lanzan UncheckedIOException en lugar de acumular registros que ya nunca
+// llegarán a disco.
+public class Journal implements Closeable {
+    public static final byte CLIENT_CREATED = 1;
+    public static final byte RESERVATION_CREATED = 2;
+    public static final byte RESERVATION_CANCELLED = 3;
+    public static final byte CHECKED_IN = 4;
+    public static final byte CHECKED_OUT = 5;
+    // Como RESERVATION_CREATED, con el precio en céntimos al final. Los diarios anteriores a las
+    // tarifas por fecha solo tienen RESERVATION_CREATED, que se entrega con UNKNOWN_PRICE.
+    public static final byte PRICED_RESERVATION_CREATED = 6;
+    public static final long UNKNOWN_PRICE = -1;
+
+    private static final int HEADER_BYTES = 8;
+    private static final int INITIAL_BUFFER = 64 * 1024;
+    private static final int READ_BUFFER = 1024 * 1024;
+    // Tamaño máximo de un registro sin cabecera: al reproducir, cada registro debe caber entero en
+    // el búfer de lectura
+    public static final int MAX_RECORD_BYTES = READ_BUFFER - HEADER_BYTES;
+
+    // Receptor de los eventos al reproducir el diario
+    public interface Handler {
+        void onClientCreated(long sequence, EntityId clientId, String fullName);
+
+        void onReservationCreated(long sequence, EntityId reservationId, EntityId clientId, int roomNumber,
+                                  LocalDate checkInDate, LocalDate checkOutDate, long totalPriceCents);
+
+        void onReservationCancelled(long sequence, EntityId reservationId);
+
+        void onCheckIn(long sequence, EntityId reservationId);
+
+        void onCheckOut(long sequence, EntityId reservationId);
+    }
+
+    private final FileChannel channel;
+    private final Thread writer;
+    private final Object appendLock = new Object();
+    private final Object durableLock = new Object();
+    private final CRC32 crc = new CRC32();
+
+    // Protegidos por appendLock (closed y writeFailure se leen también sin él en checkWritable)
+    private ByteBuffer pending;
+    private ByteBuffer spare;
+    private long lastSequence;
+    private volatile boolean closed;
+    private volatile IOException writeFailure;
+
+    // Protegidos por durableLock
+    private long durableSequence;
+    private IOException failure;
+
+    private volatile long syncCount;
+    private volatile long syncedRecords;
+
+    private Journal(FileChannel channel, long lastSequence) {
+        this.channel = channel;
+        this.pending = ByteBuffer.allocate(INITIAL_BUFFER);
+        this.spare = ByteBuffer.allocate(INITIAL_BUFFER);
+        this.lastSequence = lastSequence;
+        this.durableSequence = lastSequence;
+        this.writer = new Thread(this::writeLoop, "journal-writer");
+        this.writer.setDaemon(true);
+    }
+
+    // Reproduce el diario existente sobre el handler (si lo hay) y lo abre para seguir escribiendo.
+    // Un registro final incompleto o corrupto (escritura interrumpida) se descarta; un registro
+    // más largo que MAX_RECORD_BYTES antes del final hace fallar la apertura.
+    public static Journal open(Path path, Handler handler) throws IOException {
+        return open(path, handler, 0);
+    }
+
+    // Igual que open(path, handler), pero solo entrega los eventos posteriores a afterSequence
+    // (los anteriores ya están reflejados en una instantánea)
+    public static Journal open(Path path, Handler handler, long afterSequence) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        try {
+            long[] result = replay(channel, handler, afterSequence);
+            long validLength = result[0];
+            if (validLength < channel.size()) {
+                channel.truncate(validLength);
+                channel.force(true);
+            }
+            channel.position(validLength);
+
+            Journal journal = new Journal(channel, Math.max(result[1], afterSequence));
+            journal.writer.start();
+            return journal;
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    // Solo lectura: reproduce el diario y devuelve la última secuencia válida
+    public static long replay(Path path, Handler handler) throws IOException {
+        if (!Files.exists(path)) {
+            return 0;
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return replay(channel, handler, 0)[1];
+        }
+    }
+
+    public long appendClientCreated(EntityId clientId, String fullName) {
+        byte[] name = fullName.getBytes(StandardCharsets.UTF_8);
+        synchronized (appendLock) {
+            ByteBuffer buffer = begin(CLIENT_CREATED, 16 + 4 + name.length);
+            putId(buffer, clientId);
+            buffer.putInt(name.length);
+            buffer.put(name);
+            return commit(buffer);
+        }
+    }
+
+    public long appendReservationCreated(EntityId reservationId, EntityId clientId, int roomNumber,
+                                         LocalDate checkInDate, LocalDate checkOutDate, long totalPriceCents) {
+        synchronized (appendLock) {
+            ByteBuffer buffer = begin(PRICED_RESERVATION_CREATED, 16 + 16 + 4 + 4 + 4 + 8);
+            putId(buffer, reservationId);
+            putId(buffer, clientId);
+            buffer.putInt(roomNumber);
+            buffer.putInt((int) checkInDate.toEpochDay());
+            buffer.putInt((int) checkOutDate.toEpochDay());
+            buffer.putLong(totalPriceCents);
+            return commit(buffer);
+        }
+    }
+
+    public long appendReservationCancelled(EntityId reservationId) {
+        return appendReservationEvent(RESERVATION_CANCELLED, reservationId);
+    }
+
+    public long appendCheckIn(EntityId reservationId) {
+        return appendReservationEvent(CHECKED_IN, reservationId);
+    }
+
+    public long appendCheckOut(EntityId reservationId) {
+        return appendReservationEvent(CHECKED_OUT, reservationId);
+    }
+
+    private long appendReservationEvent(byte type, EntityId reservationId) {
+        synchronized (appendLock) {
+            ByteBuffer buffer = begin(type, 16);
+            putId(buffer, reservationId);
+            return commit(buffer);
+        }
+    }
+
+    // Lanza si el diario ya no acepta eventos (cerrado o tras un error de escritura). Sirve para
+    // comprobarlo antes de aplicar en memoria un cambio que después se registrará.
+    public void checkWritable() {
+        IOException failure = writeFailure;
+        if (failure != null) {
+            throw new UncheckedIOException("El diario no admite más eventos tras un error de escritura", failure);
+        }
+        if (closed) {
+            throw new IllegalStateException("El diario está cerrado");
+        }
+    }
+
+    // Bloquea hasta que el registro con esa secuencia (y todos los anteriores) esté en disco
+    public void awaitDurable(long sequence) {
+        synchronized (durableLock) {
+            boolean interrupted = false;
+            while (durableSequence < sequence && failure == null) {
+                try {
+                    durableLock.wait();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+            if (durableSequence < sequence) {
+                throw new UncheckedIOException("No se pudo escribir el diario", failure);
+            }
+        }
+    }
+
+    public long getLastSequence() {
+        synchronized (appendLock) {
+            return lastSequence;
+        }
+    }
+
+    public long getSyncCount() {
+        return syncCount;
+    }
+
+    public long getSyncedRecords() {
+        return syncedRecords;
+    }
+
+    @Override
+    public void close() throws IOException {
+        synchronized (appendLock) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            appendLock.notifyAll();
+        }
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        channel.close();
+    }
+
+    // Reserva espacio para la cabecera y el cuerpo; el registro se completa en commit()
+    private ByteBuffer begin(byte type, int bodyBytes) {
+        checkWritable();
+        int recordBytes = HEADER_BYTES + 8 + 1 + bodyBytes;
+        if (recordBytes - HEADER_BYTES > MAX_RECORD_BYTES) {
+            throw new IllegalArgumentException("Evento demasiado grande para el diario: " + recordBytes + " bytes");
+        }
+        if (pending.remaining() < recordBytes) {
+            ByteBuffer grown = ByteBuffer.allocate(Math.max(pending.capacity() * 2, pending.position() + recordBytes));
+            pending.flip();
+            grown.put(pending);
+            pending = grown;
+        }
+        pending.mark();
+        pending.position(pending.position() + HEADER_BYTES);
+        pending.putLong(lastSequence + 1);
+        pending.put(type);
+        return pending;
+    }
+
+    private long commit(ByteBuffer buffer) {
+        int end = buffer.position();
+        buffer.reset();
+        int start = buffer.position();
+        int payloadLength = end - start - HEADER_BYTES;
+
+        crc.reset();
+        crc.update(buffer.array(), start + HEADER_BYTES, payloadLength);
+        buffer.putInt(payloadLength);
+        buffer.putInt((int) crc.getValue());
+        buffer.position(end);
+
+        lastSequence++;
+        appendLock.notifyAll();
+        return lastSequence;
+    }
+
+    private void writeLoop() {
+        long writtenSequence = durableSequence;
+        while (true) {
+            ByteBuffer batch;
+            long batchSequence;
+            long batchRecords;
+            synchronized (appendLock) {
+                while (pending.position() == 0 && !closed) {
+                    try {
+                        appendLock.wait();
+                    } catch (InterruptedException e) {
+                        // El hilo escritor solo termina al cerrar el diario
+                    }
+                }
+                if (pending.position() == 0) {
+                    return;
+                }
+                batch = pending;
+                pending = spare;
+                spare = batch;
+                batchSequence = lastSequence;
+                batchRecords = batchSequence - writtenSequence;
+            }
+
+            try {
+                batch.flip();
+                while (batch.hasRemaining()) {
+                    channel.write(batch);
+                }
+                channel.force(false);
+                batch.clear();
+                writtenSequence = batchSequence;
+                syncCount++;
+                syncedRecords += batchRecords;
+                synchronized (durableLock) {
+                    durableSequence = batchSequence;
+                    durableLock.notifyAll();
+                }
+            } catch (IOException e) {
+                // Nada más llegará a disco: se suelta lo pendiente y begin() rechaza lo nuevo
+                synchronized (appendLock) {
+                    writeFailure = e;
+                    pending.clear();
+                }
+                synchronized (durableLock) {
+                    failure = e;
+                    durableLock.notifyAll();
+                }
+                return;
+            }
+        }
+    }
+
+    private static void putId(ByteBuffer buffer, EntityId id) {
+        buffer.putLong(id.getHigh());
+        buffer.putLong(id.getLow());
+    }
+
+    private static EntityId getId(ByteBuffer buffer) {
+        return new EntityId(buffer.getLong(), buffer.getLong());
+    }
+
+    // Devuelve {longitud válida del fichero, última secuencia}
+    private static long[] replay(FileChannel channel, Handler handler, long afterSequence) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(READ_BUFFER);
+        CRC32 checksum = new CRC32();
+        long fileOffset = 0;
+        long lastSequence = 0;
+        channel.position(0);
+
+        while (true) {
+            int read = channel.read(buffer);
+            buffer.flip();
+
+            while (buffer.remaining() >= HEADER_BYTES) {
+                int start = buffer.position();
+                int length = buffer.getInt(start);
+                int expectedCrc = buffer.getInt(start + 4);
+                if (length <= 0) {
+                    return new long[]{fileOffset, lastSequence};
+                }
+                if (length > MAX_RECORD_BYTES) {
+                    // Una longitud que no cabe en lo que queda del fichero es una escritura
+                    // interrumpida; si cabe, el diario contiene un registro que no sabemos leer
+                    // y truncarlo perdería todos los eventos posteriores
+                    if (fileOffset + HEADER_BYTES + length <= channel.size()) {
+                        throw new IOException("Registro del diario de " + length + " bytes en la posición "
+                                + fileOffset + ", mayor que el máximo de " + MAX_RECORD_BYTES);
+                    }
+                    return new long[]{fileOffset, lastSequence};
+                }
+                if (buffer.remaining() < HEADER_BYTES + length) {
+                    break;
+                }
+
+                checksum.reset();
+                checksum.update(buffer.array(), start + HEADER_BYTES, length);
+                if ((int) checksum.getValue() != expectedCrc) {
+                    return new long[]{fileOffset, lastSequence};
+                }
+
+                buffer.position(start + HEADER_BYTES);
+                long sequence = buffer.getLong();
+                byte type = buffer.get();
+                if (handler != null && sequence > afterSequence) {
+                    dispatch(buffer, sequence, type, handler);
+                }
+                buffer.position(start + HEADER_BYTES + length);
+                fileOffset += HEADER_BYTES + length;
+                lastSequence = sequence;
+            }
+
+            buffer.compact();
+            if (read < 0) {
+                return new long[]{fileOffset, lastSequence};
+            }
+        }
+    }
+
+    private static void dispatch(ByteBuffer buffer, long sequence, byte type, Handler handler) {
+        switch (type) {
+            case CLIENT_CREATED -> {
+                EntityId clientId = getId(buffer);
+                byte[] name = new byte[buffer.getInt()];
+                buffer.get(name);
+                handler.onClientCreated(sequence, clientId, new String(name, StandardCharsets.UTF_8));
+            }
+            case RESERVATION_CREATED, PRICED_RESERVATION_CREATED -> {
+                EntityId reservationId = getId(buffer);
+                EntityId clientId = getId(buffer);
+                int roomNumber = buffer.getInt();
+                LocalDate checkIn = LocalDate.ofEpochDay(buffer.getInt());
+                LocalDate checkOut = LocalDate.ofEpochDay(buffer.getInt());
+                long totalPriceCents = type == PRICED_RESERVATION_CREATED ? buffer.getLong() : UNKNOWN_PRICE;
+                handler.onReservationCreated(sequence, reservationId, clientId, roomNumber, checkIn, checkOut,
+                        totalPriceCents);
+            }
+            case RESERVATION_CANCELLED -> handler.onReservationCancelled(sequence, getId(buffer));
+            case CHECKED_IN -> handler.onCheckIn(sequence, getId(buffer));
+            case CHECKED_OUT -> handler.onCheckOut(sequence, getId(buffer));
+            default -> throw new IllegalStateException("Tipo de evento desconocido en el diario: " + type);
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package persistence;
+
+import controller.ClientController;
+import controller.ReserveController;
+import model.EntityId;
+
+import java.time.LocalDate;
+
+// Aplica los eventos del diario sobre los controladores al arrancar. Todas las operaciones
+// de restauración son idempotentes, así que reproducir un evento ya aplicado no tiene efecto.
+public class JournalReplayer implements Journal.Handler {
+    private final ClientController clientController;
+    private final ReserveController reserveController;
+    private long events;
+
+    public JournalReplayer(ClientController clientController, ReserveController reserveController) {
+        this.clientController = clientController;
+        this.reserveController = reserveController;
+    }
+
+    @Override
+    public void onClientCreated(long sequence, EntityId clientId, String fullName) {
+        clientController.restoreClient(clientId, fullName);
+        events++;
+    }
+
+    @Override
+    public void onReservationCreated(long sequence, EntityId reservationId, EntityId clientId, int roomNumber,
+                                     LocalDate checkInDate, LocalDate checkOutDate, long totalPriceCents) {
+        reserveController.restoreReservation(reservationId, clientId, roomNumber, checkInDate, checkOutDate,
+                totalPriceCents);
+        events++;
+    }
+
+    @Override
+    public void onReservationCancelled(long sequence, EntityId reservationId) {
+        reserveController.restoreCancellation(reservationId);
+        events++;
+    }
+
+    @Override
+    public void onCheckIn(long sequence, EntityId reservationId) {
+        reserveController.restoreCheckIn(reservationId);
+        events++;
+    }
+
+    @Override
+    public void onCheckOut(long sequence, EntityId reservationId) {
+        reserveController.restoreCheckOut(reservationId);
+        events++;
+    }
+
+    public long getEventCount() {
+        return events;
+    }
+}
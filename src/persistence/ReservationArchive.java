@@ -0,0 +1,572 @@
+package persistence;
+
+import model.EntityId;
+import model.Reservation;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+// Archivo en disco de reservas terminadas o canceladas, para sacarlas de la memoria.
+//
+// Cada append escribe un segmento nuevo (segment-000001.arc, ...) con las reservas en bloques de
+// hasta BLOCK_SIZE, y los segmentos nunca se modifican. El segmento se escribe primero en un
+// fichero temporal que solo se renombra cuando está entero en disco, así que un append se ve
+// completo o no se ve: si falla o el proceso cae a medias no queda ningún bloque suelto, y las
+// reservas siguen en memoria para el siguiente intento. Cada bloque (big-endian) es:
+//   cabecera: magic, número de reservas, número de clientes, longitud comprimida, primer día de
+//             entrada y último de salida (días desde epoch), crc32 del resto del bloque
+//   IDs de las reservas ordenados y IDs distintos de sus clientes ordenados (2 long cada uno)
+//   las reservas en el orden de sus IDs, comprimidas con Deflater: ID y cliente (2 long cada
+//   uno), habitación (int), check-in y check-out (int), precio en céntimos (long), flags (byte)
+//
+// Al abrir solo se leen las cabeceras y los IDs, sin descomprimir nada. En memoria queda un
+// índice ordenado de todos los IDs con el bloque y la posición de cada uno (20 bytes por reserva)
+// y los clientes y fechas de cada bloque; los datos se descomprimen bloque a bloque al
+// consultarlos, abriendo el segmento solo para esa lectura. Un bloque final incompleto o corrupto
+// se descarta, igual que los temporales de un append interrumpido.
+public class ReservationArchive implements Closeable {
+    private static final int MAGIC = 0x41524342;
+    private static final int POSITION_BITS = 12;
+    private static final int BLOCK_SIZE = 1 << POSITION_BITS;
+    private static final int HEADER_BYTES = 7 * 4;
+    private static final int RECORD_BYTES = 16 + 16 + 4 + 4 + 4 + 8 + 1;
+    private static final byte CANCELLED = 1;
+    private static final byte CHECKED_OUT = 2;
+    private static final Pattern SEGMENT_NAME = Pattern.compile("segment-\\d{6}\\.arc");
+    private static final Pattern TEMP_NAME = Pattern.compile("segment-\\d{6}\\.arc\\.tmp");
+
+    private final Path directory;
+    private int segmentCount;
+    private boolean closed;
+    // Se sustituye entero en cada append, así que las consultas lo leen sin bloquear
+    private volatile Index index;
+    // Último bloque descomprimido, para consultas seguidas sobre el mismo
+    private volatile Inflated lastInflated;
+
+    // Reserva archivada
+    public static final class Entry {
+        private final EntityId id;
+        private final EntityId clientId;
+        private final int roomNumber;
+        private final LocalDate checkInDate;
+        private final LocalDate checkOutDate;
+        private final long totalPriceCents;
+        private final Reservation.Status status;
+
+        private Entry(EntityId id, EntityId clientId, int roomNumber, LocalDate checkInDate,
+                      LocalDate checkOutDate, long totalPriceCents, Reservation.Status status) {
+            this.id = id;
+            this.clientId = clientId;
+            this.roomNumber = roomNumber;
+            this.checkInDate = checkInDate;
+            this.checkOutDate = checkOutDate;
+            this.totalPriceCents = totalPriceCents;
+            this.status = status;
+        }
+
+        public EntityId getId() {
+            return id;
+        }
+
+        public EntityId getClientId() {
+            return clientId;
+        }
+
+        public int getRoomNumber() {
+            return roomNumber;
+        }
+
+        public LocalDate getCheckInDate() {
+            return checkInDate;
+        }
+
+        public LocalDate getCheckOutDate() {
+            return checkOutDate;
+        }
+
+        public long getTotalPriceCents() {
+            return totalPriceCents;
+        }
+
+        // CANCELADA o FINALIZADA; CONFIRMADA en lo archivado antes de guardar el check-out
+        public Reservation.Status getStatus() {
+            return status;
+        }
+
+        public boolean isCancelled() {
+            return status == Reservation.Status.CANCELADA;
+        }
+    }
+
+    private ReservationArchive(Path directory, int segmentCount, Index index) {
+        this.directory = directory;
+        this.segmentCount = segmentCount;
+        this.index = index;
+    }
+
+    // Abre (o crea) el archivo del directorio y carga el índice de sus bloques
+    public static ReservationArchive open(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        List<Path> files;
+        List<Path> interrupted;
+        try (Stream<Path> listing = Files.list(directory)) {
+            List<Path> all = listing.sorted().collect(Collectors.toList());
+            files = all.stream()
+                    .filter(path -> SEGMENT_NAME.matcher(path.getFileName().toString()).matches())
+                    .collect(Collectors.toList());
+            interrupted = all.stream()
+                    .filter(path -> TEMP_NAME.matcher(path.getFileName().toString()).matches())
+                    .collect(Collectors.toList());
+        }
+        for (Path temp : interrupted) {
+            Files.delete(temp);
+        }
+
+        List<Block> blocks = new ArrayList<>();
+        List<Index> runs = new ArrayList<>();
+        for (Path file : files) {
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                readIndex(channel, file, blocks, runs);
+            }
+        }
+
+        // Cada bloque es una serie ordenada; se mezclan por parejas hasta quedar una
+        while (runs.size() > 1) {
+            List<Index> merged = new ArrayList<>();
+            for (int i = 0; i + 1 < runs.size(); i += 2) {
+                merged.add(Index.merge(runs.get(i), runs.get(i + 1), blocks));
+            }
+            if (runs.size() % 2 == 1) {
+                merged.add(runs.get(runs.size() - 1));
+            }
+            runs = merged;
+        }
+        Index index = runs.isEmpty() ? new Index(new long[0], new int[0], blocks) : runs.get(0);
+        return new ReservationArchive(directory, files.size(), index);
+    }
+
+    private static void readIndex(FileChannel channel, Path segment, List<Block> blocks, List<Index> runs)
+            throws IOException {
+        long size = channel.size();
+        long position = 0;
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        while (position + HEADER_BYTES <= size) {
+            header.clear();
+            readFully(channel, header, position);
+            header.flip();
+            int magic = header.getInt();
+            int count = header.getInt();
+            int clientCount = header.getInt();
+            int compressedLength = header.getInt();
+            int minDay = header.getInt();
+            int maxDay = header.getInt();
+            int crc = header.getInt();
+            long bodyBytes = 16L * (count + clientCount) + compressedLength;
+            if (magic != MAGIC || count <= 0 || clientCount <= 0 || compressedLength <= 0
+                    || position + HEADER_BYTES + bodyBytes > size) {
+                break;
+            }
+
+            ByteBuffer body = ByteBuffer.allocate((int) bodyBytes);
+            readFully(channel, body, position + HEADER_BYTES);
+            CRC32 checksum = new CRC32();
+            checksum.update(body.array(), 0, body.capacity());
+            if ((int) checksum.getValue() != crc) {
+                break;
+            }
+
+            body.flip();
+            long[] ids = new long[2 * count];
+            body.asLongBuffer().get(ids);
+            body.position(16 * count);
+            long[] clients = new long[2 * clientCount];
+            body.asLongBuffer().get(clients);
+            long dataOffset = position + HEADER_BYTES + 16L * (count + clientCount);
+            runs.add(Index.ofBlock(ids, blocks.size(), blocks));
+            blocks.add(new Block(segment, dataOffset, compressedLength, count, clients, minDay, maxDay));
+            position += HEADER_BYTES + bodyBytes;
+        }
+        if (position < size) {
+            channel.truncate(position);
+            channel.force(true);
+        }
+    }
+
+    // Añade las reservas (canceladas o con check-out) en un segmento nuevo y espera a que esté en
+    // disco. Si lanza, no se ha archivado ninguna.
+    public synchronized void append(List<Reservation> reservations) throws IOException {
+        if (closed) {
+            throw new IllegalStateException("El archivo de reservas está cerrado");
+        }
+        if (reservations.isEmpty()) {
+            return;
+        }
+        for (Reservation reservation : reservations) {
+            Reservation.Status status = reservation.getStatus();
+            if (status != Reservation.Status.CANCELADA && status != Reservation.Status.FINALIZADA) {
+                throw new IllegalArgumentException("Solo se archivan reservas canceladas o con check-out: "
+                        + reservation.getId() + " está " + status);
+            }
+        }
+
+        Path segment = directory.resolve(String.format("segment-%06d.arc", segmentCount + 1));
+        Path temp = segment.resolveSibling(segment.getFileName() + ".tmp");
+        Index current = index;
+        List<Block> updated = new ArrayList<>(current.blocks);
+        Index added = new Index(new long[0], new int[0], updated);
+        try {
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                for (int from = 0; from < reservations.size(); from += BLOCK_SIZE) {
+                    List<Reservation> batch = reservations.subList(from,
+                            Math.min(reservations.size(), from + BLOCK_SIZE));
+                    long[] ids = new long[2 * batch.size()];
+                    updated.add(writeBlock(channel, segment, batch, ids));
+                    added = Index.merge(added, Index.ofBlock(ids, updated.size() - 1, updated), updated);
+                }
+                channel.force(true);
+            }
+            Files.move(temp, segment, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+        segmentCount++;
+        // Solo ahora son visibles: lo que se consulte ya está en disco
+        index = Index.merge(current, added, updated);
+    }
+
+    // Escribe un bloque al final de channel y deja en ids sus IDs ordenados
+    private static Block writeBlock(FileChannel channel, Path segment, List<Reservation> batch, long[] ids)
+            throws IOException {
+        Reservation[] sorted = batch.toArray(new Reservation[0]);
+        Arrays.sort(sorted, Comparator.comparing(Reservation::getId));
+        TreeSet<EntityId> clientIds = new TreeSet<>();
+        int minDay = Integer.MAX_VALUE;
+        int maxDay = Integer.MIN_VALUE;
+        ByteBuffer records = ByteBuffer.allocate(sorted.length * RECORD_BYTES);
+        for (int i = 0; i < sorted.length; i++) {
+            Reservation reservation = sorted[i];
+            EntityId clientId = reservation.getClient().getId();
+            clientIds.add(clientId);
+            ids[2 * i] = reservation.getId().getHigh();
+            ids[2 * i + 1] = reservation.getId().getLow();
+            int checkIn = (int) reservation.getCheckInDate().toEpochDay();
+            int checkOut = (int) reservation.getCheckOutDate().toEpochDay();
+            minDay = Math.min(minDay, checkIn);
+            maxDay = Math.max(maxDay, checkOut);
+            records.putLong(ids[2 * i]).putLong(ids[2 * i + 1]);
+            records.putLong(clientId.getHigh()).putLong(clientId.getLow());
+            records.putInt(reservation.getRoom().getRoomNumber());
+            records.putInt(checkIn).putInt(checkOut);
+            records.putLong(reservation.getTotalPriceCents());
+            records.put(reservation.isCancelled() ? CANCELLED : CHECKED_OUT);
+        }
+        long[] clients = new long[2 * clientIds.size()];
+        int index = 0;
+        for (EntityId clientId : clientIds) {
+            clients[index++] = clientId.getHigh();
+            clients[index++] = clientId.getLow();
+        }
+        byte[] compressed = deflate(records.array());
+
+        ByteBuffer block = ByteBuffer.allocate(HEADER_BYTES + 8 * (ids.length + clients.length) + compressed.length);
+        block.position(HEADER_BYTES);
+        for (long value : ids) {
+            block.putLong(value);
+        }
+        for (long value : clients) {
+            block.putLong(value);
+        }
+        block.put(compressed);
+        CRC32 checksum = new CRC32();
+        checksum.update(block.array(), HEADER_BYTES, block.capacity() - HEADER_BYTES);
+        block.putInt(0, MAGIC)
+                .putInt(4, sorted.length)
+                .putInt(8, clientIds.size())
+                .putInt(12, compressed.length)
+                .putInt(16, minDay)
+                .putInt(20, maxDay)
+                .putInt(24, (int) checksum.getValue());
+        block.position(0);
+
+        long position = channel.size();
+        while (block.hasRemaining()) {
+            channel.write(block, position + block.position());
+        }
+        long dataOffset = position + HEADER_BYTES + 8L * (ids.length + clients.length);
+        return new Block(segment, dataOffset, compressed.length, sorted.length, clients, minDay, maxDay);
+    }
+
+    public boolean contains(EntityId id) {
+        return search(index.ids, id) >= 0;
+    }
+
+    // La reserva archivada con ese ID, o null
+    public Entry find(EntityId id) {
+        Index current = index;
+        int found = search(current.ids, id);
+        if (found < 0) {
+            return null;
+        }
+        int location = current.locations[found];
+        Block block = current.blocks.get(location >>> POSITION_BITS);
+        return entryAt(inflate(block), location & (BLOCK_SIZE - 1));
+    }
+
+    // Reservas archivadas de un cliente, en el orden en que se archivaron
+    public List<Entry> findByClient(EntityId clientId) {
+        List<Entry> result = new ArrayList<>();
+        for (Block block : index.blocks) {
+            if (search(block.clients, clientId) < 0) {
+                continue;
+            }
+            ByteBuffer records = inflate(block);
+            for (int i = 0; i < block.count; i++) {
+                int base = i * RECORD_BYTES;
+                if (records.getLong(base + 16) == clientId.getHigh()
+                        && records.getLong(base + 24) == clientId.getLow()) {
+                    result.add(entryAt(records, i));
+                }
+            }
+        }
+        return result;
+    }
+
+    // Recorre las reservas archivadas con alguna noche en [from, to); solo se descomprimen los
+    // bloques cuyas fechas se cruzan con el intervalo
+    public void forEachOverlapping(LocalDate from, LocalDate to, Consumer<Entry> action) {
+        long fromDay = from.toEpochDay();
+        long toDay = to.toEpochDay();
+        for (Block block : index.blocks) {
+            if (block.minDay >= toDay || block.maxDay <= fromDay) {
+                continue;
+            }
+            ByteBuffer records = inflate(block);
+            for (int i = 0; i < block.count; i++) {
+                int base = i * RECORD_BYTES;
+                if (records.getInt(base + 36) < toDay && records.getInt(base + 40) > fromDay) {
+                    action.accept(entryAt(records, i));
+                }
+            }
+        }
+    }
+
+    // Número de reservas archivadas
+    public long size() {
+        return index.locations.length;
+    }
+
+    public int getBlockCount() {
+        return index.blocks.size();
+    }
+
+    // Los segmentos se abren solo para cada lectura; cerrar impide nuevos append
+    @Override
+    public synchronized void close() {
+        closed = true;
+    }
+
+    private static Entry entryAt(ByteBuffer records, int position) {
+        int base = position * RECORD_BYTES;
+        return new Entry(new EntityId(records.getLong(base), records.getLong(base + 8)),
+                new EntityId(records.getLong(base + 16), records.getLong(base + 24)),
+                records.getInt(base + 32),
+                LocalDate.ofEpochDay(records.getInt(base + 36)),
+                LocalDate.ofEpochDay(records.getInt(base + 40)),
+                records.getLong(base + 44),
+                status(records.get(base + 52)));
+    }
+
+    private static Reservation.Status status(byte flags) {
+        if ((flags & CANCELLED) != 0) {
+            return Reservation.Status.CANCELADA;
+        }
+        return (flags & CHECKED_OUT) != 0 ? Reservation.Status.FINALIZADA : Reservation.Status.CONFIRMADA;
+    }
+
+    // Búsqueda binaria sobre pares (high, low) con el mismo orden que EntityId.compareTo
+    private static int search(long[] pairs, EntityId id) {
+        int low = 0;
+        int high = pairs.length / 2 - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int comparison = compare(pairs, middle, id.getHigh(), id.getLow());
+            if (comparison < 0) {
+                low = middle + 1;
+            } else if (comparison > 0) {
+                high = middle - 1;
+            } else {
+                return middle;
+            }
+        }
+        return -1;
+    }
+
+    private static int compare(long[] pairs, int index, long high, long low) {
+        int comparison = Long.compare(pairs[2 * index], high);
+        return comparison != 0 ? comparison : Long.compare(pairs[2 * index + 1], low);
+    }
+
+    // Datos descomprimidos de un bloque; se leen con accesos absolutos, así que pueden compartirse
+    private ByteBuffer inflate(Block block) {
+        Inflated cached = lastInflated;
+        if (cached != null && cached.block == block) {
+            return cached.records;
+        }
+        try (FileChannel channel = FileChannel.open(block.segment, StandardOpenOption.READ)) {
+            ByteBuffer compressed = ByteBuffer.allocate(block.compressedLength);
+            readFully(channel, compressed, block.dataOffset);
+            ByteBuffer records = ByteBuffer.wrap(inflate(compressed.array(), block.count * RECORD_BYTES));
+            lastInflated = new Inflated(block, records);
+            return records;
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo leer el archivo de reservas", e);
+        }
+    }
+
+    private static byte[] deflate(byte[] data) {
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            deflater.setInput(data);
+            deflater.finish();
+            byte[] output = new byte[data.length / 2 + 64];
+            int length = 0;
+            while (!deflater.finished()) {
+                if (length == output.length) {
+                    output = Arrays.copyOf(output, output.length * 2);
+                }
+                length += deflater.deflate(output, length, output.length - length);
+            }
+            return Arrays.copyOf(output, length);
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static byte[] inflate(byte[] compressed, int length) throws IOException {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(compressed);
+            byte[] output = new byte[length];
+            int read = 0;
+            while (read < length && !inflater.finished()) {
+                int inflated = inflater.inflate(output, read, length - read);
+                if (inflated == 0 && inflater.needsInput()) {
+                    break;
+                }
+                read += inflated;
+            }
+            if (read != length) {
+                throw new IOException("Bloque del archivo de reservas dañado");
+            }
+            return output;
+        } catch (DataFormatException e) {
+            throw new IOException("Bloque del archivo de reservas dañado", e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position + buffer.position());
+            if (read < 0) {
+                throw new IOException("Fin inesperado del archivo de reservas");
+            }
+        }
+    }
+
+    // Bloque del archivo: dónde están sus datos, sus clientes y el intervalo de fechas que cubre
+    private static final class Block {
+        final Path segment;
+        final long dataOffset;
+        final int compressedLength;
+        final int count;
+        // Pares (high, low) ordenados
+        final long[] clients;
+        final int minDay;
+        final int maxDay;
+
+        Block(Path segment, long dataOffset, int compressedLength, int count, long[] clients, int minDay, int maxDay) {
+            this.segment = segment;
+            this.dataOffset = dataOffset;
+            this.compressedLength = compressedLength;
+            this.count = count;
+            this.clients = clients;
+            this.minDay = minDay;
+            this.maxDay = maxDay;
+        }
+    }
+
+    // IDs archivados ordenados, en pares (high, low), con su ubicación (número de bloque y
+    // posición dentro de él); inmutable
+    private static final class Index {
+        final long[] ids;
+        final int[] locations;
+        final List<Block> blocks;
+
+        Index(long[] ids, int[] locations, List<Block> blocks) {
+            this.ids = ids;
+            this.locations = locations;
+            this.blocks = blocks;
+        }
+
+        static Index ofBlock(long[] ids, int block, List<Block> blocks) {
+            int[] locations = new int[ids.length / 2];
+            for (int i = 0; i < locations.length; i++) {
+                locations[i] = block << POSITION_BITS | i;
+            }
+            return new Index(ids, locations, blocks);
+        }
+
+        static Index merge(Index a, Index b, List<Block> blocks) {
+            int total = a.locations.length + b.locations.length;
+            long[] ids = new long[2 * total];
+            int[] locations = new int[total];
+            int i = 0;
+            int j = 0;
+            for (int k = 0; k < total; k++) {
+                boolean fromA = j == b.locations.length
+                        || (i < a.locations.length && compare(a.ids, i, b.ids[2 * j], b.ids[2 * j + 1]) <= 0);
+                Index source = fromA ? a : b;
+                int index = fromA ? i++ : j++;
+                ids[2 * k] = source.ids[2 * index];
+                ids[2 * k + 1] = source.ids[2 * index + 1];
+                locations[k] = source.locations[index];
+            }
+            return new Index(ids, locations, blocks);
+        }
+    }
+
+    private static final class Inflated {
+        final Block block;
+        final ByteBuffer records;
+
+        Inflated(Block block, ByteBuffer records) {
+            this.block = block;
+            this.records = records;
+        }
+    }
+}
@@ -0,0 +1,362 @@
+package persistence;
+
+import controller.RoomController;
+import model.Room;
+
+import java.io.BufferedWriter;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.IntStream;
+
+// Inventario de habitaciones en CSV (UTF-8), una por línea:
+//   numero,planta,tipo,descripcion
+// p. ej. 10101,1,DOBLE,"Vista al mar, con balcón". La planta debe coincidir con la que indica el
+// número (ver Room.getFloor) y el tipo es el nombre de Room.RoomType sin distinguir mayúsculas.
+// La descripción puede ir entre comillas ("" dentro de ellas es una comilla). Se admiten una
+// cabecera, líneas vacías y comentarios que empiezan por #.
+//
+// El fichero se mapea en memoria y se parte en trozos por saltos de línea que se analizan en
+// paralelo sin crear un String por campo; solo la descripción se decodifica, y se deduplica (en
+// un inventario grande casi todas se repiten), así que las habitaciones comparten las mismas
+// instancias. Después se dan de alta todas juntas con RoomController.addRooms.
+public final class RoomInventory {
+    private static final int CHUNK_BYTES = 256 * 1024;
+    private static final Room.RoomType[] TYPES = Room.RoomType.values();
+    private static final byte[][] TYPE_NAMES = new byte[TYPES.length][];
+
+    static {
+        for (int i = 0; i < TYPES.length; i++) {
+            TYPE_NAMES[i] = TYPES[i].name().getBytes(StandardCharsets.US_ASCII);
+        }
+    }
+
+    private RoomInventory() {
+    }
+
+    // Carga el inventario en el controlador y devuelve el número de habitaciones añadidas
+    public static int load(Path path, RoomController roomController) throws IOException {
+        List<Room> rooms = read(path);
+        try {
+            roomController.addRooms(rooms);
+        } catch (IllegalArgumentException e) {
+            throw new IOException(path + ": " + e.getMessage(), e);
+        }
+        return rooms.size();
+    }
+
+    // Habitaciones del fichero en el orden en que aparecen
+    public static List<Room> read(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("Fichero de inventario demasiado grande: " + path);
+            }
+            MappedByteBuffer data = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+
+            // Cada trozo empieza justo después de un salto de línea
+            List<Integer> bounds = new ArrayList<>();
+            bounds.add(0);
+            int position = CHUNK_BYTES;
+            while (position < size) {
+                while (position < size && data.get(position - 1) != '\n') {
+                    position++;
+                }
+                if (position < size) {
+                    bounds.add(position);
+                }
+                position += CHUNK_BYTES;
+            }
+            bounds.add((int) size);
+
+            Map<String, String> descriptions = new ConcurrentHashMap<>();
+            List<ChunkParser> parts = IntStream.range(0, bounds.size() - 1).parallel()
+                    .mapToObj(i -> new ChunkParser(data, descriptions).parse(bounds.get(i), bounds.get(i + 1)))
+                    .toList();
+
+            int total = 0;
+            for (ChunkParser part : parts) {
+                if (part.error != null) {
+                    throw new IOException(path + ", línea " + lineOf(data, part.errorOffset) + ": " + part.error);
+                }
+                total += part.rooms.size();
+            }
+            List<Room> rooms = new ArrayList<>(total);
+            for (ChunkParser part : parts) {
+                rooms.addAll(part.rooms);
+            }
+            return rooms;
+        }
+    }
+
+    // Escribe el inventario en el mismo formato (p. ej. para exportar el actual o generar uno de prueba)
+    public static void write(Path path, Collection<Room> rooms) throws IOException {
+        try (BufferedWriter out = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+            out.write("numero,planta,tipo,descripcion\n");
+            for (Room room : rooms) {
+                out.write(Integer.toString(room.getRoomNumber()));
+                out.write(',');
+                out.write(Integer.toString(room.getFloor()));
+                out.write(',');
+                out.write(room.getType().name());
+                out.write(',');
+                out.write(quote(room.getDescription()));
+                out.write('\n');
+            }
+        }
+    }
+
+    // Las descripciones ocupan una sola línea
+    private static String quote(String description) {
+        description = description.replace('\r', ' ').replace('\n', ' ');
+        if (description.indexOf(',') < 0 && description.indexOf('"') < 0 && description.equals(description.strip())) {
+            return description;
+        }
+        return '"' + description.replace("\"", "\"\"") + '"';
+    }
+
+    // Solo se cuenta al informar de un error
+    private static int lineOf(MappedByteBuffer data, int offset) {
+        int line = 1;
+        for (int i = 0; i < offset; i++) {
+            if (data.get(i) == '\n') {
+                line++;
+            }
+        }
+        return line;
+    }
+
+    // Analiza un trozo del fichero. Cada trozo deduplica primero en su propio mapa y solo
+    // consulta el compartido con las descripciones que aún no ha visto.
+    private static final class ChunkParser {
+        private final MappedByteBuffer data;
+        private final Map<String, String> sharedDescriptions;
+        private final Map<String, String> descriptions = new HashMap<>();
+        private List<Room> rooms;
+        private int position;
+        private int end;
+        // Primer error del trozo y posición de su línea
+        private String error;
+        private int errorOffset;
+
+        ChunkParser(MappedByteBuffer data, Map<String, String> sharedDescriptions) {
+            this.data = data;
+            this.sharedDescriptions = sharedDescriptions;
+        }
+
+        ChunkParser parse(int from, int to) {
+            rooms = new ArrayList<>((to - from) / 32 + 1);
+            position = from;
+            end = to;
+            while (position < end) {
+                int lineStart = position;
+                Room room = parseLine(lineStart == 0);
+                if (error != null) {
+                    errorOffset = lineStart;
+                    break;
+                }
+                if (room != null) {
+                    rooms.add(room);
+                }
+            }
+            return this;
+        }
+
+        // Devuelve null en líneas vacías, comentarios y la cabecera
+        private Room parseLine(boolean firstLine) {
+            skipSpaces();
+            if (position >= end || peek() == '\n' || peek() == '\r' || peek() == '#'
+                    || (firstLine && !isDigit(peek()))) {
+                skipLine();
+                return null;
+            }
+
+            int number = parseInt("número de habitación");
+            expectComma();
+            int floor = parseInt("planta");
+            expectComma();
+            Room.RoomType type = parseType();
+            expectComma();
+            String description = parseDescription();
+            if (error != null) {
+                return null;
+            }
+            skipLine();
+
+            if (number <= 0) {
+                error = "Número de habitación no válido: " + number;
+                return null;
+            }
+            Room room = new Room(number, type, description);
+            if (room.getFloor() != floor) {
+                error = "La habitación " + number + " está en la planta " + room.getFloor() + ", no en la " + floor;
+                return null;
+            }
+            return room;
+        }
+
+        private int parseInt(String field) {
+            if (error != null) {
+                return 0;
+            }
+            skipSpaces();
+            long value = 0;
+            int digits = 0;
+            while (position < end && isDigit(peek())) {
+                value = value * 10 + (data.get(position++) - '0');
+                if (value > Integer.MAX_VALUE) {
+                    error = "Valor demasiado grande en el campo " + field;
+                    return 0;
+                }
+                digits++;
+            }
+            if (digits == 0) {
+                error = "Falta el campo " + field;
+                return 0;
+            }
+            skipSpaces();
+            return (int) value;
+        }
+
+        private Room.RoomType parseType() {
+            if (error != null) {
+                return null;
+            }
+            skipSpaces();
+            int start = position;
+            while (position < end && peek() != ',' && peek() != '\n' && peek() != '\r') {
+                position++;
+            }
+            int length = position;
+            while (length > start && data.get(length - 1) == ' ') {
+                length--;
+            }
+            length -= start;
+            for (int i = 0; i < TYPES.length; i++) {
+                if (matches(start, length, TYPE_NAMES[i])) {
+                    return TYPES[i];
+                }
+            }
+            byte[] bytes = new byte[length];
+            data.get(start, bytes);
+            error = "Tipo de habitación no válido: " + new String(bytes, StandardCharsets.UTF_8);
+            return null;
+        }
+
+        private boolean matches(int start, int length, byte[] name) {
+            if (length != name.length) {
+                return false;
+            }
+            for (int i = 0; i < length; i++) {
+                int c = data.get(start + i);
+                if (c >= 'a' && c <= 'z') {
+                    c -= 'a' - 'A';
+                }
+                if (c != name[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        // El resto de la línea, o el texto entre comillas
+        private String parseDescription() {
+            if (error != null) {
+                return null;
+            }
+            skipSpaces();
+            if (position < end && peek() == '"') {
+                return parseQuoted();
+            }
+            int start = position;
+            while (position < end && peek() != '\n' && peek() != '\r') {
+                position++;
+            }
+            int stop = position;
+            while (stop > start && data.get(stop - 1) == ' ') {
+                stop--;
+            }
+            byte[] bytes = new byte[stop - start];
+            data.get(start, bytes);
+            return dedupe(new String(bytes, StandardCharsets.UTF_8));
+        }
+
+        private String parseQuoted() {
+            position++;
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            while (true) {
+                if (position >= end || peek() == '\n') {
+                    error = "Falta la comilla de cierre de la descripción";
+                    return null;
+                }
+                byte b = data.get(position++);
+                if (b == '"') {
+                    if (position < end && peek() == '"') {
+                        position++;
+                    } else {
+                        break;
+                    }
+                }
+                bytes.write(b);
+            }
+            skipSpaces();
+            if (position < end && peek() != '\n' && peek() != '\r') {
+                error = "Texto después de la descripción entre comillas";
+                return null;
+            }
+            return dedupe(bytes.toString(StandardCharsets.UTF_8));
+        }
+
+        private String dedupe(String description) {
+            String known = descriptions.get(description);
+            if (known == null) {
+                String shared = sharedDescriptions.putIfAbsent(description, description);
+                known = shared != null ? shared : description;
+                descriptions.put(known, known);
+            }
+            return known;
+        }
+
+        private void expectComma() {
+            if (error != null) {
+                return;
+            }
+            if (position >= end || peek() != ',') {
+                error = "Se esperaban 4 campos separados por comas";
+                return;
+            }
+            position++;
+        }
+
+        private void skipSpaces() {
+            while (position < end && (peek() == ' ' || peek() == '\t')) {
+                position++;
+            }
+        }
+
+        private void skipLine() {
+            while (position < end && data.get(position++) != '\n') {
+                // avanza hasta el salto de línea
+            }
+        }
+
+        private byte peek() {
+            return data.get(position);
+        }
+
+        private static boolean isDigit(byte b) {
+            return b >= '0' && b <= '9';
+        }
+    }
+}
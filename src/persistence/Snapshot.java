@@ -0,0 +1,274 @@
+package persistence;
+
+import controller.ClientController;
+import controller.ReserveController;
+import controller.RoomController;
+import model.Client;
+import model.EntityId;
+import model.Reservation;
+import model.Room;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Instantánea binaria compacta del estado de clientes, reservas y habitaciones.
+//
+// Formato (big-endian):
+//   cabecera: magic, versión, secuencia del diario, y para cada sección (reservas, clientes,
+//             habitaciones) su desplazamiento y número de registros
+//   reservas: id (2 long), id del cliente (2 long), índice de habitación (int),
+//             check-in y check-out en días desde epoch (int), precio en céntimos (long), flags (byte:
+//             cancelada, con check-in, con check-out)
+//             (la versión 1 no tenía precio; al cargarla se recalcula con las tarifas actuales. Hasta
+//             la 2 los flags solo marcaban las canceladas; el check-in se deduce de las habitaciones)
+//   clientes: id (2 long), longitud del nombre (short) y nombre en UTF-8
+//   habitaciones: número (int) y estado (byte); las reservas apuntan a su posición en esta tabla
+//
+// La instantánea se toma sin detener las reservas y puede no ser un corte exacto. Por eso se
+// guarda la secuencia del diario al empezar: al cargarla se reproducen los eventos posteriores,
+// cuya restauración es idempotente, y el resultado converge al estado real.
+public final class Snapshot {
+    private static final int MAGIC = 0x48534E50;
+    private static final int VERSION = 3;
+    private static final int UNSTATED_VERSION = 2;
+    private static final int UNPRICED_VERSION = 1;
+    private static final int HEADER_BYTES = 4 + 4 + 8 + 3 * (8 + 4);
+    private static final int RESERVATION_BYTES = 16 + 16 + 4 + 4 + 4 + 8 + 1;
+    private static final int UNPRICED_RESERVATION_BYTES = RESERVATION_BYTES - 8;
+    private static final int ROOM_BYTES = 4 + 1;
+    private static final byte CANCELLED = 1;
+    private static final byte CHECKED_IN = 2;
+    private static final byte CHECKED_OUT = 4;
+
+    private Snapshot() {
+    }
+
+    // Escribe la instantánea en un fichero temporal y lo mueve a su sitio al terminar
+    public static long write(Path path, long journalSequence, RoomController roomController,
+                             ClientController clientController, ReserveController reserveController)
+            throws IOException {
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        long[] sections = new long[6];
+
+        try (CountingOutputStream counter = new CountingOutputStream(Files.newOutputStream(temp));
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(counter, 1 << 20))) {
+            out.write(new byte[HEADER_BYTES]);
+
+            // Primero las reservas: cualquier cliente o habitación que aparezca en ellas ya existe
+            // cuando se recorren sus secciones
+            List<Room> roomTable = new ArrayList<>(roomController.getAllRooms());
+            Map<Room, Integer> roomIndex = new IdentityHashMap<>();
+            for (Room room : roomTable) {
+                roomIndex.put(room, roomIndex.size());
+            }
+
+            out.flush();
+            sections[0] = counter.count;
+            for (Reservation reservation : reserveController.getAllReservations()) {
+                Integer index = roomIndex.get(reservation.getRoom());
+                if (index == null) {
+                    index = roomTable.size();
+                    roomTable.add(reservation.getRoom());
+                    roomIndex.put(reservation.getRoom(), index);
+                }
+                writeId(out, reservation.getId());
+                writeId(out, reservation.getClient().getId());
+                out.writeInt(index);
+                out.writeInt((int) reservation.getCheckInDate().toEpochDay());
+                out.writeInt((int) reservation.getCheckOutDate().toEpochDay());
+                out.writeLong(reservation.getTotalPriceCents());
+                out.writeByte(flags(reservation.getStatus()));
+                sections[1]++;
+            }
+
+            out.flush();
+            sections[2] = counter.count;
+            for (Client client : clientController.getAllClients()) {
+                byte[] name = client.getFullName().getBytes(StandardCharsets.UTF_8);
+                if (name.length > 0xFFFF) {
+                    throw new IOException("Nombre de cliente demasiado largo: " + client.getId());
+                }
+                writeId(out, client.getId());
+                out.writeShort(name.length);
+                out.write(name);
+                sections[3]++;
+            }
+
+            // Los estados se leen al final para que incluyan las reservas ya copiadas
+            out.flush();
+            sections[4] = counter.count;
+            for (Room room : roomTable) {
+                out.writeInt(room.getRoomNumber());
+                out.writeByte(room.getStatus().ordinal());
+                sections[5]++;
+            }
+        }
+
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+            header.putInt(MAGIC).putInt(VERSION).putLong(journalSequence);
+            for (int i = 0; i < sections.length; i += 2) {
+                header.putLong(sections[i]).putInt((int) sections[i + 1]);
+            }
+            header.flip();
+            channel.write(header, 0);
+            channel.force(true);
+        }
+
+        Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return Files.size(path);
+    }
+
+    // Carga la instantánea (si existe) sobre los controladores y devuelve la secuencia del diario
+    // a partir de la cual hay que reproducir eventos
+    public static long load(Path path, RoomController roomController, ClientController clientController,
+                            ReserveController reserveController) throws IOException {
+        if (!Files.exists(path)) {
+            return 0;
+        }
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_BYTES);
+            int magic = header.getInt();
+            int version = header.getInt();
+            if (magic != MAGIC || version < UNPRICED_VERSION || version > VERSION) {
+                throw new IOException("Formato de instantánea no reconocido: " + path);
+            }
+            boolean priced = version != UNPRICED_VERSION;
+            long journalSequence = header.getLong();
+            long reservationsOffset = header.getLong();
+            int reservationCount = header.getInt();
+            long clientsOffset = header.getLong();
+            int clientCount = header.getInt();
+            long roomsOffset = header.getLong();
+            int roomCount = header.getInt();
+
+            // Tabla de habitaciones
+            MappedByteBuffer rooms = channel.map(FileChannel.MapMode.READ_ONLY, roomsOffset,
+                    (long) roomCount * ROOM_BYTES);
+            Room[] roomTable = new Room[roomCount];
+            Room.RoomStatus[] statuses = new Room.RoomStatus[roomCount];
+            for (int i = 0; i < roomCount; i++) {
+                int number = rooms.getInt();
+                roomTable[i] = roomController.getRoomByNumber(number);
+                statuses[i] = Room.RoomStatus.values()[rooms.get()];
+                if (roomTable[i] == null) {
+                    throw new IOException("La instantánea contiene la habitación " + number + ", que no existe");
+                }
+            }
+
+            // Clientes
+            MappedByteBuffer clients = channel.map(FileChannel.MapMode.READ_ONLY, clientsOffset,
+                    roomsOffset - clientsOffset);
+            byte[] name = new byte[256];
+            for (int i = 0; i < clientCount; i++) {
+                EntityId id = readId(clients);
+                int length = clients.getShort() & 0xFFFF;
+                if (length > name.length) {
+                    name = new byte[length];
+                }
+                clients.get(name, 0, length);
+                clientController.restoreClient(id, new String(name, 0, length, StandardCharsets.UTF_8));
+            }
+
+            // Reservas
+            MappedByteBuffer reservations = channel.map(FileChannel.MapMode.READ_ONLY, reservationsOffset,
+                    (long) reservationCount * (priced ? RESERVATION_BYTES : UNPRICED_RESERVATION_BYTES));
+            Map<Room, Reservation> staying = new IdentityHashMap<>();
+            LocalDate today = clientController.getClock().today();
+            for (int i = 0; i < reservationCount; i++) {
+                EntityId id = readId(reservations);
+                EntityId clientId = readId(reservations);
+                Room room = roomTable[reservations.getInt()];
+                LocalDate checkIn = LocalDate.ofEpochDay(reservations.getInt());
+                LocalDate checkOut = LocalDate.ofEpochDay(reservations.getInt());
+                long totalPriceCents = priced ? reservations.getLong() : Journal.UNKNOWN_PRICE;
+                Reservation.Status status = status(reservations.get());
+                Reservation reservation = reserveController.loadReservation(id, clientId, room.getRoomNumber(),
+                        checkIn, checkOut, totalPriceCents, status);
+
+                // Versiones sin estado: la estancia en curso de una habitación ocupada es la que
+                // incluye hoy y empezó antes
+                if (version <= UNSTATED_VERSION && status == Reservation.Status.CONFIRMADA
+                        && !checkIn.isAfter(today) && !checkOut.isBefore(today)) {
+                    staying.merge(room, reservation, (current, candidate) ->
+                            candidate.getCheckInDate().isBefore(current.getCheckInDate()) ? candidate : current);
+                }
+            }
+
+            for (int i = 0; i < roomCount; i++) {
+                roomTable[i].setStatus(statuses[i]);
+                Reservation reservation = staying.get(roomTable[i]);
+                if (reservation != null && statuses[i] == Room.RoomStatus.OCUPADA) {
+                    reservation.markCheckedIn();
+                }
+            }
+            return journalSequence;
+        }
+    }
+
+    private static byte flags(Reservation.Status status) {
+        return switch (status) {
+            case CONFIRMADA -> 0;
+            case EN_CURSO -> CHECKED_IN;
+            case FINALIZADA -> CHECKED_IN | CHECKED_OUT;
+            case CANCELADA -> CANCELLED;
+        };
+    }
+
+    private static Reservation.Status status(byte flags) {
+        if ((flags & CANCELLED) != 0) {
+            return Reservation.Status.CANCELADA;
+        }
+        if ((flags & CHECKED_OUT) != 0) {
+            return Reservation.Status.FINALIZADA;
+        }
+        return (flags & CHECKED_IN) != 0 ? Reservation.Status.EN_CURSO : Reservation.Status.CONFIRMADA;
+    }
+
+    private static void writeId(DataOutputStream out, EntityId id) throws IOException {
+        out.writeLong(id.getHigh());
+        out.writeLong(id.getLow());
+    }
+
+    private static EntityId readId(ByteBuffer buffer) {
+        return new EntityId(buffer.getLong(), buffer.getLong());
+    }
+
+    // Cuenta los bytes escritos para poder registrar el desplazamiento de cada sección
+    private static class CountingOutputStream extends FilterOutputStream {
+        private long count;
+
+        CountingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            count += len;
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package persistence;
+
+import controller.ClientController;
+import controller.ReserveController;
+import controller.RoomController;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// Escribe instantáneas periódicas en un hilo de fondo mientras las reservas siguen entrando
+public class SnapshotService implements AutoCloseable {
+    private final Path path;
+    private final Journal journal;
+    private final RoomController roomController;
+    private final ClientController clientController;
+    private final ReserveController reserveController;
+    private final ScheduledExecutorService executor;
+
+    public SnapshotService(Path path, Journal journal, RoomController roomController,
+                           ClientController clientController, ReserveController reserveController) {
+        this.path = path;
+        this.journal = journal;
+        this.roomController = roomController;
+        this.clientController = clientController;
+        this.reserveController = reserveController;
+        this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "snapshot-writer");
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        });
+    }
+
+    public void scheduleEvery(Duration period) {
+        long millis = period.toMillis();
+        executor.scheduleWithFixedDelay(() -> {
+            try {
+                writeSnapshot();
+            } catch (IOException e) {
+                // Un fallo puntual no detiene las siguientes instantáneas; el diario sigue completo
+                System.err.println("No se pudo escribir la instantánea: " + e.getMessage());
+            }
+        }, millis, millis, TimeUnit.MILLISECONDS);
+    }
+
+    // Solicita una instantánea inmediata; el Future devuelve el tamaño en bytes del fichero
+    public Future<Long> snapshotNow() {
+        return executor.submit(() -> {
+            try {
+                return writeSnapshot();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    private long writeSnapshot() throws IOException {
+        // La secuencia se lee antes de recorrer el estado: todo lo anterior ya está aplicado
+        long sequence = journal.getLastSequence();
+        return Snapshot.write(path, sequence, roomController, clientController, reserveController);
+    }
+
+    @Override
+    public void close() {
+        executor.shutdown();
+        try {
+            executor.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,217 @@
+package view;
+
+import controller.ClientController;
+import controller.ReserveController;
+import controller.RoomController;
+import model.Client;
+import model.EntityId;
+import model.Reservation;
+import model.Room;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.Reader;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+// Ejecuta un fichero de operaciones contra los controladores sin interacción y mide el
+// throughput y la latencia de cada tipo de operación.
+//
+// Una operación por línea (las líneas vacías y las que empiezan por # se ignoran):
+//   client <alias> <nombre completo>
+//   book <alias> <cliente> <habitación> <check-in> <check-out>
+//   cancel <reserva>
+//   checkin <reserva>
+//   checkout <reserva>
+//   find <reserva>
+//   active <cliente>
+//   history <cliente>
+//   available <TIPO|*> <check-in> <check-out>
+//   summary rooms|clients
+// Los clientes y reservas se referencian por el alias con el que se crearon o por su ID real.
+// Las fechas se aceptan como yyyy-MM-dd o dd/MM/yyyy.
+public class BatchRunner {
+    private static final DateTimeFormatter CONSOLE_DATE = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+
+    private final RoomController roomController;
+    private final ClientController clientController;
+    private final ReserveController reserveController;
+    private final Map<String, EntityId> aliases;
+    private final Map<String, OperationStats> stats;
+    private final PrintStream errors;
+    private long sink;
+
+    public BatchRunner(RoomController roomController, ClientController clientController,
+                       ReserveController reserveController, PrintStream errors) {
+        this.roomController = roomController;
+        this.clientController = clientController;
+        this.reserveController = reserveController;
+        this.aliases = new HashMap<>();
+        this.stats = new LinkedHashMap<>();
+        this.errors = errors;
+    }
+
+    // Ejecuta todas las operaciones del lector y devuelve el tiempo total en nanosegundos
+    public long run(Reader input) throws IOException {
+        BufferedReader reader = new BufferedReader(input);
+        long start = System.nanoTime();
+        String line;
+        int lineNumber = 0;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            line = line.trim();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+
+            String[] parts = line.split("\\s+");
+            String operation = parts[0].toLowerCase(Locale.ROOT);
+            OperationStats operationStats = stats.computeIfAbsent(operation, name -> new OperationStats());
+            long operationStart = System.nanoTime();
+            try {
+                execute(operation, parts, line);
+                operationStats.record(System.nanoTime() - operationStart, false);
+            } catch (Exception e) {
+                operationStats.record(System.nanoTime() - operationStart, true);
+                errors.println("Línea " + lineNumber + " (" + line + "): " + e.getMessage());
+            }
+        }
+        return System.nanoTime() - start;
+    }
+
+    private void execute(String operation, String[] parts, String line) throws Exception {
+        switch (operation) {
+            case "client" -> {
+                requireArguments(parts, 3);
+                // El nombre es el resto de la línea tras el alias
+                String name = line.split("\\s+", 3)[2];
+                Client client = clientController.createClient(name);
+                aliases.put(parts[1], client.getId());
+            }
+            case "book" -> {
+                requireArguments(parts, 6);
+                Reservation reservation = reserveController.createReservation(resolve(parts[2]),
+                        Integer.parseInt(parts[3]), parseDate(parts[4]), parseDate(parts[5]));
+                aliases.put(parts[1], reservation.getId());
+            }
+            case "cancel" -> {
+                requireArguments(parts, 2);
+                reserveController.cancelReservation(resolve(parts[1]));
+            }
+            case "checkin" -> {
+                requireArguments(parts, 2);
+                reserveController.checkIn(resolve(parts[1]));
+            }
+            case "checkout" -> {
+                requireArguments(parts, 2);
+                reserveController.checkOut(resolve(parts[1]));
+            }
+            case "find" -> {
+                requireArguments(parts, 2);
+                if (reserveController.getReservationById(resolve(parts[1])) == null) {
+                    throw new IllegalArgumentException("Reserva no encontrada");
+                }
+            }
+            case "active" -> {
+                requireArguments(parts, 2);
+                sink += clientController.getClientActiveReservations(resolve(parts[1])).size();
+            }
+            case "history" -> {
+                requireArguments(parts, 2);
+                sink += clientController.getClientReservationHistory(resolve(parts[1])).size();
+            }
+            case "available" -> {
+                requireArguments(parts, 4);
+                Room.RoomType type = "*".equals(parts[1])
+                        ? null
+                        : Room.RoomType.valueOf(parts[1].toUpperCase(Locale.ROOT));
+                sink += reserveController.findAvailableRooms(type, parseDate(parts[2]), parseDate(parts[3])).size();
+            }
+            case "summary" -> {
+                requireArguments(parts, 2);
+                switch (parts[1].toLowerCase(Locale.ROOT)) {
+                    case "rooms" -> sink += roomController.generateRoomSummary().length();
+                    case "clients" -> sink += clientController.generateClientSummary().length();
+                    default -> throw new IllegalArgumentException("Resumen desconocido: " + parts[1]);
+                }
+            }
+            default -> throw new IllegalArgumentException("Operación desconocida: " + operation);
+        }
+    }
+
+    public void printReport(PrintStream out, long elapsedNanos) {
+        long total = 0;
+        long failed = 0;
+        out.printf(Locale.ROOT, "%-10s %10s %8s %12s %12s %12s %12s%n",
+                "operación", "total", "errores", "media µs", "p50 µs", "p99 µs", "máx µs");
+        for (Map.Entry<String, OperationStats> entry : stats.entrySet()) {
+            OperationStats operationStats = entry.getValue();
+            long[] latencies = operationStats.sortedLatencies();
+            out.printf(Locale.ROOT, "%-10s %10d %8d %12.1f %12.1f %12.1f %12.1f%n",
+                    entry.getKey(), operationStats.count, operationStats.errors,
+                    operationStats.totalNanos / 1e3 / operationStats.count,
+                    percentile(latencies, 0.50) / 1e3, percentile(latencies, 0.99) / 1e3,
+                    latencies[latencies.length - 1] / 1e3);
+            total += operationStats.count;
+            failed += operationStats.errors;
+        }
+        double seconds = elapsedNanos / 1e9;
+        out.printf(Locale.ROOT, "%nTotal: %d operaciones (%d con error) en %.3f s -> %.0f op/s%n",
+                total, failed, seconds, seconds > 0 ? total / seconds : 0);
+    }
+
+    private EntityId resolve(String reference) {
+        EntityId id = aliases.get(reference);
+        return id != null ? id : EntityId.parse(reference);
+    }
+
+    private static void requireArguments(String[] parts, int expected) {
+        if (parts.length < expected) {
+            throw new IllegalArgumentException("Faltan argumentos para " + parts[0]);
+        }
+    }
+
+    private static LocalDate parseDate(String value) {
+        try {
+            return LocalDate.parse(value);
+        } catch (DateTimeParseException e) {
+            return LocalDate.parse(value, CONSOLE_DATE);
+        }
+    }
+
+    private static long percentile(long[] sorted, double percentile) {
+        int index = (int) Math.ceil(percentile * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(sorted.length - 1, index))];
+    }
+
+    private static class OperationStats {
+        private long[] latencies = new long[1024];
+        private int count;
+        private int errors;
+        private long totalNanos;
+
+        void record(long nanos, boolean failed) {
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = nanos;
+            totalNanos += nanos;
+            if (failed) {
+                errors++;
+            }
+        }
+
+        long[] sortedLatencies() {
+            long[] sorted = Arrays.copyOf(latencies, count);
+            Arrays.sort(sorted);
+            return sorted;
+        }
+    }
+}
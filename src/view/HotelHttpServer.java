@@ -0,0 +1,604 @@
+package view;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import controller.AnalyticsController;
+import controller.ClientController;
+import controller.Page;
+import controller.ReservationFilters;
+import controller.ReserveController;
+import controller.RoomController;
+import model.Client;
+import model.EntityId;
+import model.ReservaNoDisponibleException;
+import model.Reservation;
+import model.RateTable;
+import model.RevenueReport;
+import model.Room;
+import model.RoomStatistics;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Predicate;
+
+// API HTTP/JSON embebida sobre los controladores.
+//
+//   GET  /rooms[?type=&status=]               GET  /rooms/{número}
+//   GET  /rooms/available?type=&checkIn=&checkOut=
+//   GET  /statistics                          GET  /metrics (texto plano)
+//   GET  /analytics/revenue?from=&to=         (ocupación, ADR y RevPAR por día, tipo y planta)
+//   GET  /rates/quote?room=&checkIn=&checkOut= POST /rates {"type" | "roomNumber", "from", "to", "price"}
+//   GET  /clients[?cursor=&limit=] (página: {"items", "nextCursor"})   POST /clients {"fullName"}
+//   GET  /clients?name= | ?prefix=&limit= | ?search=&limit=
+//   GET  /clients/{id}                        GET  /clients/{id}/reservations[?history=true]
+//   POST /reservations {"clientId", "roomNumber", "checkIn", "checkOut"}
+//   GET  /reservations[?from=&to=&room=&clientId=&status=&cancelled=&cursor=&limit=] (página)
+//   GET  /reservations/{id}
+//   POST /reservations/{id}/cancel | /checkin | /checkout
+//
+// Las fechas van en formato yyyy-MM-dd. Cada petición se atiende en su propio hilo virtual
+// cuando la JVM los soporta (Java 21+); en versiones anteriores se usa un pool de hilos. Los
+// cuerpos de más de MAX_BODY_BYTES se rechazan con 413.
+//
+// Sin TCP_NODELAY las respuestas pequeñas esperan al ACK retardado del cliente (~40 ms). El
+// servidor de la JDK solo lo activa con la propiedad del sistema sun.net.httpserver.nodelay=true,
+// que lee una vez para toda la JVM; esta clase no la toca: la fija Main antes de arrancar la API
+// (o -Dsun.net.httpserver.nodelay=true al lanzar la JVM).
+public class HotelHttpServer {
+    public static final int MAX_BODY_BYTES = 64 * 1024;
+
+    private static final int DEFAULT_SEARCH_LIMIT = 20;
+    private static final int DEFAULT_PAGE_SIZE = 50;
+
+    private final RoomController roomController;
+    private final ClientController clientController;
+    private final ReserveController reserveController;
+    private final AnalyticsController analyticsController;
+    private HttpServer server;
+    private ExecutorService executor;
+
+    public HotelHttpServer(RoomController roomController, ClientController clientController,
+                           ReserveController reserveController) {
+        this.roomController = roomController;
+        this.clientController = clientController;
+        this.reserveController = reserveController;
+        this.analyticsController = new AnalyticsController(roomController, reserveController,
+                reserveController.getMetrics());
+    }
+
+    public void start(int port) throws IOException {
+        server = HttpServer.create(new InetSocketAddress(port), 1024);
+        executor = newRequestExecutor();
+        server.setExecutor(executor);
+        server.createContext("/", this::handle);
+        server.start();
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    public void stop() {
+        server.stop(0);
+        executor.shutdown();
+    }
+
+    // Hilo virtual por petición si está disponible (Java 21+); si no, pool de hilos bajo demanda
+    private static ExecutorService newRequestExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newCachedThreadPool();
+        }
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            String method = exchange.getRequestMethod();
+            String[] path = splitPath(exchange.getRequestURI().getPath());
+            Map<String, String> query = parseQuery(exchange.getRequestURI().getRawQuery());
+
+            if (path.length == 0) {
+                send(exchange, 404, error("Recurso no encontrado"));
+                return;
+            }
+
+            switch (path[0]) {
+                case "rooms" -> handleRooms(exchange, method, path, query);
+                case "statistics" -> handleStatistics(exchange, method, path);
+                case "metrics" -> handleMetrics(exchange, method, path);
+                case "analytics" -> handleAnalytics(exchange, method, path, query);
+                case "rates" -> handleRates(exchange, method, path, query);
+                case "clients" -> handleClients(exchange, method, path, query);
+                case "reservations" -> handleReservations(exchange, method, path, query);
+                default -> send(exchange, 404, error("Recurso no encontrado"));
+            }
+        } catch (ReservaNoDisponibleException | IllegalStateException e) {
+            send(exchange, 409, error(e.getMessage()));
+        } catch (NotFoundException e) {
+            send(exchange, 404, error(e.getMessage()));
+        } catch (PayloadTooLargeException e) {
+            send(exchange, 413, error(e.getMessage()));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            send(exchange, 400, error(e.getMessage()));
+        } catch (RuntimeException e) {
+            send(exchange, 500, error(e.getMessage()));
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private void handleRooms(HttpExchange exchange, String method, String[] path, Map<String, String> query)
+            throws IOException {
+        requireMethod(method, "GET");
+        if (path.length == 1) {
+            List<Room> rooms;
+            if (query.containsKey("property")) {
+                rooms = roomController.getRoomsByProperty(parseInt(query.get("property"), "propiedad"));
+            } else if (query.containsKey("type")) {
+                rooms = roomController.getRoomsByType(parseType(query.get("type")));
+            } else if (query.containsKey("status")) {
+                rooms = roomController.getRoomsByStatus(
+                        Room.RoomStatus.valueOf(query.get("status").toUpperCase(Locale.ROOT)));
+            } else {
+                rooms = roomController.getAllRooms();
+            }
+            send(exchange, 200, Json.array(toJsonRooms(rooms)));
+        } else if (path.length == 2 && "available".equals(path[1])) {
+            Room.RoomType type = query.containsKey("type") ? parseType(query.get("type")) : null;
+            Integer property = query.containsKey("property") ? parseInt(query.get("property"), "propiedad") : null;
+            List<Room> rooms = reserveController.findAvailableRooms(property, type,
+                    parseDate(query.get("checkIn")), parseDate(query.get("checkOut")));
+            send(exchange, 200, Json.array(toJsonRooms(rooms)));
+        } else if (path.length == 2) {
+            Room room = roomController.getRoomByNumber(parseInt(path[1], "número de habitación"));
+            if (room == null) {
+                throw new NotFoundException("Habitación no encontrada");
+            }
+            send(exchange, 200, toJson(room).toString());
+        } else {
+            throw new NotFoundException("Recurso no encontrado");
+        }
+    }
+
+    private void handleStatistics(HttpExchange exchange, String method, String[] path) throws IOException {
+        requireMethod(method, "GET");
+        if (path.length != 1) {
+            throw new NotFoundException("Recurso no encontrado");
+        }
+        RoomStatistics statistics = roomController.getStatistics();
+        Json.ObjectBuilder byStatus = Json.object();
+        for (Room.RoomStatus status : Room.RoomStatus.values()) {
+            byStatus.put(status.name(), statistics.getCount(status));
+        }
+        send(exchange, 200, Json.object()
+                .put("rooms", statistics.getRoomCount())
+                .put("byStatus", byStatus)
+                .put("occupancyRate", statistics.getOccupancyRate())
+                .toString());
+    }
+
+    // GET /rates/quote cotiza una estancia; POST /rates fija el precio por noche de un tipo o de una
+    // habitación entre from (incluida) y to (excluida)
+    private void handleRates(HttpExchange exchange, String method, String[] path, Map<String, String> query)
+            throws IOException {
+        if (path.length == 2 && "quote".equals(path[1])) {
+            requireMethod(method, "GET");
+            int roomNumber = parseInt(query.get("room"), "room");
+            LocalDate checkIn = parseDate(query.get("checkIn"));
+            LocalDate checkOut = parseDate(query.get("checkOut"));
+            long price = reserveController.quoteStay(roomNumber, checkIn, checkOut);
+            send(exchange, 200, Json.object()
+                    .put("roomNumber", roomNumber)
+                    .put("checkIn", checkIn.toString())
+                    .put("checkOut", checkOut.toString())
+                    .put("totalPrice", price / 100.0)
+                    .toString());
+            return;
+        }
+        if (path.length != 1) {
+            throw new NotFoundException("Recurso no encontrado");
+        }
+        requireMethod(method, "POST");
+        Map<String, String> body = readBody(exchange);
+        LocalDate from = parseDate(body.get("from"));
+        LocalDate to = parseDate(body.get("to"));
+        long priceCents = parsePriceCents(body.get("price"));
+        RateTable rates = reserveController.getRateTable();
+        if (body.containsKey("roomNumber")) {
+            Room room = roomController.getRoomByNumber(parseInt(body.get("roomNumber"), "roomNumber"));
+            if (room == null) {
+                throw new NotFoundException("Habitación no encontrada");
+            }
+            rates.setRate(room, from, to, priceCents);
+        } else {
+            if (body.get("type") == null) {
+                throw new IllegalArgumentException("Indique type o roomNumber");
+            }
+            rates.setRate(parseType(body.get("type")), from, to, priceCents);
+        }
+        send(exchange, 200, Json.object()
+                .put("from", from.toString())
+                .put("to", to.toString())
+                .put("price", priceCents / 100.0)
+                .toString());
+    }
+
+    // Ocupación e ingresos de las noches entre from (incluida) y to (excluida)
+    private void handleAnalytics(HttpExchange exchange, String method, String[] path, Map<String, String> query)
+            throws IOException {
+        requireMethod(method, "GET");
+        if (path.length != 2 || !"revenue".equals(path[1])) {
+            throw new NotFoundException("Recurso no encontrado");
+        }
+        RevenueReport report = analyticsController.generateRevenueReport(parseDate(query.get("from")),
+                parseDate(query.get("to")));
+
+        Json.ObjectBuilder byType = Json.object();
+        for (Room.RoomType type : Room.RoomType.values()) {
+            byType.put(type.name(), Json.object()
+                    .put("roomNightsAvailable", report.getRoomNightsAvailable(type))
+                    .put("roomNightsSold", report.getRoomNightsSold(type))
+                    .put("occupancyRate", report.getOccupancyRate(type))
+                    .put("revenue", report.getRevenue(type))
+                    .put("adr", report.getAdr(type))
+                    .put("revPar", report.getRevPar(type)));
+        }
+        List<Object> byFloor = new ArrayList<>();
+        for (RevenueReport.Floor floor : report.getFloors()) {
+            byFloor.add(Json.object()
+                    .put("property", floor.getProperty())
+                    .put("floor", floor.getFloor())
+                    .put("roomNightsAvailable", report.getRoomNightsAvailable(floor))
+                    .put("roomNightsSold", report.getRoomNightsSold(floor))
+                    .put("occupancyRate", report.getOccupancyRate(floor))
+                    .put("revenue", report.getRevenue(floor))
+                    .put("adr", report.getAdr(floor))
+                    .put("revPar", report.getRevPar(floor)));
+        }
+        List<Object> byDay = new ArrayList<>(report.getDays());
+        for (LocalDate day = report.getFrom(); day.isBefore(report.getTo()); day = day.plusDays(1)) {
+            byDay.add(Json.object()
+                    .put("date", day.toString())
+                    .put("roomNightsSold", report.getRoomNightsSold(day))
+                    .put("occupancyRate", report.getOccupancyRate(day))
+                    .put("revenue", report.getRevenue(day))
+                    .put("revPar", report.getRevPar(day)));
+        }
+        send(exchange, 200, Json.object()
+                .put("from", report.getFrom().toString())
+                .put("to", report.getTo().toString())
+                .put("roomNightsAvailable", report.getRoomNightsAvailable())
+                .put("roomNightsSold", report.getRoomNightsSold())
+                .put("occupancyRate", report.getOccupancyRate())
+                .put("revenue", report.getRevenue())
+                .put("adr", report.getAdr())
+                .put("revPar", report.getRevPar())
+                .put("byType", byType)
+                .put("byFloor", byFloor)
+                .put("byDay", byDay)
+                .toString());
+    }
+
+    // Métricas de los controladores en el formato de texto de Metrics.writeReport
+    private void handleMetrics(HttpExchange exchange, String method, String[] path) throws IOException {
+        requireMethod(method, "GET");
+        if (path.length != 1) {
+            throw new NotFoundException("Recurso no encontrado");
+        }
+        byte[] bytes = reserveController.getMetrics().generateReport().getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "text/plain; charset=utf-8");
+        exchange.sendResponseHeaders(200, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private void handleClients(HttpExchange exchange, String method, String[] path, Map<String, String> query)
+            throws IOException {
+        if (path.length == 1 && "POST".equals(method)) {
+            Map<String, String> body = readBody(exchange);
+            Client client = clientController.createClient(body.get("fullName"));
+            send(exchange, 201, toJson(client).toString());
+            return;
+        }
+
+        requireMethod(method, "GET");
+        if (path.length == 1) {
+            // ?name= nombre exacto, ?prefix= para autocompletar, ?search= tolerante a errores
+            // Sin ninguno de ellos, página de clientes en orden de alta (?cursor=&limit=)
+            int limit = query.containsKey("limit") ? parseInt(query.get("limit"), "limit") : DEFAULT_SEARCH_LIMIT;
+            List<Client> matches;
+            if (query.containsKey("name")) {
+                matches = clientController.findClientsByName(query.get("name"));
+            } else if (query.containsKey("prefix")) {
+                matches = clientController.findClientsByPrefix(query.get("prefix"), limit);
+            } else if (query.containsKey("search")) {
+                matches = clientController.searchClients(query.get("search"), limit);
+            } else {
+                Page<Client> page = clientController.getClients(null, query.get("cursor"), pageSize(query));
+                List<Object> clients = new ArrayList<>(page.getItems().size());
+                for (Client client : page.getItems()) {
+                    clients.add(toJson(client));
+                }
+                send(exchange, 200, toJsonPage(clients, page));
+                return;
+            }
+            List<Object> clients = new ArrayList<>();
+            for (Client client : matches) {
+                clients.add(toJson(client));
+            }
+            send(exchange, 200, Json.array(clients));
+            return;
+        }
+
+        Client client = clientController.getClientById(parsePathId(path[1], "Cliente no encontrado"));
+        if (client == null) {
+            throw new NotFoundException("Cliente no encontrado");
+        }
+        if (path.length == 2) {
+            send(exchange, 200, toJson(client).toString());
+        } else if (path.length == 3 && "reservations".equals(path[2])) {
+            List<Reservation> reservations = Boolean.parseBoolean(query.get("history"))
+                    ? clientController.getClientReservationHistory(client.getId())
+                    : clientController.getClientActiveReservations(client.getId());
+            send(exchange, 200, Json.array(toJsonReservations(reservations)));
+        } else {
+            throw new NotFoundException("Recurso no encontrado");
+        }
+    }
+
+    private void handleReservations(HttpExchange exchange, String method, String[] path, Map<String, String> query)
+            throws IOException, ReservaNoDisponibleException {
+        if (path.length == 1 && "GET".equals(method)) {
+            Page<Reservation> page = reserveController.getReservations(reservationFilter(query), query.get("cursor"),
+                    pageSize(query));
+            send(exchange, 200, toJsonPage(toJsonReservations(page.getItems()), page));
+            return;
+        }
+        if (path.length == 1) {
+            requireMethod(method, "POST");
+            Map<String, String> body = readBody(exchange);
+            Reservation reservation = reserveController.createReservation(EntityId.parse(body.get("clientId")),
+                    parseInt(body.get("roomNumber"), "roomNumber"),
+                    parseDate(body.get("checkIn")), parseDate(body.get("checkOut")));
+            send(exchange, 201, toJson(reservation).toString());
+            return;
+        }
+
+        EntityId reservationId = parsePathId(path[1], "Reserva no encontrada");
+        if (path.length == 2) {
+            requireMethod(method, "GET");
+            Reservation reservation = reserveController.getReservationById(reservationId);
+            if (reservation == null) {
+                throw new NotFoundException("Reserva no encontrada");
+            }
+            send(exchange, 200, toJson(reservation).toString());
+            return;
+        }
+
+        requireMethod(method, "POST");
+        if (path.length != 3) {
+            throw new NotFoundException("Recurso no encontrado");
+        }
+        if (reserveController.getReservationById(reservationId) == null) {
+            throw new NotFoundException("Reserva no encontrada");
+        }
+        switch (path[2]) {
+            case "cancel" -> reserveController.cancelReservation(reservationId);
+            case "checkin" -> reserveController.checkIn(reservationId);
+            case "checkout" -> reserveController.checkOut(reservationId);
+            default -> throw new NotFoundException("Recurso no encontrado");
+        }
+        send(exchange, 200, toJson(reserveController.getReservationById(reservationId)).toString());
+    }
+
+    // ?from=&to= (reservas con alguna noche en ese intervalo), ?room=, ?clientId=, ?status= (de la
+    // reserva), ?cancelled=true|false; los que se indiquen se combinan
+    private static Predicate<Reservation> reservationFilter(Map<String, String> query) {
+        Predicate<Reservation> filter = reservation -> true;
+        if (query.containsKey("from") || query.containsKey("to")) {
+            LocalDate from = query.containsKey("from") ? parseDate(query.get("from")) : null;
+            LocalDate to = query.containsKey("to") ? parseDate(query.get("to")) : null;
+            filter = filter.and(ReservationFilters.stayingBetween(from, to));
+        }
+        if (query.containsKey("room")) {
+            filter = filter.and(ReservationFilters.forRoom(parseInt(query.get("room"), "room")));
+        }
+        if (query.containsKey("clientId")) {
+            filter = filter.and(ReservationFilters.forClient(EntityId.parse(query.get("clientId"))));
+        }
+        if (query.containsKey("status")) {
+            filter = filter.and(ReservationFilters.withStatus(
+                    Reservation.Status.valueOf(query.get("status").toUpperCase(Locale.ROOT))));
+        }
+        if (query.containsKey("cancelled")) {
+            filter = filter.and(ReservationFilters.cancelled(Boolean.parseBoolean(query.get("cancelled"))));
+        }
+        return filter;
+    }
+
+    private static int pageSize(Map<String, String> query) {
+        return query.containsKey("limit") ? parseInt(query.get("limit"), "limit") : DEFAULT_PAGE_SIZE;
+    }
+
+    private static String toJsonPage(List<Object> items, Page<?> page) {
+        return Json.object()
+                .put("items", items)
+                .put("nextCursor", page.getNextCursor())
+                .toString();
+    }
+
+    private static Json.ObjectBuilder toJson(Room room) {
+        // Estado y versión de la misma lectura
+        long stamp = room.getStatusStamp();
+        return Json.object()
+                .put("number", room.getRoomNumber())
+                .put("property", room.getProperty())
+                .put("floor", room.getFloor())
+                .put("type", room.getType().name())
+                .put("status", Room.statusOf(stamp).name())
+                .put("statusVersion", Room.versionOf(stamp))
+                .put("basePricePerNight", room.getBasePricePerNight());
+    }
+
+    private static Json.ObjectBuilder toJson(Client client) {
+        return Json.object()
+                .put("id", client.getId())
+                .put("fullName", client.getFullName());
+    }
+
+    private static Json.ObjectBuilder toJson(Reservation reservation) {
+        return Json.object()
+                .put("id", reservation.getId())
+                .put("clientId", reservation.getClient().getId())
+                .put("roomNumber", reservation.getRoom().getRoomNumber())
+                .put("checkIn", reservation.getCheckInDate().toString())
+                .put("checkOut", reservation.getCheckOutDate().toString())
+                .put("nights", reservation.getDurationInDays())
+                .put("totalPrice", reservation.getTotalPrice())
+                .put("status", reservation.getStatus().name())
+                .put("cancelled", reservation.isCancelled());
+    }
+
+    private static List<Object> toJsonRooms(List<Room> rooms) {
+        List<Object> result = new ArrayList<>(rooms.size());
+        for (Room room : rooms) {
+            result.add(toJson(room));
+        }
+        return result;
+    }
+
+    private static List<Object> toJsonReservations(List<Reservation> reservations) {
+        List<Object> result = new ArrayList<>(reservations.size());
+        for (Reservation reservation : reservations) {
+            result.add(toJson(reservation));
+        }
+        return result;
+    }
+
+    private static String error(String message) {
+        return Json.object().put("error", message).toString();
+    }
+
+    private static void send(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private static Map<String, String> readBody(HttpExchange exchange) throws IOException {
+        String length = exchange.getRequestHeaders().getFirst("Content-Length");
+        if (length != null && length.length() > 0 && Long.parseLong(length.trim()) > MAX_BODY_BYTES) {
+            throw new PayloadTooLargeException();
+        }
+        try (InputStream in = exchange.getRequestBody()) {
+            // Sin Content-Length (chunked) se lee como mucho un byte más del límite
+            byte[] bytes = in.readNBytes(MAX_BODY_BYTES + 1);
+            if (bytes.length > MAX_BODY_BYTES) {
+                throw new PayloadTooLargeException();
+            }
+            String body = new String(bytes, StandardCharsets.UTF_8).trim();
+            if (body.isEmpty()) {
+                return new HashMap<>();
+            }
+            // JSON si el cuerpo es un objeto; si no, formulario (clave=valor&...)
+            return body.startsWith("{") ? Json.parseFlatObject(body) : parseQuery(body);
+        }
+    }
+
+    private static void requireMethod(String method, String expected) {
+        if (!expected.equals(method)) {
+            throw new IllegalArgumentException("Método no permitido: " + method);
+        }
+    }
+
+    private static String[] splitPath(String path) {
+        String trimmed = path.replaceAll("^/+|/+$", "");
+        return trimmed.isEmpty() ? new String[0] : trimmed.split("/+");
+    }
+
+    private static Map<String, String> parseQuery(String query) {
+        Map<String, String> result = new HashMap<>();
+        if (query == null || query.isEmpty()) {
+            return result;
+        }
+        for (String pair : query.split("&")) {
+            int separator = pair.indexOf('=');
+            String key = separator < 0 ? pair : pair.substring(0, separator);
+            String value = separator < 0 ? "" : pair.substring(separator + 1);
+            result.put(URLDecoder.decode(key, StandardCharsets.UTF_8), URLDecoder.decode(value, StandardCharsets.UTF_8));
+        }
+        return result;
+    }
+
+    private static Room.RoomType parseType(String value) {
+        return Room.RoomType.valueOf(value.toUpperCase(Locale.ROOT));
+    }
+
+    private static LocalDate parseDate(String value) {
+        if (value == null) {
+            throw new IllegalArgumentException("Las fechas no pueden ser nulas");
+        }
+        return LocalDate.parse(value);
+    }
+
+    // Un ID mal formado en la ruta no puede corresponder a ningún recurso
+    private static EntityId parsePathId(String value, String notFoundMessage) {
+        try {
+            return EntityId.parse(value);
+        } catch (IllegalArgumentException e) {
+            throw new NotFoundException(notFoundMessage);
+        }
+    }
+
+    // Precio en euros (con hasta dos decimales) a céntimos
+    private static long parsePriceCents(String value) {
+        try {
+            return new BigDecimal(value).movePointRight(2).longValueExact();
+        } catch (NullPointerException | ArithmeticException | NumberFormatException e) {
+            throw new IllegalArgumentException("Valor no válido para price: " + value);
+        }
+    }
+
+    private static int parseInt(String value, String name) {
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Valor no válido para " + name + ": " + value);
+        }
+    }
+
+    private static class NotFoundException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        NotFoundException(String message) {
+            super(message);
+        }
+    }
+
+    private static class PayloadTooLargeException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        PayloadTooLargeException() {
+            super("El cuerpo de la petición no puede superar los " + MAX_BODY_BYTES + " bytes");
+        }
+    }
+}
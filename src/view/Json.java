@@ -0,0 +1,206 @@
+package view;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Utilidades mínimas de JSON para la API HTTP: escritura de objetos y listas, y lectura de
+// objetos planos ({"clave": "valor" | número | true | false | null}) en los cuerpos de petición.
+public final class Json {
+
+    private Json() {
+    }
+
+    // Constructor de objetos JSON; los valores pueden ser String, Number, Boolean, null,
+    // otro Json.ObjectBuilder o una colección de ellos
+    public static ObjectBuilder object() {
+        return new ObjectBuilder();
+    }
+
+    public static String array(Collection<?> values) {
+        StringBuilder out = new StringBuilder();
+        writeValue(out, values);
+        return out.toString();
+    }
+
+    public static final class ObjectBuilder {
+        private final Map<String, Object> fields = new LinkedHashMap<>();
+
+        public ObjectBuilder put(String name, Object value) {
+            fields.put(name, value);
+            return this;
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder out = new StringBuilder();
+            writeValue(out, this);
+            return out.toString();
+        }
+    }
+
+    private static void writeValue(StringBuilder out, Object value) {
+        if (value == null) {
+            out.append("null");
+        } else if (value instanceof Number || value instanceof Boolean) {
+            out.append(value);
+        } else if (value instanceof ObjectBuilder builder) {
+            out.append('{');
+            boolean first = true;
+            for (Map.Entry<String, Object> field : builder.fields.entrySet()) {
+                if (!first) {
+                    out.append(',');
+                }
+                first = false;
+                writeString(out, field.getKey());
+                out.append(':');
+                writeValue(out, field.getValue());
+            }
+            out.append('}');
+        } else if (value instanceof Collection<?> values) {
+            out.append('[');
+            boolean first = true;
+            for (Object element : values) {
+                if (!first) {
+                    out.append(',');
+                }
+                first = false;
+                writeValue(out, element);
+            }
+            out.append(']');
+        } else {
+            writeString(out, value.toString());
+        }
+    }
+
+    private static void writeString(StringBuilder out, String value) {
+        out.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> out.append("\\\"");
+                case '\\' -> out.append("\\\\");
+                case '\n' -> out.append("\\n");
+                case '\r' -> out.append("\\r");
+                case '\t' -> out.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        out.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        out.append(c);
+                    }
+                }
+            }
+        }
+        out.append('"');
+    }
+
+    // Lee un objeto JSON plano; los valores se devuelven como texto (null si el valor es null)
+    public static Map<String, String> parseFlatObject(String text) {
+        Map<String, String> result = new LinkedHashMap<>();
+        Parser parser = new Parser(text);
+        parser.skipWhitespace();
+        parser.expect('{');
+        parser.skipWhitespace();
+        if (parser.peek() == '}') {
+            parser.next();
+            return result;
+        }
+        while (true) {
+            parser.skipWhitespace();
+            String key = parser.readString();
+            parser.skipWhitespace();
+            parser.expect(':');
+            parser.skipWhitespace();
+            result.put(key, parser.readScalar());
+            parser.skipWhitespace();
+            char c = parser.next();
+            if (c == '}') {
+                return result;
+            }
+            if (c != ',') {
+                throw new IllegalArgumentException("JSON no válido: se esperaba ',' o '}'");
+            }
+        }
+    }
+
+    private static final class Parser {
+        private final String text;
+        private int position;
+
+        Parser(String text) {
+            this.text = text;
+        }
+
+        char peek() {
+            if (position >= text.length()) {
+                throw new IllegalArgumentException("JSON no válido: fin inesperado");
+            }
+            return text.charAt(position);
+        }
+
+        char next() {
+            char c = peek();
+            position++;
+            return c;
+        }
+
+        void expect(char expected) {
+            if (next() != expected) {
+                throw new IllegalArgumentException("JSON no válido: se esperaba '" + expected + "'");
+            }
+        }
+
+        void skipWhitespace() {
+            while (position < text.length() && Character.isWhitespace(text.charAt(position))) {
+                position++;
+            }
+        }
+
+        String readScalar() {
+            if (peek() == '"') {
+                return readString();
+            }
+            int start = position;
+            while (position < text.length() && ",} \t\r\n".indexOf(text.charAt(position)) < 0) {
+                position++;
+            }
+            String literal = text.substring(start, position);
+            if (literal.isEmpty() || literal.startsWith("{") || literal.startsWith("[")) {
+                throw new IllegalArgumentException("JSON no válido: solo se admiten objetos planos");
+            }
+            return "null".equals(literal) ? null : literal;
+        }
+
+        String readString() {
+            expect('"');
+            StringBuilder value = new StringBuilder();
+            while (true) {
+                char c = next();
+                if (c == '"') {
+                    return value.toString();
+                }
+                if (c != '\\') {
+                    value.append(c);
+                    continue;
+                }
+                char escaped = next();
+                switch (escaped) {
+                    case 'n' -> value.append('\n');
+                    case 'r' -> value.append('\r');
+                    case 't' -> value.append('\t');
+                    case 'b' -> value.append('\b');
+                    case 'f' -> value.append('\f');
+                    case 'u' -> {
+                        if (position + 4 > text.length()) {
+                            throw new IllegalArgumentException("JSON no válido: escape incompleto");
+                        }
+                        value.append((char) Integer.parseInt(text.substring(position, position + 4), 16));
+                        position += 4;
+                    }
+                    default -> value.append(escaped);
+                }
+            }
+        }
+    }
+}
@@ -1,37 +1,128 @@
 package view;
 
+import controller.AnalyticsController;
 import controller.ClientController;
+import controller.DayRolloverScheduler;
+import controller.Page;
 import controller.ReserveController;
 import controller.RoomController;
+import events.EventBus;
+import metrics.Metrics;
 import model.*;
-
+import persistence.Journal;
+import persistence.JournalReplayer;
+import persistence.ReservationArchive;
+import persistence.RoomInventory;
+import persistence.Snapshot;
+import persistence.SnapshotService;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
 import java.util.List;
 import java.util.Scanner;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Consumer;
+import java.util.function.Function;
 
 public class Main {
     private static final Scanner scanner = new Scanner(System.in);
-    private static final RoomController roomController = new RoomController();
-    private static final ClientController clientController = new ClientController();
-    private static final ReserveController reserveController = new ReserveController(roomController, clientController);
+    private static final Metrics metrics = new Metrics();
+    private static final BusinessClock clock = BusinessClock.system();
+    // Inventario de habitaciones en CSV (-Dhotel.rooms=fichero); sin él se usan las 15 de ejemplo
+    private static final String roomsFile = System.getProperty("hotel.rooms");
+    private static final RoomController roomController = new RoomController(metrics, roomsFile == null);
+    private static final ClientController clientController = new ClientController(metrics, clock);
+    private static final ReserveController reserveController = new ReserveController(roomController, clientController,
+            metrics);
+    private static final AnalyticsController analyticsController = new AnalyticsController(roomController,
+            reserveController, metrics);
+    private static final int PAGE_SIZE = 20;
     private static final DateTimeFormatter dateFormatter = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+    private static final Path journalPath = Path.of(System.getProperty("hotel.journal", "hotel.journal"));
+    private static final Path snapshotPath = Path.of(System.getProperty("hotel.snapshot", "hotel.snapshot"));
+    private static final long snapshotMinutes = Long.getLong("hotel.snapshot.minutes", 10);
+    private static final Path archivePath = Path.of(System.getProperty("hotel.archive", "hotel-archive"));
+    private static final int archiveDays = Integer.getInteger("hotel.archive.days", 30);
+
+    public static void main(String[] args) throws IOException {
+        if (roomsFile != null) {
+            long start = System.nanoTime();
+            int count = RoomInventory.load(Path.of(roomsFile), roomController);
+            System.out.printf("%d habitaciones cargadas de %s en %d ms%n", count, roomsFile,
+                    (System.nanoTime() - start) / 1_000_000);
+        }
+
+        // Modo por lotes: --batch=fichero (o --batch=- para la entrada estándar)
+        // Modo servidor: --http=puerto expone la API HTTP/JSON en lugar del menú
+        int httpPort = -1;
+        for (String arg : args) {
+            if (arg.startsWith("--batch=")) {
+                runBatch(arg.substring("--batch=".length()));
+                return;
+            }
+            if (arg.startsWith("--http=")) {
+                httpPort = Integer.parseInt(arg.substring("--http=".length()));
+            }
+        }
 
-    public static void main(String[] args) {
         System.out.println("SISTEMA DE GESTIÓN DE HOTEL");
         System.out.println("===========================");
 
-        // Crear algunos clientes de ejemplo
-        clientController.createClient("Juan Pérez");
-        clientController.createClient("María López");
+        // Recuperar el estado: última instantánea y después los eventos posteriores del diario
+        // El archivo se abre antes para que no se vuelvan a cargar las reservas ya archivadas
+        long start = System.nanoTime();
+        ReservationArchive archive = ReservationArchive.open(archivePath);
+        reserveController.setArchive(archive, archiveDays);
+        long snapshotSequence = Snapshot.load(snapshotPath, roomController, clientController, reserveController);
+        JournalReplayer replayer = new JournalReplayer(clientController, reserveController);
+        Journal journal = Journal.open(journalPath, replayer, snapshotSequence);
+        if (snapshotSequence > 0 || replayer.getEventCount() > 0) {
+            System.out.printf("Estado recuperado (instantánea hasta el evento %d y %d eventos del diario) en %d ms%n",
+                    snapshotSequence, replayer.getEventCount(), (System.nanoTime() - start) / 1_000_000);
+        }
+        clientController.setJournal(journal);
+        reserveController.setJournal(journal);
+
+        // Los cambios posteriores a la recuperación se publican para los consumidores internos
+        EventBus eventBus = new EventBus(EventBus.DEFAULT_CAPACITY, metrics);
+        roomController.setEventBus(eventBus);
+        reserveController.setEventBus(eventBus);
+
+        // Lo recuperado puede incluir reservas ya terminadas; después, cada medianoche
+        reserveController.removeEndedBookings(clock.today());
+        clientController.expireReservations(clock.today());
+        reserveController.archiveReservations(clock.today());
+        DayRolloverScheduler rollover = new DayRolloverScheduler(clock);
+        rollover.start();
+
+        SnapshotService snapshots = new SnapshotService(snapshotPath, journal, roomController, clientController,
+                reserveController);
+        snapshots.scheduleEvery(Duration.ofMinutes(snapshotMinutes));
+
+        // Crear algunos clientes de ejemplo la primera vez
+        if (snapshotSequence == 0 && replayer.getEventCount() == 0) {
+            clientController.createClient("Juan Pérez");
+            clientController.createClient("María López");
+        }
+
+        if (httpPort >= 0) {
+            runHttpServer(httpPort, snapshots, eventBus, journal, archive);
+            return;
+        }
 
         boolean running = true;
 
         while (running) {
             displayMainMenu();
-            System.out.println("Seleccione una opción: ");
-            int option = scanner.nextInt();
+            int option = readIntegerInput("Seleccione una opción: ");
 
             switch (option) {
                 case 1:
@@ -53,6 +144,61 @@ public class Main {
         }
 
         scanner.close();
+
+        // Instantánea final para que el próximo arranque no tenga que reproducir el diario
+        try {
+            snapshots.snapshotNow().get();
+        } catch (InterruptedException | ExecutionException e) {
+            System.out.println("No se pudo guardar la instantánea final: " + e.getMessage());
+        }
+        rollover.close();
+        snapshots.close();
+        eventBus.close();
+        journal.close();
+        archive.close();
+    }
+
+    // Atiende la API HTTP hasta que se detiene el proceso; al salir guarda la instantánea final
+    private static void runHttpServer(int port, SnapshotService snapshots, EventBus eventBus, Journal journal,
+                                      ReservationArchive archive) throws IOException {
+        // TCP_NODELAY para las respuestas pequeñas (ver HotelHttpServer); la JVM lee la propiedad al
+        // crear el primer servidor, así que se fija antes, sin pisar un -D explícito
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+        HotelHttpServer server = new HotelHttpServer(roomController, clientController, reserveController);
+        server.start(port);
+        System.out.println("API HTTP escuchando en el puerto " + server.getPort());
+
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            server.stop();
+            try {
+                snapshots.snapshotNow().get();
+            } catch (InterruptedException | ExecutionException e) {
+                System.out.println("No se pudo guardar la instantánea final: " + e.getMessage());
+            }
+            snapshots.close();
+            eventBus.close();
+            try {
+                journal.close();
+            } catch (IOException e) {
+                System.out.println("No se pudo cerrar el diario: " + e.getMessage());
+            }
+            archive.close();
+        }));
+    }
+
+    // Ejecuta las operaciones del fichero sobre un hotel en memoria (sin diario ni instantáneas)
+    private static void runBatch(String source) throws IOException {
+        BatchRunner runner = new BatchRunner(roomController, clientController, reserveController, System.err);
+        try (Reader reader = "-".equals(source)
+                ? new InputStreamReader(System.in, StandardCharsets.UTF_8)
+                : Files.newBufferedReader(Path.of(source), StandardCharsets.UTF_8)) {
+            long elapsed = runner.run(reader);
+            runner.printReport(System.out, elapsed);
+            System.out.println("\nMétricas de los controladores:");
+            metrics.writeReport(System.out);
+        }
     }
 
     private static void displayMainMenu() {
@@ -74,10 +220,10 @@ public class Main {
             System.out.println("3. Buscar habitaciones por tipo");
             System.out.println("4. Buscar habitaciones por estado");
             System.out.println("5. Ver resumen de habitaciones");
-            System.out.println("6. Volver al menú principal");
+            System.out.println("6. Ver informe de ocupación e ingresos");
+            System.out.println("7. Volver al menú principal");
             System.out.println("\n");
-            System.out.println("Seleccione una opción: ");
-            int option = scanner.nextInt();
+            int option = readIntegerInput("Seleccione una opción: ");
 
             switch (option) {
                 case 1:
@@ -96,6 +242,9 @@ public class Main {
                     displayRoomSummary();
                     break;
                 case 6:
+                    displayRevenueReport();
+                    break;
+                case 7:
                     back = true;
                     break;
                 default:
@@ -191,7 +340,26 @@ public class Main {
     }
 
     private static void displayRoomSummary() {
-        System.out.println("\n" + roomController.generateRoomSummary());
+        System.out.println();
+        try {
+            roomController.writeRoomSummary(System.out);
+        } catch (IOException e) {
+            System.out.println("Error al mostrar el resumen: " + e.getMessage());
+        }
+        System.out.println();
+    }
+
+    private static void displayRevenueReport() {
+        System.out.println("\nINFORME DE OCUPACIÓN E INGRESOS");
+        LocalDate from = readDateInput("Primera noche (dd/MM/yyyy): ");
+        LocalDate to = readDateInput("Última noche (dd/MM/yyyy): ").plusDays(1);
+        System.out.println();
+        try {
+            analyticsController.writeRevenueReport(System.out, analyticsController.generateRevenueReport(from, to));
+        } catch (IllegalArgumentException | IOException e) {
+            System.out.println("Error al generar el informe: " + e.getMessage());
+        }
+        System.out.println();
     }
 
     // Gestión de Clientes
@@ -244,13 +412,8 @@ public class Main {
 
     private static void displayAllClients() {
         System.out.println("\nTODOS LOS CLIENTES");
-        List<Client> clients = clientController.getAllClients();
-
-        if (clients.isEmpty()) {
-            System.out.println("No hay clientes registrados.");
-        } else {
-            clients.forEach(System.out::println);
-        }
+        printPages(cursor -> clientController.getClients(null, cursor, PAGE_SIZE), System.out::println,
+                "No hay clientes registrados.");
     }
 
     private static void registerNewClient() {
@@ -268,8 +431,7 @@ public class Main {
 
     private static void searchClientById() {
         System.out.println("\nBÚSQUEDA DE CLIENTE POR ID");
-        System.out.print("Ingrese el ID del cliente: ");
-        String id = scanner.nextLine();
+        EntityId id = readIdInput("Ingrese el ID del cliente: ");
 
         Client client = clientController.getClientById(id);
         if (client != null) {
@@ -285,19 +447,29 @@ public class Main {
         System.out.print("Ingrese el nombre del cliente: ");
         String name = scanner.nextLine();
 
-        Client client = clientController.getClientByName(name);
-        if (client != null) {
-            System.out.println("Cliente encontrado:");
-            System.out.println(client);
-        } else {
+        List<Client> clients = clientController.findClientsByName(name);
+        if (!clients.isEmpty()) {
+            System.out.println(clients.size() == 1 ? "Cliente encontrado:" : "Clientes encontrados:");
+            clients.forEach(System.out::println);
+            return;
+        }
+
+        // Sin coincidencia exacta: se proponen nombres parecidos o que empiecen igual
+        List<Client> suggestions = clientController.searchClients(name, 10);
+        if (suggestions.isEmpty()) {
+            suggestions = clientController.findClientsByPrefix(name, 10);
+        }
+        if (suggestions.isEmpty()) {
             System.out.println("Cliente no encontrado.");
+        } else {
+            System.out.println("Cliente no encontrado. ¿Quizá buscaba alguno de estos?");
+            suggestions.forEach(System.out::println);
         }
     }
 
     private static void viewClientActiveReservations() {
         System.out.println("\nRESERVAS ACTIVAS DE CLIENTE");
-        System.out.print("Ingrese el ID del cliente: ");
-        String id = scanner.nextLine();
+        EntityId id = readIdInput("Ingrese el ID del cliente: ");
 
         List<Reservation> reservations = clientController.getClientActiveReservations(id);
         if (reservations.isEmpty()) {
@@ -313,8 +485,7 @@ public class Main {
 
     private static void viewClientReservationHistory() {
         System.out.println("\nHISTORIAL DE RESERVAS DE CLIENTE");
-        System.out.print("Ingrese el ID del cliente: ");
-        String id = scanner.nextLine();
+        EntityId id = readIdInput("Ingrese el ID del cliente: ");
 
         List<Reservation> reservations = clientController.getClientReservationHistory(id);
         if (reservations.isEmpty()) {
@@ -329,7 +500,13 @@ public class Main {
     }
 
     private static void displayClientSummary() {
-        System.out.println("\n" + clientController.generateClientSummary());
+        System.out.println();
+        try {
+            clientController.writeClientSummary(System.out);
+        } catch (IOException e) {
+            System.out.println("Error al mostrar el resumen: " + e.getMessage());
+        }
+        System.out.println();
     }
 
     // Gestión de Reservas
@@ -378,16 +555,10 @@ public class Main {
 
     private static void displayAllReservations() {
         System.out.println("\nTODAS LAS RESERVAS");
-        List<Reservation> reservations = reserveController.getAllReservations();
-
-        if (reservations.isEmpty()) {
-            System.out.println("No hay reservas registradas.");
-        } else {
-            reservations.forEach(reservation -> {
-                System.out.println("-------------------------------");
-                System.out.println(reservation);
-            });
-        }
+        printPages(cursor -> reserveController.getReservations(null, cursor, PAGE_SIZE), reservation -> {
+            System.out.println("-------------------------------");
+            System.out.println(reservation);
+        }, "No hay reservas registradas.");
     }
 
     private static void createNewReservation() {
@@ -395,34 +566,38 @@ public class Main {
 
         // Mostrar lista de clientes
         System.out.println("Clientes disponibles:");
-        List<Client> clients = clientController.getAllClients();
-        if (clients.isEmpty()) {
-            System.out.println("No hay clientes registrados. Registre un cliente primero.");
+        if (!printPages(cursor -> clientController.getClients(null, cursor, PAGE_SIZE), System.out::println,
+                "No hay clientes registrados. Registre un cliente primero.")) {
             return;
         }
 
-        for (Client client : clients) {
-            System.out.println(client);
-        }
-
         // Seleccionar cliente
-        System.out.print("Ingrese el ID del cliente: ");
-        String clientId = scanner.nextLine();
+        EntityId clientId = readIdInput("Ingrese el ID del cliente: ");
 
         if (!clientController.canClientMakeReservation(clientId)) {
             System.out.println("El cliente ya tiene el máximo de reservas activas o no existe.");
             return;
         }
 
-        // Mostrar habitaciones disponibles
-        System.out.println("\nHabitaciones disponibles:");
-        List<Room> availableRooms = roomController.getRoomsByStatus(Room.RoomStatus.DISPONIBLE);
+        // Ingresar fechas
+        LocalDate checkInDate = readDateInput("Ingrese fecha de check-in (dd/MM/yyyy): ");
+        LocalDate checkOutDate = readDateInput("Ingrese fecha de check-out (dd/MM/yyyy): ");
+
+        // Mostrar habitaciones libres en esas fechas
+        List<Room> availableRooms;
+        try {
+            availableRooms = reserveController.findAvailableRooms(null, checkInDate, checkOutDate);
+        } catch (IllegalArgumentException e) {
+            System.out.println("Error al crear la reserva: " + e.getMessage());
+            return;
+        }
 
         if (availableRooms.isEmpty()) {
-            System.out.println("No hay habitaciones disponibles.");
+            System.out.println("No hay habitaciones disponibles en esas fechas.");
             return;
         }
 
+        System.out.println("\nHabitaciones disponibles:");
         for (Room room : availableRooms) {
             System.out.println(room);
         }
@@ -430,10 +605,6 @@ public class Main {
         // Seleccionar habitación
         int roomNumber = readIntegerInput("Ingrese el número de habitación: ");
 
-        // Ingresar fechas
-        LocalDate checkInDate = readDateInput("Ingrese fecha de check-in (dd/MM/yyyy): ");
-        LocalDate checkOutDate = readDateInput("Ingrese fecha de check-out (dd/MM/yyyy): ");
-
         // Crear reserva
         try {
             Reservation reservation = reserveController.createReservation(clientId, roomNumber, checkInDate, checkOutDate);
@@ -446,8 +617,7 @@ public class Main {
 
     private static void cancelReservation() {
         System.out.println("\nCANCELACIÓN DE RESERVA");
-        System.out.print("Ingrese el ID de la reserva: ");
-        String reservationId = scanner.nextLine();
+        EntityId reservationId = readIdInput("Ingrese el ID de la reserva: ");
 
         try {
             reserveController.cancelReservation(reservationId);
@@ -459,8 +629,7 @@ public class Main {
 
     private static void searchReservationById() {
         System.out.println("\nBÚSQUEDA DE RESERVA POR ID");
-        System.out.print("Ingrese el ID de la reserva: ");
-        String reservationId = scanner.nextLine();
+        EntityId reservationId = readIdInput("Ingrese el ID de la reserva: ");
 
         Reservation reservation = reserveController.getReservationById(reservationId);
         if (reservation != null) {
@@ -473,8 +642,7 @@ public class Main {
 
     private static void performCheckIn() {
         System.out.println("\nREALIZAR CHECK-IN");
-        System.out.print("Ingrese el ID de la reserva: ");
-        String reservationId = scanner.nextLine();
+        EntityId reservationId = readIdInput("Ingrese el ID de la reserva: ");
 
         try {
             reserveController.checkIn(reservationId);
@@ -486,8 +654,7 @@ public class Main {
 
     private static void performCheckOut() {
         System.out.println("\nREALIZAR CHECK-OUT");
-        System.out.print("Ingrese el ID de la reserva: ");
-        String reservationId = scanner.nextLine();
+        EntityId reservationId = readIdInput("Ingrese el ID de la reserva: ");
 
         try {
             reserveController.checkOut(reservationId);
@@ -498,6 +665,27 @@ public class Main {
     }
 
     // Utilidades
+
+    // Muestra un listado de PAGE_SIZE en PAGE_SIZE; devuelve false si estaba vacío
+    private static <T> boolean printPages(Function<String, Page<T>> fetch, Consumer<T> printer, String emptyMessage) {
+        Page<T> page = fetch.apply(null);
+        if (page.getItems().isEmpty()) {
+            System.out.println(emptyMessage);
+            return false;
+        }
+        while (true) {
+            page.getItems().forEach(printer);
+            if (!page.hasMore()) {
+                return true;
+            }
+            System.out.print("Pulse Enter para ver más o escriba 'q' para continuar: ");
+            if (scanner.nextLine().trim().equalsIgnoreCase("q")) {
+                return true;
+            }
+            page = fetch.apply(page.getNextCursor());
+        }
+    }
+
     private static int readIntegerInput(String prompt) {
         while (true) {
             System.out.print(prompt);
@@ -509,6 +697,17 @@ public class Main {
         }
     }
 
+    private static EntityId readIdInput(String prompt) {
+        while (true) {
+            System.out.print(prompt);
+            try {
+                return EntityId.parse(scanner.nextLine().trim());
+            } catch (IllegalArgumentException e) {
+                System.out.println("Formato de ID incorrecto.");
+            }
+        }
+    }
+
     private static LocalDate readDateInput(String prompt) {
         while (true) {
             System.out.print(prompt);
@@ -0,0 +1,62 @@
+package controller;
+
+import model.Client;
+import model.RevenueReport;
+import model.Room;
+import testing.Test;
+import testing.TestHotel;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static testing.Assert.assertEquals;
+import static testing.Assert.assertTrue;
+
+public class AnalyticsControllerTest {
+    private final TestHotel hotel = new TestHotel();
+    private final AnalyticsController analytics = new AnalyticsController(hotel.rooms, hotel.reservations,
+            hotel.metrics);
+    private final LocalDate tomorrow = hotel.today().plusDays(1);
+
+    private static void assertClose(double expected, double actual, String message) {
+        assertTrue(Math.abs(expected - actual) < 1e-6, message + ": se esperaba " + expected + " pero fue " + actual);
+    }
+
+    @Test
+    public void eachNightIsValuedAtItsOwnRate() throws Exception {
+        Room room = hotel.rooms.getRoomByNumber(105);
+        hotel.reservations.getRateTable().setRate(Room.RoomType.SUITE, tomorrow.plusDays(1), tomorrow.plusDays(2),
+                30_000);
+        Client ana = hotel.clients.createClient("Ana García");
+        hotel.reservations.createReservation(ana.getId(), 105, tomorrow, tomorrow.plusDays(3));
+
+        RevenueReport report = analytics.generateRevenueReport(tomorrow, tomorrow.plusDays(3));
+        assertClose(150, report.getRevenue(tomorrow), "noche a tarifa base");
+        assertClose(300, report.getRevenue(tomorrow.plusDays(1)), "noche de temporada alta");
+        assertClose(600, report.getRevenue(Room.RoomType.SUITE), "total de la estancia");
+
+        // Una subida posterior cambia el reparto entre noches, no lo que se cobró
+        hotel.reservations.getRateTable().setRate(room, tomorrow, tomorrow.plusDays(3), 60_000);
+        report = analytics.generateRevenueReport(tomorrow, tomorrow.plusDays(3));
+        assertClose(200, report.getRevenue(tomorrow), "reparto con las tarifas actuales");
+        assertClose(600, report.getRevenue(), "sigue sumando lo cobrado");
+    }
+
+    @Test
+    public void floorsOfDifferentPropertiesAreKeptApart() throws Exception {
+        hotel.rooms.addRoom(new Room(10101, Room.RoomType.DOBLE, "Propiedad 1"));
+        hotel.rooms.addRoom(new Room(20101, Room.RoomType.DOBLE, "Propiedad 2"));
+        Client ana = hotel.clients.createClient("Ana García");
+        hotel.reservations.createReservation(ana.getId(), 10101, tomorrow, tomorrow.plusDays(2));
+
+        RevenueReport report = analytics.generateRevenueReport(tomorrow, tomorrow.plusDays(2));
+        List<RevenueReport.Floor> floors = report.getFloors();
+        assertEquals(List.of(RevenueReport.Floor.of(0, 1), RevenueReport.Floor.of(0, 2), RevenueReport.Floor.of(0, 3),
+                RevenueReport.Floor.of(1, 1), RevenueReport.Floor.of(2, 1)), floors, "plantas por propiedad");
+        assertEquals(2, report.getRoomNightsSold(RevenueReport.Floor.of(1, 1)), "vendidas en la propiedad 1");
+        assertEquals(0, report.getRoomNightsSold(RevenueReport.Floor.of(2, 1)), "ninguna en la 2");
+        assertEquals(0, report.getRoomNightsSold(RevenueReport.Floor.of(0, 1)), "ninguna en la 0");
+        assertEquals(10, report.getRoomNightsAvailable(RevenueReport.Floor.of(0, 1)), "5 habitaciones, 2 noches");
+        assertEquals("P1 planta 1", RevenueReport.Floor.of(1, 1).toString(), "etiqueta");
+    }
+}
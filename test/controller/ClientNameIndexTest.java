@@ -0,0 +1,107 @@
+package controller;
+
+import model.Client;
+import testing.Test;
+import testing.TestHotel;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static testing.Assert.assertEquals;
+import static testing.Assert.assertTrue;
+
+public class ClientNameIndexTest {
+    private static final String[] FIRST = {"Ana", "Luis", "María", "José", "Lucía", "Íñigo", "Pilar", "Juan"};
+    private static final String[] LAST = {"García", "Pérez", "Paz", "Sanz", "Ortega", "Gil", "Martínez",
+            "Rodríguez", "Ruiz", "Oliva", "Díaz", "Peña"};
+
+    private final TestHotel hotel = new TestHotel();
+    private final ClientNameIndex index = new ClientNameIndex();
+    private final List<Client> clients = new ArrayList<>();
+
+    private void add(String fullName) {
+        Client client = new Client(fullName, hotel.businessClock);
+        clients.add(client);
+        index.add(client);
+    }
+
+    @Test
+    public void shortQueriesFindTypos() {
+        add("Ana García López");
+        add("Luis Pérez");
+        add("Marta Paz");
+
+        assertEquals(List.of(clients.get(1)), index.search("perz", 10), "4 letras, un borrado");
+        assertEquals(List.of(clients.get(0)), index.search("garica", 10), "trasposición");
+        assertEquals(List.of(), index.search("grcai", 10), "5 letras, dos errores no valen");
+        assertEquals(List.of(clients.get(2)), index.search("marta pax", 10), "nombre completo");
+        assertTrue(index.search("paz", 10).contains(clients.get(2)), "3 letras, sin errores");
+    }
+
+    // Los filtros de candidatos no pueden perder ningún resultado: se compara con la distancia de
+    // edición contra todos los nombres
+    @Test
+    public void searchMatchesAFullScan() {
+        Random random = new Random(42);
+        for (int i = 0; i < 300; i++) {
+            add(FIRST[random.nextInt(FIRST.length)] + " " + LAST[random.nextInt(LAST.length)] + " "
+                    + LAST[random.nextInt(LAST.length)]);
+        }
+        String letters = "abcdeginoprsz ";
+        for (int i = 0; i < 500; i++) {
+            String query = mutate(random, i % 3 == 0 ? clients.get(random.nextInt(clients.size())).getFullName()
+                    : LAST[random.nextInt(LAST.length)], letters);
+            assertEquals(fullScan(query), index.search(query, clients.size()), "consulta \"" + query + "\"");
+        }
+    }
+
+    private static String mutate(Random random, String name, String letters) {
+        StringBuilder result = new StringBuilder(ClientNameIndex.normalize(name));
+        for (int edits = random.nextInt(3); edits > 0 && result.length() > 1; edits--) {
+            int at = random.nextInt(result.length());
+            switch (random.nextInt(4)) {
+                case 0 -> result.deleteCharAt(at);
+                case 1 -> result.insert(at, letters.charAt(random.nextInt(letters.length())));
+                case 2 -> result.setCharAt(at, letters.charAt(random.nextInt(letters.length())));
+                default -> {
+                    if (at + 1 < result.length()) {
+                        char c = result.charAt(at);
+                        result.setCharAt(at, result.charAt(at + 1));
+                        result.setCharAt(at + 1, c);
+                    }
+                }
+            }
+        }
+        return result.toString();
+    }
+
+    // Mismo criterio que search, comparando con cada cliente
+    private List<Client> fullScan(String query) {
+        String key = ClientNameIndex.normalize(query);
+        String[] queryWords = key.isEmpty() ? new String[0] : key.split(" ");
+        int letters = key.length() - (queryWords.length - 1);
+        List<Client> result = new ArrayList<>();
+        if (letters <= 0) {
+            return result;
+        }
+        int maxEdits = letters >= 7 ? 2 : letters >= 4 ? 1 : 0;
+        for (int distance = 0; distance <= maxEdits; distance++) {
+            for (Client client : clients) {
+                String name = ClientNameIndex.normalize(client.getFullName());
+                int best = maxEdits + 1;
+                if (queryWords.length == 1) {
+                    for (String word : name.split(" ")) {
+                        best = Math.min(best, ClientNameIndex.editDistance(key, word, maxEdits));
+                    }
+                } else {
+                    best = ClientNameIndex.editDistance(key, name, maxEdits);
+                }
+                if (best == distance && !result.contains(client)) {
+                    result.add(client);
+                }
+            }
+        }
+        return result;
+    }
+}
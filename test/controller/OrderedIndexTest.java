@@ -0,0 +1,58 @@
+package controller;
+
+import testing.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static testing.Assert.assertEquals;
+import static testing.Assert.assertNotNull;
+import static testing.Assert.assertNull;
+import static testing.Assert.assertThrows;
+
+public class OrderedIndexTest {
+
+    @Test
+    public void pagesFollowInsertionOrder() {
+        OrderedIndex<Integer> index = new OrderedIndex<>();
+        for (int i = 0; i < 5; i++) {
+            index.add(i);
+        }
+
+        Page<Integer> first = index.page(null, null, 2);
+        assertEquals(List.of(0, 1), first.getItems(), "primera página");
+        index.removeIf(value -> value == 2);
+        Page<Integer> second = index.page(null, first.getNextCursor(), 2);
+        assertEquals(List.of(3, 4), second.getItems(), "la retirada no mueve el cursor");
+        assertNull(second.getNextCursor(), "no quedan más");
+        assertThrows(IllegalArgumentException.class, () -> index.page(null, "no válido", 2), "cursor");
+    }
+
+    // Un filtro que casi nunca se cumple recorre como mucho MAX_PAGE_SCAN elementos por página,
+    // pero siguiendo los cursores se acaban obteniendo todos
+    @Test
+    public void selectiveFilterIsScannedInBoundedSteps() {
+        OrderedIndex<Integer> index = new OrderedIndex<>();
+        int total = OrderedIndex.MAX_PAGE_SCAN * 5 / 2;
+        for (int i = 0; i < total; i++) {
+            index.add(i);
+        }
+
+        List<Integer> found = new ArrayList<>();
+        int pages = 0;
+        String cursor = null;
+        do {
+            Page<Integer> page = index.page(value -> value % 9_000 == 8_999, cursor, 10);
+            found.addAll(page.getItems());
+            cursor = page.getNextCursor();
+            pages++;
+        } while (cursor != null);
+
+        assertEquals(List.of(8_999, 17_999), found, "coincidencias");
+        assertEquals(3, pages, "una página por cada MAX_PAGE_SCAN descartados");
+
+        Page<Integer> empty = index.page(value -> false, null, 10);
+        assertEquals(0, empty.getItems().size(), "página vacía");
+        assertNotNull(empty.getNextCursor(), "con cursor para seguir");
+    }
+}
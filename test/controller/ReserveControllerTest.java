@@ -0,0 +1,201 @@
+package controller;
+
+import metrics.OperationMetrics;
+import model.Client;
+import model.RateTable;
+import model.ReservaNoDisponibleException;
+import model.Reservation;
+import model.Room;
+import testing.Test;
+import testing.TestHotel;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static testing.Assert.assertEquals;
+import static testing.Assert.assertFalse;
+import static testing.Assert.assertThrows;
+import static testing.Assert.assertTrue;
+
+public class ReserveControllerTest {
+    private final TestHotel hotel = new TestHotel();
+    private final LocalDate tomorrow = hotel.today().plusDays(1);
+
+    private Client client(String name) {
+        return hotel.clients.createClient(name);
+    }
+
+    @Test
+    public void overlappingStayIsRejected() throws Exception {
+        hotel.reservations.createReservation(client("Ana García").getId(), 101, tomorrow, tomorrow.plusDays(3));
+        Client other = client("Luis Pérez");
+
+        assertThrows(ReservaNoDisponibleException.class, () -> hotel.reservations.createReservation(other.getId(),
+                101, tomorrow.plusDays(1), tomorrow.plusDays(2)), "estancia dentro de otra");
+        assertThrows(ReservaNoDisponibleException.class, () -> hotel.reservations.createReservation(other.getId(),
+                101, tomorrow.plusDays(3), tomorrow.plusDays(5)), "entrada el día de salida de otra");
+        Reservation after = hotel.reservations.createReservation(other.getId(), 101, tomorrow.plusDays(4),
+                tomorrow.plusDays(6));
+        assertEquals(Room.RoomStatus.RESERVADA, hotel.rooms.getRoomByNumber(101).getStatus(), "habitación reservada");
+        assertEquals(after, hotel.reservations.getReservationById(after.getId()), "la reserva se encuentra por ID");
+    }
+
+    @Test
+    public void cancellingFreesTheDates() throws Exception {
+        Client ana = client("Ana García");
+        Reservation reservation = hotel.reservations.createReservation(ana.getId(), 101, tomorrow, tomorrow.plusDays(3));
+        hotel.reservations.cancelReservation(reservation.getId());
+
+        assertEquals(Room.RoomStatus.DISPONIBLE, hotel.rooms.getRoomByNumber(101).getStatus(), "habitación libre");
+        hotel.reservations.createReservation(client("Luis Pérez").getId(), 101, tomorrow, tomorrow.plusDays(3));
+    }
+
+    @Test
+    public void farFutureDatesAreRejectedBeforeTouchingTheRoom() {
+        Client ana = client("Ana García");
+        LocalDate far = LocalDate.parse("+1000000-01-01");
+
+        assertThrows(IllegalArgumentException.class,
+                () -> hotel.reservations.createReservation(ana.getId(), 101, far, far.plusDays(2)), "reserva");
+        assertThrows(IllegalArgumentException.class,
+                () -> hotel.reservations.findAvailableRooms(Room.RoomType.SUITE, far, far.plusDays(2)), "búsqueda");
+        LocalDate beyondHorizon = hotel.today().plusDays(RateTable.MAX_DAYS);
+        assertThrows(IllegalArgumentException.class, () -> hotel.reservations.createReservation(ana.getId(), 101,
+                beyondHorizon, beyondHorizon.plusDays(1)), "salida fuera del horizonte");
+        assertEquals(Room.RoomStatus.DISPONIBLE, hotel.rooms.getRoomByNumber(101).getStatus(), "sin cambios");
+        assertEquals(0, hotel.reservations.getAllReservations().size(), "sin reservas");
+    }
+
+    @Test
+    public void availabilitySearchSkipsBookedRooms() throws Exception {
+        hotel.reservations.createReservation(client("Ana García").getId(), 105, tomorrow, tomorrow.plusDays(3));
+        List<Room> suites = hotel.reservations.findAvailableRooms(Room.RoomType.SUITE, tomorrow.plusDays(1),
+                tomorrow.plusDays(2));
+
+        assertFalse(suites.contains(hotel.rooms.getRoomByNumber(105)), "la suite reservada no aparece");
+        assertEquals(4, suites.size(), "las otras cuatro suites sí");
+    }
+
+    @Test
+    public void concurrentBookingsOfOneRoomLetExactlyOneThrough() throws Exception {
+        int threads = 8;
+        List<Client> clients = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            clients.add(client("Cliente " + i));
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger rejected = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>();
+        try {
+            for (Client client : clients) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    try {
+                        hotel.reservations.createReservation(client.getId(), 202, tomorrow, tomorrow.plusDays(2));
+                    } catch (ReservaNoDisponibleException e) {
+                        rejected.incrementAndGet();
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(10, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(threads - 1, rejected.get(), "solo una reserva entra");
+        assertEquals(1, hotel.reservations.getAllReservations().size(), "una sola reserva registrada");
+    }
+
+    @Test
+    public void clientQuotaIsEnforced() throws Exception {
+        Client ana = client("Ana García");
+        for (int i = 0; i < Client.MAX_ACTIVE_RESERVATIONS; i++) {
+            hotel.reservations.createReservation(ana.getId(), 301, tomorrow.plusDays(10L * i),
+                    tomorrow.plusDays(10L * i + 2));
+        }
+
+        assertThrows(ReservaNoDisponibleException.class, () -> hotel.reservations.createReservation(ana.getId(),
+                302, tomorrow, tomorrow.plusDays(1)), "cuarta reserva activa");
+        assertTrue(hotel.clients.getClientById(ana.getId()) != null, "el cliente sigue existiendo");
+    }
+
+    @Test
+    public void unknownRoomIsNotCountedAsAQuotaRejection() throws Exception {
+        Client ana = client("Ana García");
+        for (int i = 0; i < Client.MAX_ACTIVE_RESERVATIONS; i++) {
+            hotel.reservations.createReservation(ana.getId(), 301, tomorrow.plusDays(10L * i),
+                    tomorrow.plusDays(10L * i + 2));
+        }
+
+        assertThrows(IllegalArgumentException.class, () -> hotel.reservations.createReservation(ana.getId(),
+                999, tomorrow, tomorrow.plusDays(1)), "habitación inexistente");
+        assertEquals(0, hotel.metrics.counter("ReserveController.createReservation.rejected.quota").sum(),
+                "no cuenta como rechazo por cupo");
+    }
+
+    @Test
+    public void cancellingKeepsTheRoomReservedForALateArrival() throws Exception {
+        Client ana = client("Ana García");
+        Reservation late = hotel.reservations.createReservation(ana.getId(), 101, hotel.today(), tomorrow.plusDays(1));
+        Reservation later = hotel.reservations.createReservation(ana.getId(), 101, tomorrow.plusDays(4),
+                tomorrow.plusDays(6));
+        hotel.advanceDays(1);
+
+        hotel.reservations.cancelReservation(later.getId());
+        assertEquals(Room.RoomStatus.RESERVADA, late.getRoom().getStatus(), "la llegada de ayer sigue pendiente");
+        hotel.reservations.checkIn(late.getId());
+        assertEquals(Room.RoomStatus.OCUPADA, late.getRoom().getStatus(), "check-in con retraso");
+    }
+
+    @Test
+    public void statusFilterUsesTheReservationsOwnState() throws Exception {
+        Client ana = client("Ana García");
+        Reservation staying = hotel.reservations.createReservation(ana.getId(), 101, hotel.today(), tomorrow);
+        Reservation next = hotel.reservations.createReservation(ana.getId(), 101, tomorrow.plusDays(1),
+                tomorrow.plusDays(3));
+        hotel.reservations.checkIn(staying.getId());
+
+        assertThrows(IllegalStateException.class, () -> hotel.reservations.checkOut(next.getId()),
+                "la habitación está ocupada por otra estancia");
+        assertEquals(List.of(staying), hotel.reservations.getReservations(
+                ReservationFilters.withStatus(Reservation.Status.EN_CURSO), null, 10).getItems(), "en curso");
+        assertEquals(List.of(next), hotel.reservations.getReservations(
+                ReservationFilters.withStatus(Reservation.Status.CONFIRMADA), null, 10).getItems(), "pendiente");
+
+        hotel.reservations.checkOut(staying.getId());
+        assertEquals(Reservation.Status.FINALIZADA, staying.getStatus(), "finalizada");
+        assertEquals(Room.RoomStatus.RESERVADA, staying.getRoom().getStatus(), "queda reservada para la siguiente");
+        assertThrows(IllegalStateException.class, () -> hotel.reservations.checkIn(staying.getId()),
+                "no se repite el check-in de una estancia terminada");
+    }
+
+    @Test
+    public void reservationRecordsEachPhaseOnce() throws Exception {
+        Client ana = client("Ana García");
+        hotel.reservations.createReservation(ana.getId(), 101, tomorrow, tomorrow.plusDays(2));
+        assertThrows(ReservaNoDisponibleException.class, () -> hotel.reservations.createReservation(ana.getId(),
+                101, tomorrow, tomorrow.plusDays(1)), "solapada");
+
+        Map<String, OperationMetrics> operations = hotel.metrics.getOperations();
+        String prefix = "ReserveController.createReservation";
+        assertEquals(2, operations.get(prefix).getCount(), "llamadas");
+        assertEquals(1, operations.get(prefix).getErrorCount(), "errores");
+        assertEquals(4, operations.get(prefix + ".lockWait").getCount(), "cliente y habitación en cada llamada");
+        assertEquals(2, operations.get(prefix + ".overlapCheck").getCount(), "comprobaciones de solapamiento");
+        assertEquals(1, operations.get(prefix + ".journalWait").getCount(), "solo la que se completa");
+        assertEquals(1, hotel.metrics.getCounter(prefix + ".rejected.overlap"), "rechazo por solapamiento");
+    }
+}
@@ -0,0 +1,182 @@
+package events;
+
+import metrics.Metrics;
+import model.Client;
+import model.Reservation;
+import model.Room;
+import testing.Test;
+import testing.TestHotel;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static testing.Assert.assertEquals;
+import static testing.Assert.assertTrue;
+
+public class EventBusTest {
+    private final Room room = new Room(101, Room.RoomType.INDIVIDUAL, "");
+
+    // Guarda lo necesario de cada evento: las casillas del búfer se reutilizan
+    private static final class Recorder implements EventBus.Handler {
+        final List<String> events = Collections.synchronizedList(new ArrayList<>());
+
+        @Override
+        public void onEvent(ReservationEvent event, long sequence, boolean endOfBatch) {
+            events.add(event.getType() == ReservationEvent.Type.ROOM_STATUS_CHANGED
+                    ? event.getStatus() + "#" + event.getStatusVersion()
+                    : event.getType().name());
+        }
+
+        List<String> await(int count) throws InterruptedException {
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            while (events.size() < count && System.nanoTime() < deadline) {
+                Thread.sleep(1);
+            }
+            synchronized (events) {
+                return new ArrayList<>(events);
+            }
+        }
+    }
+
+    private void publish(EventBus bus, long version) {
+        bus.publishStatusChange(room, Room.RoomStatus.DISPONIBLE, Room.RoomStatus.RESERVADA, version);
+    }
+
+    @Test
+    public void deferredEventsAreDeliveredOnFlushInOrder() throws Exception {
+        try (EventBus bus = new EventBus(8, new Metrics())) {
+            Recorder recorder = new Recorder();
+            bus.subscribe("prueba", recorder);
+
+            bus.defer();
+            publish(bus, 1);
+            bus.defer();
+            publish(bus, 2);
+            bus.flush();
+            publish(bus, 3);
+            Thread.sleep(50);
+            assertEquals(List.of(), recorder.events, "nada se entrega antes del último flush");
+
+            bus.flush();
+            assertEquals(List.of("RESERVADA#1", "RESERVADA#2", "RESERVADA#3"), recorder.await(3), "en orden");
+        }
+    }
+
+    // Las secuencias se reservan bajo el bloqueo, así que el orden de entrega es el de los bloqueos
+    // aunque cada hilo escriba sus eventos después de soltarlo
+    @Test
+    public void deliveryFollowsLockOrderAcrossThreads() throws Exception {
+        try (EventBus bus = new EventBus(16, new Metrics())) {
+            Recorder recorder = new Recorder();
+            bus.subscribe("prueba", recorder);
+            Object lock = new Object();
+            List<String> lockOrder = new ArrayList<>();
+            long[] version = {0};
+
+            int threads = 4;
+            int perThread = 500;
+            List<Thread> producers = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                Thread producer = new Thread(() -> {
+                    for (int i = 0; i < perThread; i++) {
+                        bus.defer();
+                        try {
+                            synchronized (lock) {
+                                for (int j = 0; j < 2; j++) {
+                                    publish(bus, ++version[0]);
+                                    lockOrder.add("RESERVADA#" + version[0]);
+                                }
+                            }
+                        } finally {
+                            bus.flush();
+                        }
+                    }
+                });
+                producers.add(producer);
+                producer.start();
+            }
+            for (Thread producer : producers) {
+                producer.join();
+            }
+
+            assertEquals(lockOrder, recorder.await(lockOrder.size()), "orden de los bloqueos");
+        }
+    }
+
+    // Con el búfer lleno, flush espera al consumidor, pero ya sin el bloqueo: otro hilo puede
+    // tomarlo mientras tanto
+    @Test
+    public void backpressureWaitsOutsideTheLock() throws Exception {
+        try (EventBus bus = new EventBus(4, new Metrics())) {
+            CountDownLatch release = new CountDownLatch(1);
+            Recorder recorder = new Recorder();
+            bus.subscribe("lento", (event, sequence, endOfBatch) -> {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                recorder.onEvent(event, sequence, endOfBatch);
+            });
+            Object lock = new Object();
+            CountDownLatch published = new CountDownLatch(1);
+
+            Thread producer = new Thread(() -> {
+                bus.defer();
+                try {
+                    synchronized (lock) {
+                        for (int i = 1; i <= 10; i++) {
+                            publish(bus, i);
+                        }
+                    }
+                    published.countDown();
+                } finally {
+                    bus.flush();
+                }
+            });
+            producer.start();
+            assertTrue(published.await(5, TimeUnit.SECONDS), "publicar bajo el bloqueo no espera");
+
+            Thread other = new Thread(() -> {
+                synchronized (lock) {
+                    lock.notifyAll();
+                }
+            });
+            other.start();
+            other.join(5_000);
+            assertTrue(!other.isAlive(), "el bloqueo está libre mientras flush espera");
+            assertTrue(producer.isAlive(), "flush sigue esperando al consumidor");
+
+            release.countDown();
+            producer.join(5_000);
+            assertEquals(10, recorder.await(10).size(), "todos entregados tras liberar al consumidor");
+            assertEquals("RESERVADA#10", recorder.events.get(9), "en orden");
+        }
+    }
+
+    // Cada operación del controlador publica su cambio de estado y su evento en el orden en que
+    // ocurrieron
+    @Test
+    public void controllerOperationsArePublishedInOrder() throws Exception {
+        TestHotel hotel = new TestHotel();
+        try (EventBus bus = new EventBus(64, hotel.metrics)) {
+            hotel.rooms.setEventBus(bus);
+            hotel.reservations.setEventBus(bus);
+            Recorder recorder = new Recorder();
+            bus.subscribe("prueba", recorder);
+
+            LocalDate today = hotel.today();
+            Client ana = hotel.clients.createClient("Ana García");
+            Reservation reservation = hotel.reservations.createReservation(ana.getId(), 101, today, today.plusDays(2));
+            hotel.reservations.checkIn(reservation.getId());
+            hotel.reservations.checkOut(reservation.getId());
+
+            assertEquals(List.of("RESERVADA#1", "RESERVATION_CREATED", "OCUPADA#2", "CHECKED_IN",
+                    "DISPONIBLE#3", "CHECKED_OUT"), recorder.await(6), "eventos de la estancia");
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package model;
+
+import testing.Test;
+
+import java.time.LocalDate;
+
+import static testing.Assert.assertEquals;
+import static testing.Assert.assertFalse;
+import static testing.Assert.assertThrows;
+import static testing.Assert.assertTrue;
+
+public class OccupancyBitmapTest {
+    private static final LocalDate DAY = LocalDate.of(2030, 1, 1);
+
+    @Test
+    public void entryAndExitDaysCountAsOccupied() {
+        OccupancyBitmap bitmap = new OccupancyBitmap();
+        bitmap.occupy(DAY, DAY.plusDays(3));
+
+        assertFalse(bitmap.isFree(DAY.minusDays(2), DAY), "el día de entrada está ocupado");
+        assertFalse(bitmap.isFree(DAY.plusDays(3), DAY.plusDays(5)), "el día de salida está ocupado");
+        assertTrue(bitmap.isFree(DAY.plusDays(4), DAY.plusDays(6)), "el día siguiente a la salida está libre");
+        assertTrue(bitmap.isFree(DAY.minusDays(5), DAY.minusDays(1)), "el día anterior a la entrada está libre");
+    }
+
+    @Test
+    public void growingBackwardsKeepsExistingDays() {
+        OccupancyBitmap bitmap = new OccupancyBitmap();
+        bitmap.occupy(DAY, DAY.plusDays(2));
+        bitmap.occupy(DAY.minusDays(300), DAY.minusDays(298));
+        bitmap.occupy(DAY.plusDays(1000), DAY.plusDays(1001));
+
+        assertFalse(bitmap.isFree(DAY.plusDays(1), DAY.plusDays(1)), "se conserva la primera estancia");
+        assertFalse(bitmap.isFree(DAY.minusDays(299), DAY.minusDays(299)), "estancia anterior al mapa");
+        assertFalse(bitmap.isFree(DAY.plusDays(1001), DAY.plusDays(1001)), "estancia posterior al mapa");
+        assertTrue(bitmap.isFree(DAY.minusDays(297), DAY.minusDays(1)), "los días intermedios siguen libres");
+    }
+
+    @Test
+    public void releaseFreesOnlyTheGivenDays() {
+        OccupancyBitmap bitmap = new OccupancyBitmap();
+        bitmap.occupy(DAY, DAY.plusDays(100));
+        bitmap.release(DAY.plusDays(10), DAY.plusDays(80));
+
+        assertTrue(bitmap.isFree(DAY.plusDays(10), DAY.plusDays(80)), "días liberados");
+        assertFalse(bitmap.isFree(DAY.plusDays(9), DAY.plusDays(9)), "día anterior");
+        assertFalse(bitmap.isFree(DAY.plusDays(81), DAY.plusDays(81)), "día posterior");
+        // Liberar fuera del mapa no hace nada
+        bitmap.release(DAY.minusDays(500), DAY.minusDays(400));
+    }
+
+    @Test
+    public void farFutureDateIsRejectedWithoutChanges() {
+        OccupancyBitmap bitmap = new OccupancyBitmap();
+        bitmap.occupy(DAY, DAY.plusDays(2));
+        LocalDate far = LocalDate.parse("+1000000-01-01");
+
+        assertThrows(IllegalArgumentException.class, () -> bitmap.occupy(far, far.plusDays(2)),
+                "una fecha absurda no debe reservar memoria");
+        assertThrows(IllegalArgumentException.class,
+                () -> bitmap.occupy(LocalDate.MIN, LocalDate.MIN.plusDays(1)), "ni hacia atrás");
+        assertFalse(bitmap.isFree(DAY, DAY), "la estancia anterior sigue marcada");
+        assertTrue(bitmap.isFree(far, far.plusDays(2)), "no se ha marcado nada");
+    }
+
+    @Test
+    public void spanIsBoundedByMaxSpanDays() {
+        OccupancyBitmap bitmap = new OccupancyBitmap();
+        bitmap.occupy(DAY, DAY);
+        LocalDate limit = DAY.plusDays(OccupancyBitmap.MAX_SPAN_DAYS - 64);
+        bitmap.occupy(limit, limit);
+        LocalDate beyond = DAY.plusDays(OccupancyBitmap.MAX_SPAN_DAYS + 64);
+
+        assertThrows(IllegalArgumentException.class, () -> bitmap.occupy(beyond, beyond),
+                "más allá de MAX_SPAN_DAYS");
+        assertFalse(bitmap.isFree(limit, limit), "lo marcado dentro del límite se conserva");
+        assertEquals(true, bitmap.isFree(beyond, beyond), "no se ha marcado nada fuera del límite");
+    }
+}
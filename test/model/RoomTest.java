@@ -0,0 +1,55 @@
+package model;
+
+import testing.Test;
+
+import java.time.Clock;
+import java.time.LocalDate;
+
+import static testing.Assert.assertEquals;
+import static testing.Assert.assertFalse;
+import static testing.Assert.assertThrows;
+import static testing.Assert.assertTrue;
+
+public class RoomTest {
+    private static final LocalDate DAY = LocalDate.of(2030, 1, 1);
+
+    private final Client client = new Client("Ana García", new BusinessClock(Clock.systemUTC()));
+
+    @Test
+    public void bookingThatCannotBeIndexedLeavesTheRoomUnchanged() {
+        Room room = new Room(101, Room.RoomType.INDIVIDUAL, "Vista al jardín");
+        room.addBooking(new Reservation(room, client, DAY, DAY.plusDays(2), 0));
+        LocalDate far = DAY.plusDays(OccupancyBitmap.MAX_SPAN_DAYS * 2L);
+        Reservation tooFar = new Reservation(room, client, far, far.plusDays(2), 0);
+
+        assertThrows(IllegalArgumentException.class, () -> room.addBooking(tooFar), "mapa de días demasiado grande");
+        assertFalse(room.hasBookingsFrom(far), "no queda una reserva fantasma en el índice");
+        assertEquals(Room.RoomStatus.DISPONIBLE, room.getStatus(), "el estado no cambia");
+        assertTrue(room.hasOverlap(DAY, DAY.plusDays(1)), "la reserva anterior sigue");
+    }
+
+    @Test
+    public void overlapUsesTheSameInclusiveDaysAsTheBitmap() {
+        Room room = new Room(101, Room.RoomType.INDIVIDUAL, "Vista al jardín");
+        room.addBooking(new Reservation(room, client, DAY, DAY.plusDays(3), 0));
+
+        assertTrue(room.hasOverlap(DAY.plusDays(3), DAY.plusDays(5)), "entrar el día de salida se solapa");
+        assertFalse(room.isAvailable(DAY.plusDays(3), DAY.plusDays(5)), "y no está disponible");
+        assertFalse(room.hasOverlap(DAY.plusDays(4), DAY.plusDays(6)), "el día siguiente no");
+        assertTrue(room.isAvailable(DAY.plusDays(4), DAY.plusDays(6)), "y está disponible");
+    }
+
+    @Test
+    public void transitionsFollowTheStatusCycle() {
+        Room room = new Room(101, Room.RoomType.INDIVIDUAL, "Vista al jardín");
+        long version = room.getStatusVersion();
+
+        assertTrue(room.compareAndSetStatus(Room.RoomStatus.DISPONIBLE, Room.RoomStatus.RESERVADA), "reservar");
+        assertFalse(room.compareAndSetStatus(Room.RoomStatus.DISPONIBLE, Room.RoomStatus.RESERVADA),
+                "ya no está disponible");
+        assertThrows(IllegalStateException.class,
+                () -> room.compareAndSetStatus(Room.RoomStatus.DISPONIBLE, Room.RoomStatus.OCUPADA),
+                "transición no válida");
+        assertEquals(version + 1, room.getStatusVersion(), "solo el cambio efectivo sube la versión");
+    }
+}
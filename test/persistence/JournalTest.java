@@ -0,0 +1,176 @@
+package persistence;
+
+import model.Client;
+import model.EntityId;
+import model.Room;
+import testing.Test;
+import testing.TestHotel;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static testing.Assert.assertEquals;
+import static testing.Assert.assertThrows;
+import static testing.Assert.assertTrue;
+
+public class JournalTest {
+    private static final LocalDate DAY = LocalDate.of(2030, 1, 2);
+    private static final EntityId CLIENT = new EntityId(1, 1);
+
+    // Guarda cada evento como texto, en el orden en que llega
+    private static final class Recorder implements Journal.Handler {
+        final List<String> events = new ArrayList<>();
+
+        @Override
+        public void onClientCreated(long sequence, EntityId clientId, String fullName) {
+            events.add(sequence + " cliente " + fullName);
+        }
+
+        @Override
+        public void onReservationCreated(long sequence, EntityId reservationId, EntityId clientId, int roomNumber,
+                                         LocalDate checkInDate, LocalDate checkOutDate, long totalPriceCents) {
+            events.add(sequence + " reserva " + roomNumber + " " + checkInDate + " " + checkOutDate + " "
+                    + totalPriceCents);
+        }
+
+        @Override
+        public void onReservationCancelled(long sequence, EntityId reservationId) {
+            events.add(sequence + " cancelada");
+        }
+
+        @Override
+        public void onCheckIn(long sequence, EntityId reservationId) {
+            events.add(sequence + " entrada");
+        }
+
+        @Override
+        public void onCheckOut(long sequence, EntityId reservationId) {
+            events.add(sequence + " salida");
+        }
+    }
+
+    private static Path writeThreeEvents() throws IOException {
+        Path path = Files.createTempFile("journal", ".journal");
+        path.toFile().deleteOnExit();
+        try (Journal journal = Journal.open(path, null)) {
+            journal.appendClientCreated(CLIENT, "Ana García");
+            journal.appendReservationCreated(new EntityId(2, 2), CLIENT, 101, DAY, DAY.plusDays(2), 10_000);
+            journal.awaitDurable(journal.appendCheckIn(new EntityId(2, 2)));
+        }
+        return path;
+    }
+
+    private static List<String> replay(Path path) throws IOException {
+        Recorder recorder = new Recorder();
+        Journal.open(path, recorder).close();
+        return recorder.events;
+    }
+
+    private static void appendBytes(Path path, byte[] bytes) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            channel.write(ByteBuffer.wrap(bytes));
+        }
+    }
+
+    @Test
+    public void replayDeliversEventsInOrder() throws IOException {
+        Path path = writeThreeEvents();
+
+        assertEquals(List.of("1 cliente Ana García", "2 reserva 101 2030-01-02 2030-01-04 10000", "3 entrada"),
+                replay(path), "eventos reproducidos");
+        Recorder recorder = new Recorder();
+        Journal.open(path, recorder, 2).close();
+        assertEquals(List.of("3 entrada"), recorder.events, "solo los posteriores a la instantánea");
+    }
+
+    @Test
+    public void tornTailIsTruncatedAndWritingContinues() throws IOException {
+        Path path = writeThreeEvents();
+        long validLength = Files.size(path);
+        // Cabecera de un registro de 40 bytes del que solo llegaron 10
+        ByteBuffer torn = ByteBuffer.allocate(18).putInt(40).putInt(12345);
+        appendBytes(path, torn.array());
+
+        assertEquals(3, replay(path).size(), "el registro incompleto se descarta");
+        assertEquals(validLength, Files.size(path), "y se trunca el fichero");
+
+        try (Journal journal = Journal.open(path, null)) {
+            assertEquals(4, journal.appendCheckOut(new EntityId(2, 2)), "la secuencia sigue");
+        }
+        assertEquals("4 salida", replay(path).get(3), "el evento nuevo se lee tras los anteriores");
+    }
+
+    @Test
+    public void partialHeaderIsTruncated() throws IOException {
+        Path path = writeThreeEvents();
+        long validLength = Files.size(path);
+        appendBytes(path, new byte[]{0, 0, 0});
+
+        assertEquals(3, replay(path).size(), "cabecera incompleta");
+        assertEquals(validLength, Files.size(path), "truncada");
+    }
+
+    @Test
+    public void corruptLastRecordIsDropped() throws IOException {
+        Path path = writeThreeEvents();
+        long size = Files.size(path);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[]{(byte) 0xFF}), size - 1);
+        }
+
+        assertEquals(2, replay(path).size(), "el último registro no supera el CRC");
+        assertTrue(Files.size(path) < size, "y se trunca");
+    }
+
+    @Test
+    public void oversizedRecordBeforeTheTailFailsTheOpen() throws IOException {
+        Path path = writeThreeEvents();
+        int length = Journal.MAX_RECORD_BYTES + 1;
+        ByteBuffer record = ByteBuffer.allocate(8 + length).putInt(length).putInt(0);
+        appendBytes(path, record.array());
+        long size = Files.size(path);
+
+        assertThrows(IOException.class, () -> replay(path), "un registro completo que no se sabe leer");
+        assertEquals(size, Files.size(path), "no se trunca nada");
+    }
+
+    @Test
+    public void oversizedEventIsRejectedOnAppend() throws IOException {
+        Path path = Files.createTempFile("journal", ".journal");
+        path.toFile().deleteOnExit();
+        try (Journal journal = Journal.open(path, null)) {
+            String name = "x".repeat(Journal.MAX_RECORD_BYTES);
+            assertThrows(IllegalArgumentException.class, () -> journal.appendClientCreated(CLIENT, name),
+                    "evento demasiado grande");
+            journal.awaitDurable(journal.appendClientCreated(CLIENT, "Ana García"));
+        }
+        assertEquals(List.of("1 cliente Ana García"), replay(path), "el diario sigue siendo válido");
+    }
+
+    @Test
+    public void controllersRefuseChangesOnceTheJournalIsClosed() throws Exception {
+        TestHotel hotel = new TestHotel();
+        Path path = Files.createTempFile("journal", ".journal");
+        path.toFile().deleteOnExit();
+        Journal journal = Journal.open(path, null);
+        hotel.clients.setJournal(journal);
+        hotel.reservations.setJournal(journal);
+        Client client = hotel.clients.createClient("Ana García");
+        journal.close();
+        LocalDate tomorrow = hotel.today().plusDays(1);
+
+        assertThrows(IllegalStateException.class, () -> hotel.reservations.createReservation(client.getId(), 101,
+                tomorrow, tomorrow.plusDays(2)), "reserva");
+        assertThrows(IllegalStateException.class, () -> hotel.clients.createClient("Luis Pérez"), "cliente");
+        assertEquals(0, hotel.reservations.getAllReservations().size(), "la reserva no queda en memoria");
+        assertEquals(Room.RoomStatus.DISPONIBLE, hotel.rooms.getRoomByNumber(101).getStatus(), "ni cambia la habitación");
+        assertEquals(1, hotel.clients.getAllClients().size(), "ni se da de alta el cliente");
+    }
+}
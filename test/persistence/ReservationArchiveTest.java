@@ -0,0 +1,133 @@
+package persistence;
+
+import model.Client;
+import model.Reservation;
+import model.Room;
+import testing.Test;
+import testing.TestHotel;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static testing.Assert.assertEquals;
+import static testing.Assert.assertFalse;
+import static testing.Assert.assertNotNull;
+import static testing.Assert.assertThrows;
+import static testing.Assert.assertTrue;
+
+public class ReservationArchiveTest {
+    private static Path tempDirectory() throws IOException {
+        Path directory = Files.createTempDirectory("archive");
+        directory.toFile().deleteOnExit();
+        return directory;
+    }
+
+    private static long countFiles(Path directory, String suffix) throws IOException {
+        try (Stream<Path> listing = Files.list(directory)) {
+            return listing.filter(path -> path.getFileName().toString().endsWith(suffix)).count();
+        }
+    }
+
+    @Test
+    public void archivesOnlyClosedStaysAndRestoresThemAfterARestart() throws Exception {
+        Path directory = tempDirectory();
+        Path journalPath = directory.resolve("hotel.journal");
+        TestHotel hotel = new TestHotel();
+        ReservationArchive archive = ReservationArchive.open(directory);
+        hotel.reservations.setArchive(archive, 1);
+        Journal journal = Journal.open(journalPath, null);
+        hotel.clients.setJournal(journal);
+        hotel.reservations.setJournal(journal);
+
+        LocalDate today = hotel.today();
+        Client ana = hotel.clients.createClient("Ana García");
+        Client luis = hotel.clients.createClient("Luis Pérez");
+        Client marta = hotel.clients.createClient("Marta Ruiz");
+        Client pedro = hotel.clients.createClient("Pedro Gil");
+        Reservation finished = hotel.reservations.createReservation(ana.getId(), 101, today, today.plusDays(2));
+        hotel.reservations.checkIn(finished.getId());
+        hotel.reservations.checkOut(finished.getId());
+        Reservation cancelled = hotel.reservations.createReservation(luis.getId(), 202, today.plusDays(1),
+                today.plusDays(3));
+        hotel.reservations.cancelReservation(cancelled.getId());
+        Reservation staying = hotel.reservations.createReservation(marta.getId(), 301, today, today.plusDays(2));
+        hotel.reservations.checkIn(staying.getId());
+        Reservation noShow = hotel.reservations.createReservation(pedro.getId(), 302, today, today.plusDays(2));
+
+        hotel.advanceDays(5);
+
+        assertEquals(2, archive.size(), "solo se archivan la terminada y la cancelada");
+        assertTrue(archive.contains(finished.getId()), "terminada archivada");
+        assertTrue(archive.contains(cancelled.getId()), "cancelada archivada");
+        assertFalse(archive.contains(staying.getId()), "sin check-out sigue en memoria");
+        assertFalse(archive.contains(noShow.getId()), "sin check-in sigue en memoria");
+        assertEquals(2, hotel.reservations.getAllReservations().size(), "reservas en memoria");
+        assertEquals(Room.RoomStatus.OCUPADA, hotel.rooms.getRoomByNumber(301).getStatus(), "habitación ocupada");
+
+        // La estancia que seguía abierta aún se puede cerrar y entonces se archiva
+        hotel.reservations.checkOut(staying.getId());
+        assertEquals(Room.RoomStatus.DISPONIBLE, hotel.rooms.getRoomByNumber(301).getStatus(), "liberada");
+        hotel.advanceDays(1);
+        assertTrue(archive.contains(staying.getId()), "archivada tras el check-out");
+        journal.close();
+        archive.close();
+
+        // Un append interrumpido deja un temporal que se ignora y se borra al abrir
+        Files.write(directory.resolve("segment-000099.arc.tmp"), new byte[]{1, 2, 3});
+
+        TestHotel restored = new TestHotel();
+        ReservationArchive reopened = ReservationArchive.open(directory);
+        assertEquals(0, countFiles(directory, ".tmp"), "temporal borrado");
+        restored.reservations.setArchive(reopened, 1);
+        Journal.open(journalPath, new JournalReplayer(restored.clients, restored.reservations)).close();
+
+        assertEquals(3, reopened.size(), "archivadas tras reabrir");
+        assertEquals(1, restored.reservations.getAllReservations().size(), "no se resucitan las archivadas");
+        assertEquals(noShow.getId(), restored.reservations.getAllReservations().get(0).getId(), "pendiente");
+
+        Reservation finishedCopy = restored.reservations.getReservationById(finished.getId());
+        assertNotNull(finishedCopy, "terminada por ID");
+        assertEquals(Reservation.Status.FINALIZADA, finishedCopy.getStatus(), "estado de la terminada");
+        assertEquals(finished.getTotalPriceCents(), finishedCopy.getTotalPriceCents(), "precio");
+        assertEquals(Reservation.Status.CANCELADA,
+                restored.reservations.getReservationById(cancelled.getId()).getStatus(), "estado de la cancelada");
+        assertEquals(Reservation.Status.FINALIZADA,
+                restored.reservations.getReservationById(staying.getId()).getStatus(), "estado tras el check-out");
+
+        List<Reservation> history = restored.clients.getClientReservationHistory(ana.getId());
+        assertEquals(1, history.size(), "historial del cliente");
+        assertEquals(finished.getId(), history.get(0).getId(), "reserva del historial");
+
+        assertEquals(Room.RoomStatus.DISPONIBLE, restored.rooms.getRoomByNumber(101).getStatus(), "101");
+        assertEquals(Room.RoomStatus.DISPONIBLE, restored.rooms.getRoomByNumber(301).getStatus(), "301");
+        assertEquals(Room.RoomStatus.RESERVADA, restored.rooms.getRoomByNumber(302).getStatus(), "302");
+        reopened.close();
+    }
+
+    @Test
+    public void appendRejectsOpenStaysWithoutWritingASegment() throws Exception {
+        Path directory = tempDirectory();
+        TestHotel hotel = new TestHotel();
+        Client ana = hotel.clients.createClient("Ana García");
+        Reservation open = hotel.reservations.createReservation(ana.getId(), 101, hotel.today(),
+                hotel.today().plusDays(2));
+        Reservation cancelled = hotel.reservations.createReservation(ana.getId(), 102, hotel.today().plusDays(1),
+                hotel.today().plusDays(3));
+        hotel.reservations.cancelReservation(cancelled.getId());
+
+        ReservationArchive archive = ReservationArchive.open(directory);
+        assertThrows(IllegalArgumentException.class, () -> archive.append(List.of(cancelled, open)),
+                "reserva sin cerrar");
+        assertEquals(0, archive.size(), "no se archiva ninguna");
+        assertEquals(0, countFiles(directory, ".arc") + countFiles(directory, ".tmp"), "sin segmentos");
+
+        archive.append(List.of(cancelled));
+        archive.close();
+        assertThrows(IllegalStateException.class, () -> archive.append(List.of(cancelled)), "archivo cerrado");
+        assertEquals(1, ReservationArchive.open(directory).size(), "una reserva tras reabrir");
+    }
+}
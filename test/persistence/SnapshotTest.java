@@ -0,0 +1,127 @@
+package persistence;
+
+import model.Client;
+import model.ReservaNoDisponibleException;
+import model.Reservation;
+import model.Room;
+import testing.Test;
+import testing.TestHotel;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+
+import static testing.Assert.assertEquals;
+import static testing.Assert.assertNotNull;
+import static testing.Assert.assertThrows;
+import static testing.Assert.assertTrue;
+
+public class SnapshotTest {
+    private static Path tempFile(String suffix) throws IOException {
+        Path path = Files.createTempFile("hotel", suffix);
+        path.toFile().deleteOnExit();
+        return path;
+    }
+
+    private static Path snapshotOf(TestHotel hotel, long journalSequence) throws IOException {
+        Path path = tempFile(".snapshot");
+        Snapshot.write(path, journalSequence, hotel.rooms, hotel.clients, hotel.reservations);
+        return path;
+    }
+
+    private static TestHotel load(Path path, long expectedSequence) throws IOException {
+        TestHotel loaded = new TestHotel();
+        assertEquals(expectedSequence, Snapshot.load(path, loaded.rooms, loaded.clients, loaded.reservations),
+                "secuencia del diario");
+        return loaded;
+    }
+
+    @Test
+    public void roundTripKeepsClientsReservationsAndRoomStatus() throws Exception {
+        TestHotel hotel = new TestHotel();
+        LocalDate today = hotel.today();
+        Client ana = hotel.clients.createClient("Ana García Núñez");
+        Client luis = hotel.clients.createClient("Luis Pérez");
+        Reservation staying = hotel.reservations.createReservation(ana.getId(), 101, today, today.plusDays(3));
+        hotel.reservations.checkIn(staying.getId());
+        Reservation upcoming = hotel.reservations.createReservation(luis.getId(), 202, today.plusDays(5),
+                today.plusDays(8));
+        Reservation cancelled = hotel.reservations.createReservation(luis.getId(), 303, today.plusDays(2),
+                today.plusDays(4));
+        hotel.reservations.cancelReservation(cancelled.getId());
+
+        TestHotel loaded = load(snapshotOf(hotel, 42), 42);
+
+        assertEquals("Ana García Núñez", loaded.clients.getClientById(ana.getId()).getFullName(), "nombre UTF-8");
+        assertEquals(2, loaded.clients.getAllClients().size(), "clientes");
+        assertEquals(3, loaded.reservations.getAllReservations().size(), "reservas");
+        for (Reservation original : hotel.reservations.getAllReservations()) {
+            Reservation copy = loaded.reservations.getReservationById(original.getId());
+            assertNotNull(copy, "reserva " + original.getId());
+            assertEquals(original.getClient().getId(), copy.getClient().getId(), "cliente de la reserva");
+            assertEquals(original.getRoom().getRoomNumber(), copy.getRoom().getRoomNumber(), "habitación");
+            assertEquals(original.getCheckInDate(), copy.getCheckInDate(), "entrada");
+            assertEquals(original.getCheckOutDate(), copy.getCheckOutDate(), "salida");
+            assertEquals(original.getTotalPriceCents(), copy.getTotalPriceCents(), "precio");
+            assertEquals(original.getStatus(), copy.getStatus(), "estado de la reserva");
+        }
+        for (Room room : hotel.rooms.getAllRooms()) {
+            assertEquals(room.getStatus(), loaded.rooms.getRoomByNumber(room.getRoomNumber()).getStatus(),
+                    "estado de la habitación " + room.getRoomNumber());
+        }
+        assertEquals(1, loaded.clients.getClientActiveReservations(luis.getId()).size(),
+                "la cancelada no cuenta como activa");
+    }
+
+    @Test
+    public void loadedBookingsStillBlockOverlaps() throws Exception {
+        TestHotel hotel = new TestHotel();
+        LocalDate tomorrow = hotel.today().plusDays(1);
+        hotel.reservations.createReservation(hotel.clients.createClient("Ana García").getId(), 105, tomorrow,
+                tomorrow.plusDays(3));
+
+        TestHotel loaded = load(snapshotOf(hotel, 0), 0);
+        Client other = loaded.clients.createClient("Luis Pérez");
+
+        assertThrows(ReservaNoDisponibleException.class, () -> loaded.reservations.createReservation(other.getId(),
+                105, tomorrow.plusDays(1), tomorrow.plusDays(2)), "el índice de la habitación se reconstruye");
+        assertTrue(!loaded.reservations.findAvailableRooms(Room.RoomType.SUITE, tomorrow, tomorrow.plusDays(1))
+                .contains(loaded.rooms.getRoomByNumber(105)), "y el mapa de días");
+    }
+
+    @Test
+    public void journalEventsAfterTheSnapshotAreReplayedOnTop() throws Exception {
+        TestHotel hotel = new TestHotel();
+        Path journalPath = tempFile(".journal");
+        Journal journal = Journal.open(journalPath, null);
+        hotel.clients.setJournal(journal);
+        hotel.reservations.setJournal(journal);
+        LocalDate tomorrow = hotel.today().plusDays(1);
+        Client ana = hotel.clients.createClient("Ana García");
+        Reservation first = hotel.reservations.createReservation(ana.getId(), 101, tomorrow, tomorrow.plusDays(2));
+        Path snapshot = snapshotOf(hotel, journal.getLastSequence());
+        long snapshotSequence = journal.getLastSequence();
+        Reservation second = hotel.reservations.createReservation(ana.getId(), 102, tomorrow, tomorrow.plusDays(2));
+        hotel.reservations.cancelReservation(first.getId());
+        journal.close();
+
+        TestHotel restored = load(snapshot, snapshotSequence);
+        Journal.open(journalPath, new JournalReplayer(restored.clients, restored.reservations), snapshotSequence)
+                .close();
+
+        assertTrue(restored.reservations.getReservationById(first.getId()).isCancelled(), "cancelación posterior");
+        assertNotNull(restored.reservations.getReservationById(second.getId()), "reserva posterior");
+        assertEquals(Room.RoomStatus.DISPONIBLE, restored.rooms.getRoomByNumber(101).getStatus(), "101 libre");
+        assertEquals(Room.RoomStatus.RESERVADA, restored.rooms.getRoomByNumber(102).getStatus(), "102 reservada");
+    }
+
+    @Test
+    public void missingSnapshotLoadsNothing() throws IOException {
+        Path path = tempFile(".snapshot");
+        Files.delete(path);
+        TestHotel hotel = load(path, 0);
+
+        assertEquals(0, hotel.reservations.getAllReservations().size(), "sin reservas");
+    }
+}
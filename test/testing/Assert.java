@@ -0,0 +1,62 @@
+package testing;
+
+import java.util.Objects;
+
+// Comprobaciones de las pruebas; un fallo lanza AssertionError con lo esperado y lo obtenido
+public final class Assert {
+    // Como Runnable, pero puede lanzar cualquier excepción
+    public interface Action {
+        void run() throws Exception;
+    }
+
+    private Assert() {
+    }
+
+    public static void assertTrue(boolean condition, String message) {
+        if (!condition) {
+            throw new AssertionError(message);
+        }
+    }
+
+    public static void assertFalse(boolean condition, String message) {
+        assertTrue(!condition, message);
+    }
+
+    public static void assertEquals(Object expected, Object actual, String message) {
+        if (!Objects.equals(expected, actual)) {
+            throw new AssertionError(message + ": se esperaba <" + expected + "> pero fue <" + actual + ">");
+        }
+    }
+
+    public static void assertEquals(long expected, long actual, String message) {
+        if (expected != actual) {
+            throw new AssertionError(message + ": se esperaba <" + expected + "> pero fue <" + actual + ">");
+        }
+    }
+
+    public static void assertNull(Object actual, String message) {
+        assertEquals(null, actual, message);
+    }
+
+    public static void assertNotNull(Object actual, String message) {
+        assertTrue(actual != null, message);
+    }
+
+    // Devuelve la excepción para poder comprobar su mensaje
+    public static <T extends Throwable> T assertThrows(Class<T> expected, Action action, String message) {
+        try {
+            action.run();
+        } catch (Throwable e) {
+            if (expected.isInstance(e)) {
+                return expected.cast(e);
+            }
+            throw new AssertionError(message + ": se esperaba " + expected.getSimpleName() + " pero se lanzó "
+                    + e, e);
+        }
+        throw new AssertionError(message + ": se esperaba " + expected.getSimpleName() + " y no se lanzó nada");
+    }
+
+    public static void fail(String message) {
+        throw new AssertionError(message);
+    }
+}
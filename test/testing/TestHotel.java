@@ -0,0 +1,35 @@
+package testing;
+
+import benchmark.SimulatedClock;
+import controller.ClientController;
+import controller.ReserveController;
+import controller.RoomController;
+import metrics.Metrics;
+import model.BusinessClock;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+
+// Hotel con las 15 habitaciones por defecto en tiempo simulado: empieza siempre el mismo día y
+// solo avanza con advanceDays, que además avisa del cambio de día como el planificador
+public class TestHotel {
+    public static final Instant START = Instant.parse("2030-01-01T12:00:00Z");
+
+    public final Metrics metrics = new Metrics();
+    public final SimulatedClock clock = new SimulatedClock(START, ZoneOffset.UTC);
+    public final BusinessClock businessClock = new BusinessClock(clock);
+    public final RoomController rooms = new RoomController(metrics);
+    public final ClientController clients = new ClientController(metrics, businessClock);
+    public final ReserveController reservations = new ReserveController(rooms, clients, metrics);
+
+    public LocalDate today() {
+        return businessClock.today();
+    }
+
+    public void advanceDays(int days) {
+        clock.advance(Duration.ofDays(days));
+        businessClock.rollover();
+    }
+}
@@ -0,0 +1,106 @@
+package testing;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+// Lanzador de las pruebas, sin dependencias externas (como BenchmarkRunner). Busca en los
+// directorios del classpath las clases cuyo nombre termina en Test y ejecuta sus métodos @Test,
+// cada uno con una instancia nueva de la clase. Termina con código 1 si alguna falla.
+//
+// Uso: java -cp out-test testing.TestRunner [--filter=texto]
+public class TestRunner {
+    public static void main(String[] args) throws Exception {
+        String filter = "";
+        for (String arg : args) {
+            if (arg.startsWith("--filter=")) {
+                filter = arg.substring("--filter=".length());
+            } else {
+                throw new IllegalArgumentException("Argumento no válido: " + arg);
+            }
+        }
+
+        int passed = 0;
+        List<String> failures = new ArrayList<>();
+        for (String className : testClasses()) {
+            Class<?> testClass = Class.forName(className);
+            if (Modifier.isAbstract(testClass.getModifiers())) {
+                continue;
+            }
+            List<Method> methods = new ArrayList<>();
+            for (Method method : testClass.getMethods()) {
+                if (method.isAnnotationPresent(Test.class)) {
+                    methods.add(method);
+                }
+            }
+            methods.sort(Comparator.comparing(Method::getName));
+            for (Method method : methods) {
+                String name = testClass.getName() + "." + method.getName();
+                if (!name.contains(filter)) {
+                    continue;
+                }
+                long start = System.nanoTime();
+                Throwable failure = run(testClass, method);
+                long millis = (System.nanoTime() - start) / 1_000_000;
+                if (failure == null) {
+                    passed++;
+                    System.out.println("OK     " + name + " (" + millis + " ms)");
+                } else {
+                    failures.add(name);
+                    System.out.println("FALLO  " + name + " (" + millis + " ms)");
+                    failure.printStackTrace(System.out);
+                }
+            }
+        }
+
+        System.out.println();
+        System.out.println(passed + " pruebas correctas, " + failures.size() + " fallidas");
+        for (String failure : failures) {
+            System.out.println("  " + failure);
+        }
+        if (!failures.isEmpty()) {
+            System.exit(1);
+        }
+    }
+
+    private static Throwable run(Class<?> testClass, Method method) {
+        try {
+            Object instance = testClass.getDeclaredConstructor().newInstance();
+            method.invoke(instance);
+            return null;
+        } catch (InvocationTargetException e) {
+            return e.getCause();
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return e;
+        }
+    }
+
+    // Clases *Test de los directorios del classpath (los .jar se ignoran)
+    private static List<String> testClasses() throws IOException {
+        List<String> result = new ArrayList<>();
+        for (String entry : System.getProperty("java.class.path").split(File.pathSeparator)) {
+            Path root = Paths.get(entry);
+            if (!Files.isDirectory(root)) {
+                continue;
+            }
+            try (Stream<Path> files = Files.walk(root)) {
+                files.map(path -> root.relativize(path).toString())
+                        .filter(name -> name.endsWith("Test.class"))
+                        .map(name -> name.substring(0, name.length() - ".class".length())
+                                .replace(File.separatorChar, '.'))
+                        .sorted()
+                        .forEach(result::add);
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,64 @@
+package view;
+
+import testing.Test;
+import testing.TestHotel;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+import static testing.Assert.assertEquals;
+import static testing.Assert.assertTrue;
+
+public class HotelHttpServerTest {
+    private final TestHotel hotel = new TestHotel();
+    private final HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+    private HttpResponse<String> post(HotelHttpServer server, String path, String body) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + server.getPort() + path))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private HotelHttpServer start() throws Exception {
+        HotelHttpServer server = new HotelHttpServer(hotel.rooms, hotel.clients, hotel.reservations);
+        server.start(0);
+        return server;
+    }
+
+    @Test
+    public void oversizedBodyIsRejectedWith413() throws Exception {
+        HotelHttpServer server = start();
+        try {
+            String name = "x".repeat(HotelHttpServer.MAX_BODY_BYTES);
+            HttpResponse<String> response = post(server, "/clients", "{\"fullName\": \"" + name + "\"}");
+
+            assertEquals(413, response.statusCode(), "cuerpo demasiado grande");
+            assertEquals(0, hotel.clients.getAllClients().size(), "no se da de alta nada");
+            assertEquals(201, post(server, "/clients", "{\"fullName\": \"Ana García\"}").statusCode(),
+                    "un cuerpo normal se sigue aceptando");
+        } finally {
+            server.stop();
+        }
+    }
+
+    @Test
+    public void reservationErrorsMapToClientStatusCodes() throws Exception {
+        HotelHttpServer server = start();
+        try {
+            String clientId = hotel.clients.createClient("Ana García").getId().toString();
+            String far = "{\"clientId\": \"" + clientId + "\", \"roomNumber\": 101, "
+                    + "\"checkIn\": \"+1000000-01-01\", \"checkOut\": \"+1000000-01-03\"}";
+            HttpResponse<String> response = post(server, "/reservations", far);
+
+            assertEquals(400, response.statusCode(), "fecha fuera del horizonte");
+            assertTrue(response.body().contains("días vista"), "con el motivo: " + response.body());
+            assertEquals(404, post(server, "/reservations/no-existe/cancel", "").statusCode(), "reserva inexistente");
+        } finally {
+            server.stop();
+        }
+    }
+}